@@ -0,0 +1,117 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.FactorNode;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Resolves the names of the selected quality aspects to the FactorNodes of a
+ * graph once, so that each evaluation of the graph can read the aspects by
+ * slot rather than searching the graph. Names are matched ignoring case.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class AspectIndex {
+
+    /**
+     * FactorNodes of the quality aspects, indexed by their position in the
+     * list of selected quality aspects
+     */
+    private final FactorNode[] factors;
+
+    /**
+     * Constructs a new AspectIndex for the given graph and quality aspects
+     *
+     * @param graph
+     *            Distilled graph of the quality model
+     * @param aspects
+     *            Names of the selected quality aspects
+     * @throws IllegalArgumentException
+     *             If any of the quality aspects does not name a factor of the
+     *             graph
+     */
+    public AspectIndex(DirectedSparseGraph<Node, Edge> graph, List<String> aspects)
+    {
+        Map<String, FactorNode> byName = Maps.newHashMap();
+        for (final Node n : graph.getVertices())
+        {
+            if (n instanceof FactorNode && n.getName() != null)
+                byName.putIfAbsent(key(n.getName()), (FactorNode) n);
+        }
+
+        factors = new FactorNode[aspects.size()];
+        List<String> unknown = Lists.newArrayList();
+        for (int i = 0; i < aspects.size(); i++)
+        {
+            factors[i] = byName.get(key(aspects.get(i)));
+            if (factors[i] == null)
+                unknown.add(aspects.get(i));
+        }
+
+        if (!unknown.isEmpty())
+            throw new IllegalArgumentException("Unknown quality aspects, no factor with the name(s): " + unknown);
+    }
+
+    /**
+     * @param slot
+     *            Position of the quality aspect in the list of selected
+     *            quality aspects
+     * @return FactorNode of the quality aspect
+     */
+    public FactorNode get(int slot)
+    {
+        return factors[slot];
+    }
+
+    /**
+     * @return Number of quality aspects in the index
+     */
+    public int size()
+    {
+        return factors.length;
+    }
+
+    /**
+     * @param name
+     *            Name of a factor
+     * @return Case insensitive lookup key for the name
+     */
+    private static String key(String name)
+    {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,197 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import org.apache.commons.math3.stat.descriptive.StatisticalSummary;
+
+/**
+ * Online accumulator of the values observed for a single quality aspect. The
+ * mean and variance are maintained using Welford's algorithm, so memory use is
+ * constant regardless of the number of executions, and the summary can be
+ * used directly by the t-tests of {@link org.apache.commons.math3.stat.inference.TestUtils}.
+ * Accumulators filled by different workers can be combined using
+ * {@link #merge(AspectStatistics)}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class AspectStatistics implements StatisticalSummary {
+
+    /**
+     * Number of values observed
+     */
+    private long   n;
+    /**
+     * Running mean of the observed values
+     */
+    private double mean;
+    /**
+     * Running sum of squared differences from the mean
+     */
+    private double m2;
+    /**
+     * Sum of the observed values
+     */
+    private double sum;
+    /**
+     * Smallest observed value
+     */
+    private double min;
+    /**
+     * Largest observed value
+     */
+    private double max;
+
+    /**
+     * Constructs a new, empty, AspectStatistics
+     */
+    public AspectStatistics()
+    {
+        n = 0;
+        mean = 0;
+        m2 = 0;
+        sum = 0;
+        min = Double.NaN;
+        max = Double.NaN;
+    }
+
+    /**
+     * Adds a single observed value.
+     *
+     * @param value
+     *            Observed value
+     */
+    public void add(double value)
+    {
+        n++;
+        double delta = value - mean;
+        mean += delta / n;
+        m2 += delta * (value - mean);
+        sum += value;
+        min = n == 1 ? value : Math.min(min, value);
+        max = n == 1 ? value : Math.max(max, value);
+    }
+
+    /**
+     * Combines the values observed by the given accumulator into this one.
+     *
+     * @param other
+     *            Accumulator to merge into this one
+     */
+    public void merge(AspectStatistics other)
+    {
+        if (other.n == 0)
+            return;
+
+        if (n == 0)
+        {
+            n = other.n;
+            mean = other.mean;
+            m2 = other.m2;
+            sum = other.sum;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+
+        long total = n + other.n;
+        double delta = other.mean - mean;
+        mean += delta * other.n / total;
+        m2 += other.m2 + delta * delta * n * other.n / total;
+        n = total;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getMean()
+    {
+        return n == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getVariance()
+    {
+        if (n == 0)
+            return Double.NaN;
+        if (n == 1)
+            return 0;
+
+        return m2 / (n - 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getStandardDeviation()
+    {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getMax()
+    {
+        return max;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getMin()
+    {
+        return min;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getN()
+    {
+        return n;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getSum()
+    {
+        return sum;
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+/**
+ * Statistics of the means of the blocks of executions of an experiment. When
+ * the executions are sampled with a scheme which correlates the executions of
+ * a block, the executions are no longer independent, but the blocks are, so
+ * the variance of the mean of the experiment and its t-tests are estimated
+ * from the block means.
+ * <p>
+ * Blocks are contiguous ranges of executions. A block may be split across
+ * workers, rounds, or shards, so the sums of each block are kept until all of
+ * its executions have been recorded, and are then folded into per aspect
+ * accumulators of the block means. Statistics collected separately are
+ * combined using {@link #merge(BlockStatistics)}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class BlockStatistics {
+
+    /**
+     * Number of executions per block
+     */
+    private final int                 blockSize;
+    /**
+     * Number of executions planned for the experiment, the last block being
+     * cut short at this number
+     */
+    private final long                total;
+    /**
+     * Accumulated statistics of the means of the complete blocks, one per
+     * quality aspect
+     */
+    private final AspectStatistics[]  means;
+    /**
+     * Sums of the values of each quality aspect, followed by the number of
+     * executions recorded, of the blocks not yet complete
+     */
+    private final Map<Long, double[]> open;
+
+    /**
+     * Constructs a new, empty, BlockStatistics
+     *
+     * @param aspects
+     *            Number of quality aspects
+     * @param blockSize
+     *            Number of executions per block
+     * @param total
+     *            Number of executions planned for the experiment
+     */
+    public BlockStatistics(int aspects, int blockSize, long total)
+    {
+        this.blockSize = blockSize;
+        this.total = total;
+        this.means = new AspectStatistics[aspects];
+        for (int j = 0; j < aspects; j++)
+            means[j] = new AspectStatistics();
+        this.open = Maps.newHashMap();
+    }
+
+    /**
+     * Records the values observed for a single execution.
+     *
+     * @param execution
+     *            Index of the execution
+     * @param values
+     *            Observed values of the quality aspects
+     */
+    public void add(long execution, double[] values)
+    {
+        long block = execution / blockSize;
+        double[] sums = open.computeIfAbsent(block, b -> new double[means.length + 1]);
+        for (int j = 0; j < means.length; j++)
+            sums[j] += values[j];
+        sums[means.length]++;
+
+        complete(block, sums);
+    }
+
+    /**
+     * Combines the statistics collected by another worker into these
+     * statistics.
+     *
+     * @param other
+     *            Statistics to merge into these
+     */
+    public void merge(BlockStatistics other)
+    {
+        for (int j = 0; j < means.length; j++)
+            means[j].merge(other.means[j]);
+
+        for (Map.Entry<Long, double[]> entry : other.open.entrySet())
+        {
+            double[] sums = open.computeIfAbsent(entry.getKey(), b -> new double[means.length + 1]);
+            for (int j = 0; j <= means.length; j++)
+                sums[j] += entry.getValue()[j];
+
+            complete(entry.getKey(), sums);
+        }
+    }
+
+    /**
+     * @return New, empty, statistics with the same blocks as these
+     */
+    public BlockStatistics emptyCopy()
+    {
+        return new BlockStatistics(means.length, blockSize, total);
+    }
+
+    /**
+     * @param aspect
+     *            Index of the quality aspect
+     * @return Accumulated statistics of the means of the complete blocks
+     */
+    public AspectStatistics statistics(int aspect)
+    {
+        return means[aspect];
+    }
+
+    /**
+     * @return Number of executions per block
+     */
+    public int blockSize()
+    {
+        return blockSize;
+    }
+
+    /**
+     * @return Number of complete blocks
+     */
+    public long completed()
+    {
+        return means.length > 0 ? means[0].getN() : 0;
+    }
+
+    /**
+     * Folds the means of a block into the accumulators once all of its
+     * executions have been recorded.
+     *
+     * @param block
+     *            Index of the block
+     * @param sums
+     *            Sums of the block, followed by its number of executions
+     */
+    private void complete(long block, double[] sums)
+    {
+        long size = Math.max(1, Math.min(blockSize, total - block * blockSize));
+        double count = sums[means.length];
+        if (count < size)
+            return;
+
+        for (int j = 0; j < means.length; j++)
+            means[j].add(sums[j] / count);
+        open.remove(block);
+    }
+}
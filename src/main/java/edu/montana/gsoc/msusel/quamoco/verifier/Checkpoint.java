@@ -0,0 +1,267 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * Progress of an experiment which can be written to, and restored from, a
+ * local file. A checkpoint holds the accumulated results of the executions
+ * completed so far together with the master seed of the experiment, from
+ * which the generated code tree and the findings of every execution are
+ * derived, so a resumed experiment produces the same results as an
+ * uninterrupted one. Fingerprints of the
+ * configuration, the quality model, and the generated code tree guard against
+ * resuming an experiment under different conditions.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class Checkpoint {
+
+    /**
+     * Version of the checkpoint file format
+     */
+    private static final int  FORMAT_VERSION = 1;
+    /**
+     * Version of the format the checkpoint was written with
+     */
+    private int               version;
+    /**
+     * Fingerprint of the verifier configuration
+     */
+    private String            configHash;
+    /**
+     * Fingerprint of the distilled quality model
+     */
+    private String            modelHash;
+    /**
+     * Fingerprint of the generated code tree
+     */
+    private String            treeHash;
+    /**
+     * Master seed from which every random number stream of the experiment is
+     * derived
+     */
+    private long              seed;
+    /**
+     * Number of executions completed
+     */
+    private int               completed;
+    /**
+     * Accumulated results of the completed executions
+     */
+    private ExperimentResults results;
+
+    /**
+     * Constructs a new Checkpoint for an experiment which has not yet run any
+     * executions
+     * 
+     * @param configHash
+     *            Fingerprint of the verifier configuration
+     * @param modelHash
+     *            Fingerprint of the distilled quality model
+     * @param treeHash
+     *            Fingerprint of the generated code tree
+     * @param seed
+     *            Master seed of the experiment
+     * @param results
+     *            Empty results of the experiment
+     */
+    public Checkpoint(String configHash, String modelHash, String treeHash, long seed, ExperimentResults results)
+    {
+        this.version = FORMAT_VERSION;
+        this.configHash = configHash;
+        this.modelHash = modelHash;
+        this.treeHash = treeHash;
+        this.seed = seed;
+        this.completed = 0;
+        this.results = results;
+    }
+
+    /**
+     * Records the progress of the experiment.
+     * 
+     * @param completed
+     *            Number of executions completed
+     * @param results
+     *            Accumulated results of the completed executions
+     */
+    public void update(int completed, ExperimentResults results)
+    {
+        this.completed = completed;
+        this.results = results;
+    }
+
+    /**
+     * Checks that this checkpoint was written by an experiment run under the
+     * same conditions as the one about to be resumed.
+     * 
+     * @param configHash
+     *            Fingerprint of the verifier configuration
+     * @param modelHash
+     *            Fingerprint of the distilled quality model
+     * @param treeHash
+     *            Fingerprint of the generated code tree
+     * @throws IllegalStateException
+     *             If any of the fingerprints differ
+     */
+    public void verify(String configHash, String modelHash, String treeHash)
+    {
+        if (version != FORMAT_VERSION)
+            throw new IllegalStateException("Unsupported checkpoint format version: " + version);
+        if (!this.configHash.equals(configHash))
+            throw new IllegalStateException("Cannot resume, the configuration differs from the checkpoint");
+        if (!this.modelHash.equals(modelHash))
+            throw new IllegalStateException("Cannot resume, the quality model differs from the checkpoint");
+        if (!this.treeHash.equals(treeHash))
+            throw new IllegalStateException("Cannot resume, the generated code tree differs from the checkpoint");
+    }
+
+    /**
+     * @return Master seed of the experiment
+     */
+    public long seed()
+    {
+        return seed;
+    }
+
+    /**
+     * @return Number of executions completed
+     */
+    public int completed()
+    {
+        return completed;
+    }
+
+    /**
+     * @return Accumulated results of the completed executions
+     */
+    public ExperimentResults results()
+    {
+        return results;
+    }
+
+    /**
+     * Writes this checkpoint to the given file. The checkpoint is first
+     * written to a temporary file which then replaces the given file, so an
+     * interruption while writing leaves the previous checkpoint intact.
+     * 
+     * @param file
+     *            Checkpoint file
+     * @throws IOException
+     *             If the checkpoint could not be written
+     */
+    public void save(Path file) throws IOException
+    {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8))
+        {
+            gson().toJson(this, writer);
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a checkpoint from the given file.
+     * 
+     * @param file
+     *            Checkpoint file
+     * @return The checkpoint
+     * @throws IOException
+     *             If the file could not be read or does not describe a
+     *             checkpoint
+     */
+    public static Checkpoint load(Path file) throws IOException
+    {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            Checkpoint checkpoint = gson().fromJson(reader, Checkpoint.class);
+            if (checkpoint == null || checkpoint.results == null)
+                throw new IOException("Not a checkpoint file: " + file);
+
+            return checkpoint;
+        }
+        catch (JsonParseException e)
+        {
+            throw new IOException("Not a checkpoint file: " + file, e);
+        }
+    }
+
+    /**
+     * Computes a SHA-256 fingerprint of the given strings, taken in order.
+     * 
+     * @param parts
+     *            Strings to fingerprint
+     * @return Hexadecimal fingerprint
+     */
+    public static String digest(Iterable<String> parts)
+    {
+        MessageDigest md;
+        try
+        {
+            md = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        for (String part : parts)
+        {
+            md.update(part.getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : md.digest())
+            hex.append(String.format("%02x", b));
+
+        return hex.toString();
+    }
+
+    /**
+     * @return Gson instance used to read and write checkpoints, which keeps
+     *         the NaN extremes of empty accumulators
+     */
+    private static Gson gson()
+    {
+        return new GsonBuilder().serializeSpecialFloatingPointValues().create();
+    }
+}
@@ -0,0 +1,256 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.math.BigDecimal;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.config.SamplingScheme;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * State used to run ranges of paired executions comparing two versions of a
+ * quality model on a single thread. Each execution selects its findings and
+ * their locations once, against the first model, exactly as an
+ * {@link ExperimentWorker} running the first model alone would, then attaches
+ * the same findings to both models, matching FindingNodes by name. Findings
+ * of the first model with no counterpart in the second are only attached to
+ * the first.
+ * <p>
+ * The results hold three columns per quality aspect: its value under the
+ * first model, its value under the second, and the difference between the
+ * two, so the paired differences are accumulated and merged like the values
+ * of any other experiment. Every quality aspect of both models is recomputed,
+ * except for executions to which no findings were linked, which take the
+ * baseline values of both models.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+class ComparisonWorker implements ExecutionRunner {
+
+    /**
+     * The verifier providing the linking and evaluation steps
+     */
+    private final ModelVerifier         verifier;
+    /**
+     * The verifier configuration controlling the experiment
+     */
+    private final VerifierConfiguration config;
+    /**
+     * Index of the locations where findings are linked
+     */
+    private final LocationIndex         locations;
+    /**
+     * Source of the graph of the first model
+     */
+    private final ReusableGraph         graphA;
+    /**
+     * Source of the graph of the second model
+     */
+    private final ReusableGraph         graphB;
+    /**
+     * Plan of a copy of the first model with its baseline values, shared by
+     * the workers
+     */
+    private final EvaluationPlan        layoutA;
+    /**
+     * Plan of a copy of the second model with its baseline values, shared by
+     * the workers
+     */
+    private final EvaluationPlan        layoutB;
+    /**
+     * State of the current execution against the first model
+     */
+    private final ExecutionState        stateA;
+    /**
+     * State of the current execution against the second model
+     */
+    private final ExecutionState        stateB;
+    /**
+     * Index of the finding of the second model matching each finding of the
+     * first, -1 if it has none
+     */
+    private final int[]                 mapping;
+    /**
+     * Random number generator owned by this worker
+     */
+    private final SplitMixRandom        rand;
+    /**
+     * Streams from which the random number generator of each execution is
+     * seeded
+     */
+    private final RandomStreams         streams;
+    /**
+     * Sampler deciding the findings of each execution, null when sampling
+     * plainly from the random number generator
+     */
+    private final ExecutionSampler      sampler;
+    /**
+     * Values of the quality aspects under the first model
+     */
+    private final double[]              valuesA;
+    /**
+     * Values of the quality aspects under the second model
+     */
+    private final double[]              valuesB;
+    /**
+     * Values recorded for the current execution, for each quality aspect its
+     * value under the first model, then under the second, then their
+     * difference
+     */
+    private final double[]              paired;
+
+    /**
+     * Constructs a new ComparisonWorker
+     * 
+     * @param verifier
+     *            The verifier providing the simulation steps
+     * @param config
+     *            The verifier configuration
+     * @param locations
+     *            Index of the locations where findings are linked
+     * @param templateA
+     *            Template of the first model
+     * @param baselineA
+     *            Quality aspect values of the first model with no findings
+     *            attached
+     * @param layoutA
+     *            Plan of a copy of the first model with its baseline values
+     * @param templateB
+     *            Template of the second model
+     * @param baselineB
+     *            Quality aspect values of the second model with no findings
+     *            attached
+     * @param layoutB
+     *            Plan of a copy of the second model with its baseline values
+     * @param mapping
+     *            Index of the finding of the second model matching each
+     *            finding of the first, -1 if it has none
+     * @param streams
+     *            Streams from which the random number generator of each
+     *            execution is seeded
+     */
+    ComparisonWorker(ModelVerifier verifier, VerifierConfiguration config, LocationIndex locations,
+            QualityModelTemplate templateA, BigDecimal[] baselineA, EvaluationPlan layoutA,
+            QualityModelTemplate templateB, BigDecimal[] baselineB, EvaluationPlan layoutB, int[] mapping,
+            RandomStreams streams)
+    {
+        this.verifier = verifier;
+        this.config = config;
+        this.locations = locations;
+        this.graphA = new ReusableGraph(verifier, config, templateA, baselineA);
+        this.graphB = new ReusableGraph(verifier, config, templateB, baselineB);
+        this.layoutA = layoutA;
+        this.layoutB = layoutB;
+        this.stateA = new ExecutionState(layoutA);
+        this.stateB = new ExecutionState(layoutB);
+        this.mapping = mapping;
+        this.rand = new SplitMixRandom(streams.seed());
+        this.streams = streams;
+        this.sampler = config.samplingScheme() == SamplingScheme.PLAIN ? null
+                : new ExecutionSampler(config, streams.child("sampling"),
+                        ModelVerifier.samplingDimensions(config, stateA));
+
+        int aspects = config.qualityAspects().size();
+        this.valuesA = new double[aspects];
+        this.valuesB = new double[aspects];
+        this.paired = new double[3 * aspects];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ExperimentResults run(int from, int to)
+    {
+        ExperimentResults results = new ExperimentResults(paired.length);
+        if (sampler != null)
+            results.trackBlocks(sampler.blockSize(), sampler.total());
+
+        for (int i = from; i < to; i++)
+        {
+            stateA.clear();
+            stateB.clear();
+            if (sampler == null)
+            {
+                rand.setSeed(streams.seedOf(i));
+                verifier.linkIssues(config, stateA, locations, rand);
+            }
+            else
+            {
+                sampler.begin(i);
+                verifier.linkIssues(config, stateA, locations, sampler);
+            }
+
+            for (int l = 0; l < stateA.linkCount(); l++)
+            {
+                int f = mapping[stateA.linkedFinding(l)];
+                if (f >= 0)
+                    stateB.markLinked(f, stateA.linkedLocation(l));
+            }
+
+            if (stateA.isUnchanged())
+                results.recordShortCircuit();
+
+            evaluate(graphA, layoutA, stateA, valuesA);
+            evaluate(graphB, layoutB, stateB, valuesB);
+
+            int aspects = valuesA.length;
+            for (int j = 0; j < aspects; j++)
+            {
+                paired[j] = valuesA[j];
+                paired[aspects + j] = valuesB[j];
+                paired[2 * aspects + j] = valuesB[j] - valuesA[j];
+            }
+            results.record(i, paired);
+        }
+
+        return results;
+    }
+
+    /**
+     * Evaluates the quality aspects of one model with the findings of the
+     * current execution attached.
+     * 
+     * @param graph
+     *            Source of the graph of the model
+     * @param layout
+     *            Plan of a copy of the model with its baseline values, used
+     *            when no findings were linked
+     * @param state
+     *            State of the execution against the model
+     * @param values
+     *            Array receiving the values of the quality aspects
+     */
+    private void evaluate(ReusableGraph graph, EvaluationPlan layout, ExecutionState state, double[] values)
+    {
+        EvaluationPlan plan = state.isUnchanged() ? layout : graph.acquire();
+        if (!state.isUnchanged())
+            verifier.applyFindings(plan, state, locations);
+
+        verifier.evaluateModel(plan, state, values, false);
+    }
+}
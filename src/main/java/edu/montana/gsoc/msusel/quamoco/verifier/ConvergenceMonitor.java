@@ -0,0 +1,146 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import org.apache.commons.math3.distribution.TDistribution;
+import org.apache.commons.math3.util.FastMath;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * Tracks the convergence of the quality aspects of an experiment run in
+ * rounds. A quality aspect has converged once the half-width of the
+ * confidence interval of its mean is within the larger of the configured
+ * absolute half-width and the configured relative error of the mean. The
+ * intervals are two-sided at the 97.5% confidence level, matching the 0.025
+ * significance level of the two-sided t-tests used when reporting the
+ * results. Under any sampling scheme other than plain sampling the executions
+ * of a block are not independent, so the intervals are then computed from the
+ * means of the complete blocks, as the t-tests of the report are.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+class ConvergenceMonitor {
+
+    /**
+     * Significance level of the two-sided confidence intervals
+     */
+    static final double  ALPHA = 0.025;
+    /**
+     * Target absolute half-width of the confidence intervals
+     */
+    private final double targetHalfWidth;
+    /**
+     * Target half-width of the confidence intervals relative to the mean
+     */
+    private final double targetRelativeError;
+
+    /**
+     * Constructs a new ConvergenceMonitor using the targets of the given
+     * configuration
+     * 
+     * @param config
+     *            The verifier configuration
+     */
+    ConvergenceMonitor(VerifierConfiguration config)
+    {
+        this.targetHalfWidth = config.targetHalfWidth();
+        this.targetRelativeError = config.targetRelativeError();
+    }
+
+    /**
+     * Checks the convergence of every quality aspect of the given results,
+     * recording the number of executions at which each aspect converged.
+     * 
+     * @param results
+     *            Results of the executions run so far
+     * @return true if every quality aspect has converged
+     */
+    boolean update(ExperimentResults results)
+    {
+        boolean all = true;
+        for (int i = 0; i < results.size(); i++)
+        {
+            if (isConverged(sampled(results, i)))
+            {
+                if (results.executionsNeeded(i) == 0)
+                    results.setExecutionsNeeded(i, results.statistics(i).getN());
+            }
+            else
+            {
+                results.setExecutionsNeeded(i, 0);
+                all = false;
+            }
+        }
+
+        return all;
+    }
+
+    /**
+     * @param results
+     *            Results of the executions run so far
+     * @param aspect
+     *            Index of the quality aspect
+     * @return Statistics of the independent samples of the quality aspect,
+     *         being the means of the complete blocks when the results track
+     *         blocks, and the values of the executions otherwise
+     */
+    static AspectStatistics sampled(ExperimentResults results, int aspect)
+    {
+        return results.blocks() != null ? results.blocks().statistics(aspect) : results.statistics(aspect);
+    }
+
+    /**
+     * @param stats
+     *            Statistics of the independent samples of a quality aspect
+     * @return true if the confidence interval of the mean is within target
+     */
+    boolean isConverged(AspectStatistics stats)
+    {
+        double tolerance = Math.max(targetHalfWidth, targetRelativeError * FastMath.abs(stats.getMean()));
+        return halfWidth(stats) <= tolerance;
+    }
+
+    /**
+     * Computes the half-width of the two-sided confidence interval of the mean
+     * of a quality aspect.
+     * 
+     * @param stats
+     *            Statistics of the independent samples of a quality aspect
+     * @return The half-width, or positive infinity if fewer than two values
+     *         have been observed
+     */
+    static double halfWidth(AspectStatistics stats)
+    {
+        if (stats.getN() < 2)
+            return Double.POSITIVE_INFINITY;
+
+        TDistribution t = new TDistribution(stats.getN() - 1);
+        return t.inverseCumulativeProbability(1 - ALPHA / 2) * stats.getStandardDeviation()
+                / FastMath.sqrt(stats.getN());
+    }
+}
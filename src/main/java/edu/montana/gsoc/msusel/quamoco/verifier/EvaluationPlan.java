@@ -0,0 +1,407 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.FindingNode;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Index of a distilled quality model graph, compiled once per copy of the
+ * graph. The FindingNodes which receive findings, the selection of
+ * FindingNodes made by the configuration, and the quality aspects are resolved
+ * to array positions, so an execution links, resets, and reads the model
+ * without searching the graph.
+ * <p>
+ * The plan is an index and not an evaluation program: the weights and
+ * normalization functions of the model are held by the nodes and edges of the
+ * distilled graph, and the values of the quality aspects are computed by their
+ * FactorNodes. Compiling the graph into flat arrays interpreted without the
+ * nodes would require reimplementing the evaluation semantics of the quamoco
+ * library, which only exposes the values of its nodes, so evaluation is left
+ * to the library. The only evaluation work it saves is through the quality
+ * aspects downstream of each FindingNode, which it computes from a topological
+ * order of the graph when compiled. When the baseline values of the quality
+ * aspects are known, the values of the quality aspects not downstream of any
+ * finding linked during an execution can be taken from the baseline without
+ * being recomputed.
+ * <p>
+ * The state of each execution is held by an {@link ExecutionState}, so the
+ * plan itself does not change once compiled, although the nodes of its graph
+ * do when findings are attached to them. The plan must be compiled from a
+ * graph with no findings attached, as it captures the values held by the
+ * nodes and edges of the graph then, so that they can be restored by
+ * {@link #restoreValues()}. As findings are indexed by name, a
+ * plan compiled for one copy of a graph also describes the findings and
+ * quality aspects of every other copy.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class EvaluationPlan {
+
+    /**
+     * FindingNodes receiving findings, ordered by name
+     */
+    private final FindingNode[] findings;
+    /**
+     * Rule names of the FindingNodes receiving findings
+     */
+    private final String[]      ruleNames;
+    /**
+     * Findings selected by the configuration, as indices into findings or -1
+     * for names without a FindingNode, null when findings are selected at
+     * random for each execution
+     */
+    private final int[]         configured;
+    /**
+     * Maximum number of findings selected at random for each execution
+     */
+    private final int           maxRandom;
+    /**
+     * Quality aspects resolved against the graph
+     */
+    private final AspectIndex   aspects;
+    /**
+     * Quality aspects downstream of each finding, as bit sets indexed by
+     * finding
+     */
+    private final long[][]      influence;
+    /**
+     * Values of the quality aspects with no findings attached, null if not
+     * known
+     */
+    private final BigDecimal[]  baseline;
+    /**
+     * Values of the quality aspects with no findings attached, as primitive
+     * doubles
+     */
+    private final double[]      baselineValues;
+    /**
+     * Values held by the nodes and edges of the graph with no findings
+     * attached
+     */
+    private final GraphValues   clean;
+
+    /**
+     * Compiles a new EvaluationPlan for the given graph, whose baseline
+     * values are not known
+     * 
+     * @param graph
+     *            Distilled graph of the quality model
+     * @param config
+     *            The verifier configuration selecting the quality aspects and
+     *            findings
+     * @throws IllegalArgumentException
+     *             If the graph contains a cycle, or any of the quality aspects
+     *             does not name a factor of the graph
+     */
+    public EvaluationPlan(DirectedSparseGraph<Node, Edge> graph, VerifierConfiguration config)
+    {
+        this(graph, config, null);
+    }
+
+    /**
+     * Compiles a new EvaluationPlan for the given graph
+     * 
+     * @param graph
+     *            Distilled graph of the quality model
+     * @param config
+     *            The verifier configuration selecting the quality aspects and
+     *            findings
+     * @param baseline
+     *            Values of the quality aspects with no findings attached, null
+     *            if not known
+     * @throws IllegalArgumentException
+     *             If the graph contains a cycle, or any of the quality aspects
+     *             does not name a factor of the graph
+     */
+    public EvaluationPlan(DirectedSparseGraph<Node, Edge> graph, VerifierConfiguration config, BigDecimal[] baseline)
+    {
+        Node[] order = topologicalOrder(graph);
+
+        Map<String, FindingNode> byName = Maps.newTreeMap();
+        for (Node n : order)
+        {
+            if (n instanceof FindingNode)
+                byName.put(n.getName(), (FindingNode) n);
+        }
+
+        findings = byName.values().toArray(new FindingNode[byName.size()]);
+        ruleNames = new String[findings.length];
+        Map<String, Integer> indices = Maps.newHashMap();
+        for (int f = 0; f < findings.length; f++)
+        {
+            ruleNames[f] = findings[f].getRuleName();
+            indices.put(findings[f].getName(), f);
+        }
+
+        List<String> toVerify = config.findingsToVerify();
+        maxRandom = Math.min(config.maxFindingsActivatedForAny(), findings.length);
+        if (toVerify.contains(VerifierConfiguration.ANY))
+        {
+            configured = null;
+        }
+        else if (toVerify.contains(VerifierConfiguration.ALL))
+        {
+            configured = new int[findings.length];
+            for (int i = 0; i < configured.length; i++)
+                configured[i] = i;
+        }
+        else
+        {
+            configured = new int[toVerify.size()];
+            for (int i = 0; i < configured.length; i++)
+            {
+                Integer index = indices.get(toVerify.get(i));
+                configured[i] = index == null ? -1 : index;
+            }
+        }
+
+        aspects = new AspectIndex(graph, config.qualityAspects());
+        influence = influence(graph, order, aspects, findings);
+
+        this.baseline = baseline;
+        baselineValues = new double[aspects.size()];
+        if (baseline != null)
+        {
+            for (int i = 0; i < baselineValues.length; i++)
+                baselineValues[i] = baseline[i].doubleValue();
+        }
+
+        clean = GraphValues.capture(Iterables.concat(graph.getVertices(), graph.getEdges()));
+    }
+
+    /**
+     * Restores the values held by the nodes and edges of the graph to those
+     * captured when the plan was compiled, invalidating every value computed
+     * since.
+     */
+    void restoreValues()
+    {
+        clean.restore();
+    }
+
+    /**
+     * @return true if the values of the quality aspects with no findings
+     *         attached are known
+     */
+    public boolean hasBaseline()
+    {
+        return baseline != null;
+    }
+
+    /**
+     * @param aspect
+     *            Index of the quality aspect
+     * @return Value of the quality aspect with no findings attached
+     */
+    public BigDecimal baseline(int aspect)
+    {
+        return baseline[aspect];
+    }
+
+    /**
+     * @param aspect
+     *            Index of the quality aspect
+     * @return Value of the quality aspect with no findings attached, as a
+     *         primitive double
+     */
+    public double baselineValue(int aspect)
+    {
+        return baselineValues[aspect];
+    }
+
+    /**
+     * @return Findings selected by the configuration, as indices into the
+     *         findings or -1 for names without a FindingNode, null when
+     *         findings are selected at random for each execution
+     */
+    int[] configured()
+    {
+        return configured;
+    }
+
+    /**
+     * @return Maximum number of findings selected at random for each
+     *         execution
+     */
+    int maxRandom()
+    {
+        return maxRandom;
+    }
+
+    /**
+     * @param finding
+     *            Index of a finding
+     * @return Quality aspects downstream of the finding, as a bit set
+     */
+    long[] influence(int finding)
+    {
+        return influence[finding];
+    }
+
+    /**
+     * @return Number of words of the quality aspect bit sets
+     */
+    int aspectWords()
+    {
+        return (aspects.size() + 63) >>> 6;
+    }
+
+    /**
+     * @return Number of FindingNodes receiving findings
+     */
+    public int findingCount()
+    {
+        return findings.length;
+    }
+
+    /**
+     * @param finding
+     *            Index of the finding
+     * @return The FindingNode of the finding
+     */
+    public FindingNode finding(int finding)
+    {
+        return findings[finding];
+    }
+
+    /**
+     * @param finding
+     *            Index of the finding
+     * @return Rule name of the FindingNode of the finding
+     */
+    public String ruleName(int finding)
+    {
+        return ruleNames[finding];
+    }
+
+    /**
+     * @return Quality aspects resolved against the graph
+     */
+    public AspectIndex aspects()
+    {
+        return aspects;
+    }
+
+    /**
+     * Orders the nodes of the graph so that every node comes after the nodes
+     * it reads its value from.
+     * 
+     * @param graph
+     *            Distilled graph of the quality model
+     * @return The nodes of the graph, in topological order
+     * @throws IllegalArgumentException
+     *             If the graph contains a cycle
+     */
+    private static Node[] topologicalOrder(DirectedSparseGraph<Node, Edge> graph)
+    {
+        Node[] order = new Node[graph.getVertexCount()];
+        Map<Node, Integer> pending = Maps.newHashMapWithExpectedSize(order.length);
+        Deque<Node> ready = new ArrayDeque<>();
+        for (final Node n : graph.getVertices())
+        {
+            pending.put(n, graph.inDegree(n));
+            if (graph.inDegree(n) == 0)
+                ready.add(n);
+        }
+
+        int next = 0;
+        while (!ready.isEmpty())
+        {
+            Node n = ready.poll();
+            order[next++] = n;
+            for (final Node succ : graph.getSuccessors(n))
+            {
+                int remaining = pending.get(succ) - 1;
+                pending.put(succ, remaining);
+                if (remaining == 0)
+                    ready.add(succ);
+            }
+        }
+
+        if (next < order.length)
+            throw new IllegalArgumentException("Distilled graph contains a cycle and cannot be ordered for evaluation");
+
+        return order;
+    }
+
+    /**
+     * Computes the quality aspects downstream of each finding, propagating
+     * the quality aspects reached from each node to its predecessors in
+     * reverse topological order.
+     * 
+     * @param graph
+     *            Distilled graph of the quality model
+     * @param order
+     *            The nodes of the graph, in topological order
+     * @param aspects
+     *            Quality aspects resolved against the graph
+     * @param findings
+     *            FindingNodes receiving findings
+     * @return Quality aspects downstream of each finding, as bit sets indexed
+     *         by finding
+     */
+    private static long[][] influence(DirectedSparseGraph<Node, Edge> graph, Node[] order, AspectIndex aspects,
+            FindingNode[] findings)
+    {
+        int words = (aspects.size() + 63) >>> 6;
+        Map<Node, long[]> reach = Maps.newHashMapWithExpectedSize(order.length);
+        for (final Node n : order)
+            reach.put(n, new long[words]);
+        for (int a = 0; a < aspects.size(); a++)
+            reach.get(aspects.get(a))[a >>> 6] |= 1L << a;
+
+        for (int i = order.length - 1; i >= 0; i--)
+        {
+            long[] bits = reach.get(order[i]);
+            for (final Node succ : graph.getSuccessors(order[i]))
+            {
+                long[] downstream = reach.get(succ);
+                for (int w = 0; w < words; w++)
+                    bits[w] |= downstream[w];
+            }
+        }
+
+        long[][] influence = new long[findings.length][];
+        for (int f = 0; f < findings.length; f++)
+            influence[f] = reach.get(findings[f]);
+
+        return influence;
+    }
+}
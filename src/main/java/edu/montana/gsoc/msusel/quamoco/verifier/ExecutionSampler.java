@@ -0,0 +1,320 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import org.apache.commons.math3.random.SobolSequenceGenerator;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.config.SamplingScheme;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * Source of the uniform draws deciding the findings of each execution under a
+ * {@link SamplingScheme}. Each decision of an execution reads a fixed
+ * dimension, so the same decision of different executions can be correlated
+ * by the scheme however many findings the executions link. Draws are computed
+ * from the index of the execution and the dimension rather than read from a
+ * sequential generator, so an execution draws the same values whichever
+ * worker, round, or shard runs it.
+ * <p>
+ * The executions are divided into contiguous blocks, each randomized
+ * independently of the others: pairs of executions for the antithetic scheme,
+ * and a configured number of equal blocks spanning the planned executions for
+ * the stratifying schemes. The Sobol scheme follows the sequence for its
+ * leading dimensions, up to the number supported by the generator, and
+ * samples any further dimensions plainly.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+class ExecutionSampler {
+
+    /**
+     * Largest number of dimensions of the Sobol sequence generator
+     */
+    static final int                     MAX_SOBOL_DIMENSIONS = 1000;
+    /**
+     * Spacing of the uniform draws
+     */
+    private static final double          UNIT                 = 0x1.0p-53;
+    /**
+     * Largest uniform draw
+     */
+    private static final double          ONE_BELOW            = 1.0 - UNIT;
+    /**
+     * Increment separating the draws of consecutive dimensions
+     */
+    private static final long            GOLDEN_GAMMA         = 0x9E3779B97F4A7C15L;
+    /**
+     * Scheme sampling the draws
+     */
+    private final SamplingScheme         scheme;
+    /**
+     * Streams from which the seed of each block is derived
+     */
+    private final RandomStreams          blockStreams;
+    /**
+     * Streams from which the seed of each execution is derived
+     */
+    private final RandomStreams          executionStreams;
+    /**
+     * Number of executions per block
+     */
+    private final int                    blockSize;
+    /**
+     * Number of executions planned for the experiment
+     */
+    private final long                   total;
+    /**
+     * Number of strata of the finding count draws
+     */
+    private final int                    counts;
+    /**
+     * Generator of the Sobol sequence, null unless sampling a Sobol sequence
+     */
+    private final SobolSequenceGenerator sobol;
+    /**
+     * Seed of the block of the current execution
+     */
+    private long                         blockSeed;
+    /**
+     * Seed of the current execution
+     */
+    private long                         executionSeed;
+    /**
+     * Position of the current execution in its block
+     */
+    private int                          local;
+    /**
+     * Number of executions of the block of the current execution
+     */
+    private int                          size;
+    /**
+     * Point of the Sobol sequence of the current execution
+     */
+    private double[]                     point;
+
+    /**
+     * Constructs a new ExecutionSampler
+     * 
+     * @param config
+     *            The verifier configuration, providing the scheme
+     * @param streams
+     *            Streams from which the draws of the experiment are derived
+     * @param dimensions
+     *            Number of dimensions read by each execution
+     */
+    ExecutionSampler(VerifierConfiguration config, RandomStreams streams, int dimensions)
+    {
+        this.scheme = config.samplingScheme();
+        this.blockStreams = streams.child("blocks");
+        this.executionStreams = streams.child("executions");
+        this.total = plannedExecutions(config);
+        this.blockSize = blockSize(config);
+        this.counts = Math.max(1, config.maxFindingsPerItem());
+        this.sobol = scheme == SamplingScheme.SOBOL
+                ? new SobolSequenceGenerator(Math.max(1, Math.min(dimensions, MAX_SOBOL_DIMENSIONS))) : null;
+    }
+
+    /**
+     * @param config
+     *            The verifier configuration
+     * @return Number of executions planned for the experiment
+     */
+    static long plannedExecutions(VerifierConfiguration config)
+    {
+        return config.adaptiveStopping() ? config.maxExecutions() : config.numExecutions();
+    }
+
+    /**
+     * @param config
+     *            The verifier configuration
+     * @return Number of executions per block under the configured scheme
+     */
+    static int blockSize(VerifierConfiguration config)
+    {
+        switch (config.samplingScheme())
+        {
+        case PLAIN:
+            return 1;
+        case ANTITHETIC:
+            return 2;
+        default:
+            long planned = plannedExecutions(config);
+            return (int) Math.max(1, (planned + config.samplingReplicates() - 1) / config.samplingReplicates());
+        }
+    }
+
+    /**
+     * @return Number of executions per block
+     */
+    int blockSize()
+    {
+        return blockSize;
+    }
+
+    /**
+     * @return Number of executions planned for the experiment
+     */
+    long total()
+    {
+        return total;
+    }
+
+    /**
+     * Prepares the draws of an execution.
+     * 
+     * @param execution
+     *            Index of the execution
+     */
+    void begin(long execution)
+    {
+        long block = execution / blockSize;
+        local = (int) (execution - block * blockSize);
+        size = (int) Math.max(local + 1, Math.min(blockSize, total - block * blockSize));
+        blockSeed = blockStreams.seedOf(block);
+        executionSeed = executionStreams.seedOf(execution);
+        if (sobol != null)
+            point = sobol.skipTo(local);
+    }
+
+    /**
+     * @param dimension
+     *            Dimension of the decision
+     * @return Uniform draw in [0, 1) of the current execution for the
+     *         decision
+     */
+    double uniform(int dimension)
+    {
+        switch (scheme)
+        {
+        case ANTITHETIC:
+            long bits = bits(blockSeed, dimension);
+            return (local % 2 == 0 ? bits : (1L << 53) - 1 - bits) * UNIT;
+        case LATIN_HYPERCUBE:
+            return stratum(dimension, size);
+        case SOBOL:
+            if (dimension >= point.length)
+                return bits(executionSeed, dimension) * UNIT;
+            double shifted = point[dimension] + bits(blockSeed, dimension) * UNIT;
+            return Math.min(shifted >= 1 ? shifted - 1 : shifted, ONE_BELOW);
+        default:
+            return bits(executionSeed, dimension) * UNIT;
+        }
+    }
+
+    /**
+     * @param dimension
+     *            Dimension of the decision
+     * @return Uniform draw in [0, 1) of the current execution for a decision
+     *         choosing the number of findings generated for a finding
+     */
+    double count(int dimension)
+    {
+        if (scheme == SamplingScheme.STRATIFIED)
+            return stratum(dimension, counts);
+
+        return uniform(dimension);
+    }
+
+    /**
+     * Draws uniformly within the stratum assigned to the current execution.
+     * The executions of a block are assigned to the strata by a permutation
+     * of the block drawn for each dimension, so each stratum is assigned to
+     * as many executions as every other, give or take one.
+     * 
+     * @param dimension
+     *            Dimension of the decision
+     * @param strata
+     *            Number of strata
+     * @return Uniform draw in [0, 1)
+     */
+    private double stratum(int dimension, int strata)
+    {
+        int index = permute(local, size, (int) bits(blockSeed, dimension)) % strata;
+        return Math.min((index + bits(executionSeed, dimension) * UNIT) / strata, ONE_BELOW);
+    }
+
+    /**
+     * @param seed
+     *            Seed of the block or execution
+     * @param dimension
+     *            Dimension of the decision
+     * @return 53 random bits for the dimension
+     */
+    private static long bits(long seed, int dimension)
+    {
+        return SplitMixRandom.mix64(seed + (dimension + 1) * GOLDEN_GAMMA) >>> 11;
+    }
+
+    /**
+     * Maps an index to its position in a random permutation of [0, length),
+     * without storing the permutation, using the hash based permutation of
+     * Kensler's correlated multi-jittered sampling.
+     * 
+     * @param index
+     *            Index to permute
+     * @param length
+     *            Length of the permutation
+     * @param key
+     *            Key selecting the permutation
+     * @return The permuted index
+     */
+    static int permute(int index, int length, int key)
+    {
+        int w = length - 1;
+        w |= w >>> 1;
+        w |= w >>> 2;
+        w |= w >>> 4;
+        w |= w >>> 8;
+        w |= w >>> 16;
+
+        int i = index;
+        do
+        {
+            i ^= key;
+            i *= 0xe170893d;
+            i ^= key >>> 16;
+            i ^= (i & w) >>> 4;
+            i ^= key >>> 8;
+            i *= 0x0929eb3f;
+            i ^= key >>> 23;
+            i ^= (i & w) >>> 1;
+            i *= 1 | key >>> 27;
+            i *= 0x6935fa69;
+            i ^= (i & w) >>> 11;
+            i *= 0x74dcb303;
+            i ^= (i & w) >>> 2;
+            i *= 0x9e501cc3;
+            i ^= (i & w) >>> 2;
+            i *= 0xc860a3df;
+            i &= w;
+            i ^= i >>> 5;
+        }
+        while (Integer.compareUnsigned(i, length) >= 0);
+
+        return Integer.remainderUnsigned(i + Integer.remainderUnsigned(key, length), length);
+    }
+}
@@ -0,0 +1,264 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Mutable state of a single execution, kept apart from the graph it is
+ * evaluated against. The findings linked during the execution are recorded as
+ * primitive finding and location index pairs, along with the quality aspects
+ * downstream of them, so an execution in flight costs a few small arrays
+ * rather than a copy of the distilled graph. The findings are only attached
+ * to a graph, by {@link ModelVerifier#applyFindings}, when the execution is
+ * evaluated.
+ * <p>
+ * Dirtiness is tracked per quality aspect rather than per node: a quality
+ * aspect downstream of any linked finding is recomputed as a whole, while the
+ * others keep their baseline value.
+ * <p>
+ * Findings are indexed in name order, so the state may be applied to the plan
+ * of any copy of the graph distilled from the same template.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ExecutionState {
+
+    /**
+     * Plan whose findings and quality aspects the state refers to
+     */
+    private final EvaluationPlan plan;
+    /**
+     * Findings selected for the execution
+     */
+    private final int[]          selected;
+    /**
+     * Quality aspects downstream of the findings linked during the execution,
+     * as a bit set
+     */
+    private final long[]         dirty;
+    /**
+     * Number of findings linked during the execution
+     */
+    private int                  linked;
+    /**
+     * Findings linked during the execution, encoded as finding and location
+     * index pairs
+     */
+    private long[]               links;
+
+    /**
+     * Constructs a new, empty, ExecutionState
+     *
+     * @param plan
+     *            Plan of a graph distilled from the template the state is
+     *            applied to
+     */
+    public ExecutionState(EvaluationPlan plan)
+    {
+        this.plan = plan;
+        this.selected = plan.configured() == null ? new int[plan.findingCount()] : plan.configured().clone();
+        this.dirty = new long[plan.aspectWords()];
+        this.links = new long[16];
+        this.linked = 0;
+    }
+
+    /**
+     * Empties the state, at the start of an execution.
+     */
+    public void clear()
+    {
+        Arrays.fill(dirty, 0L);
+        linked = 0;
+    }
+
+    /**
+     * Selects the findings to link during the execution. Findings chosen by
+     * the configuration are always selected, otherwise up to the configured
+     * maximum are drawn at random without replacement. The selected findings
+     * are read through {@link #selected(int)}.
+     * 
+     * @param rand
+     *            Random number generator used to draw the findings
+     * @return Number of findings selected
+     */
+    public int selectFindings(Random rand)
+    {
+        if (plan.configured() != null)
+            return selected.length;
+
+        for (int i = 0; i < selected.length; i++)
+            selected[i] = i;
+
+        int count = plan.maxRandom();
+        for (int i = 0; i < count; i++)
+        {
+            int j = i + rand.nextInt(selected.length - i);
+            int temp = selected[i];
+            selected[i] = selected[j];
+            selected[j] = temp;
+        }
+
+        return count;
+    }
+
+    /**
+     * Selects the findings to link during the execution, as
+     * {@link #selectFindings(Random)} does, drawing the findings chosen at
+     * random from the first {@link #selectionDimensions()} dimensions of the
+     * given sampler.
+     * 
+     * @param sampler
+     *            Sampler providing the draws of the execution
+     * @return Number of findings selected
+     */
+    int selectFindings(ExecutionSampler sampler)
+    {
+        if (plan.configured() != null)
+            return selected.length;
+
+        for (int i = 0; i < selected.length; i++)
+            selected[i] = i;
+
+        int count = plan.maxRandom();
+        for (int i = 0; i < count; i++)
+        {
+            int j = Math.min(i + (int) (sampler.uniform(i) * (selected.length - i)), selected.length - 1);
+            int temp = selected[i];
+            selected[i] = selected[j];
+            selected[j] = temp;
+        }
+
+        return count;
+    }
+
+    /**
+     * @return Number of sampler dimensions used to select the findings
+     */
+    public int selectionDimensions()
+    {
+        return plan.configured() == null ? plan.maxRandom() : 0;
+    }
+
+    /**
+     * @return Number of findings selected for each execution
+     */
+    public int selectionSize()
+    {
+        return plan.configured() == null ? plan.maxRandom() : selected.length;
+    }
+
+    /**
+     * @param index
+     *            Position in the current selection
+     * @return Index of the selected finding, or -1 if the configuration names
+     *         a finding with no FindingNode
+     */
+    public int selected(int index)
+    {
+        return selected[index];
+    }
+
+    /**
+     * Records a finding linked during the execution, marking the quality
+     * aspects downstream of it as needing to be recomputed.
+     * 
+     * @param finding
+     *            Index of the finding which received a finding
+     * @param location
+     *            Index of the location the finding was linked to
+     */
+    public void markLinked(int finding, int location)
+    {
+        if (linked == links.length)
+            links = Arrays.copyOf(links, linked * 2);
+        links[linked++] = ScenarioKey.encode(finding, location);
+
+        long[] mask = plan.influence(finding);
+        for (int w = 0; w < dirty.length; w++)
+            dirty[w] |= mask[w];
+    }
+
+    /**
+     * @return Number of findings linked during the execution
+     */
+    public int linkCount()
+    {
+        return linked;
+    }
+
+    /**
+     * @param index
+     *            Position of a linked finding, in linking order
+     * @return Index of the finding
+     */
+    public int linkedFinding(int index)
+    {
+        return (int) (links[index] >>> 32);
+    }
+
+    /**
+     * @param index
+     *            Position of a linked finding, in linking order
+     * @return Index of the location the finding was linked to
+     */
+    public int linkedLocation(int index)
+    {
+        return (int) links[index];
+    }
+
+    /**
+     * @return Canonical key of the findings linked during the execution
+     */
+    ScenarioKey scenarioKey()
+    {
+        return new ScenarioKey(links, linked);
+    }
+
+    /**
+     * @return true if no findings were linked during the execution and the
+     *         baseline values are known, so every quality aspect holds its
+     *         baseline value
+     */
+    public boolean isUnchanged()
+    {
+        return plan.hasBaseline() && linked == 0;
+    }
+
+    /**
+     * @param aspect
+     *            Index of the quality aspect
+     * @return true if the quality aspect must be recomputed, because it is
+     *         downstream of a finding linked during the execution or its
+     *         baseline value is not known
+     */
+    public boolean isDirty(int aspect)
+    {
+        return !plan.hasBaseline() || (dirty[aspect >>> 6] & (1L << aspect)) != 0;
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * Runs ranges of simulation executions across a fixed set of workers. When
+ * more than one worker is configured, a range is split into contiguous
+ * sub-ranges, one per worker, which run on a thread pool and whose partial
+ * results are merged in the order of their sub-ranges. The workers, and the
+ * graphs they hold, are kept between ranges so that an experiment can be run
+ * in several rounds. The workers are {@link ExperimentWorker}s unless the
+ * engine is given other {@link ExecutionRunner}s.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+class ExperimentEngine implements AutoCloseable {
+
+    /**
+     * Logger associated with this class
+     */
+    private static final Logger     LOG = LoggerFactory.getLogger(ExperimentEngine.class);
+    /**
+     * Workers running the executions
+     */
+    private final ExecutionRunner[] workers;
+    /**
+     * Thread pool running the workers, null when a single worker runs on the
+     * calling thread
+     */
+    private final ExecutorService   executor;
+
+    /**
+     * Constructs a new ExperimentEngine
+     * 
+     * @param verifier
+     *            The verifier providing the simulation steps
+     * @param config
+     *            The verifier configuration
+     * @param locations
+     *            Index of the locations where findings are linked
+     * @param template
+     *            Template of the distilled quality model
+     * @param baseline
+     *            Quality aspect values of the model with no findings attached
+     * @param layout
+     *            Plan of a copy of the model with its baseline values, shared
+     *            by the workers
+     * @param streams
+     *            Streams from which the random number generator of each
+     *            execution is seeded
+     */
+    ExperimentEngine(ModelVerifier verifier, VerifierConfiguration config, LocationIndex locations,
+            QualityModelTemplate template, BigDecimal[] baseline, EvaluationPlan layout, RandomStreams streams)
+    {
+        this(config, () -> new ExperimentWorker(verifier, config, locations, template, baseline, layout, streams));
+    }
+
+    /**
+     * Constructs a new ExperimentEngine running its executions on the workers
+     * provided by the given factory
+     * 
+     * @param config
+     *            The verifier configuration, providing the number of workers
+     * @param factory
+     *            Factory creating each worker
+     */
+    ExperimentEngine(VerifierConfiguration config, Supplier<ExecutionRunner> factory)
+    {
+        int count = Math.max(1, config.numWorkers());
+        workers = new ExecutionRunner[count];
+        for (int w = 0; w < count; w++)
+            workers[w] = factory.get();
+
+        if (count > 1)
+        {
+            LOG.info("Running executions on " + count + " workers");
+            executor = Executors.newFixedThreadPool(count);
+        }
+        else
+        {
+            executor = null;
+        }
+    }
+
+    /**
+     * Runs the executions in the range [from, to).
+     * 
+     * @param from
+     *            First execution (inclusive)
+     * @param to
+     *            Last execution (exclusive)
+     * @return Values of the quality aspects observed during the executions
+     */
+    ExperimentResults run(int from, int to)
+    {
+        if (executor == null)
+            return workers[0].run(from, to);
+
+        int executions = to - from;
+        int count = Math.max(1, Math.min(workers.length, executions));
+        List<Future<ExperimentResults>> futures = Lists.newArrayList();
+
+        int chunk = executions / count;
+        int remainder = executions % count;
+        int start = from;
+        for (int w = 0; w < count; w++)
+        {
+            final ExecutionRunner worker = workers[w];
+            final int first = start;
+            final int last = start + chunk + (w < remainder ? 1 : 0);
+            futures.add(executor.submit(() -> worker.run(first, last)));
+            start = last;
+        }
+
+        ExperimentResults results = null;
+        try
+        {
+            for (Future<ExperimentResults> future : futures)
+            {
+                if (results == null)
+                    results = future.get();
+                else
+                    results.merge(future.get());
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting on experiment workers", e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("Experiment worker failed", e.getCause());
+        }
+
+        return results;
+    }
+
+    /**
+     * Shuts down the thread pool running the workers.
+     */
+    @Override
+    public void close()
+    {
+        if (executor != null)
+            executor.shutdownNow();
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+/**
+ * Summary of the values of the quality aspects observed during the executions
+ * of an experiment. Each execution is folded into per aspect accumulators as it
+ * completes, so the memory used does not grow with the number of executions.
+ * Results collected by different workers are combined using
+ * {@link #merge(ExperimentResults)}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ExperimentResults {
+
+    /**
+     * Accumulated statistics, one per quality aspect
+     */
+    private final AspectStatistics[] statistics;
+    /**
+     * Number of executions after which each quality aspect converged, 0 if it
+     * has not converged or convergence is not being tracked
+     */
+    private final long[]             executionsNeeded;
+    /**
+     * Number of executions to which no findings were linked, whose values
+     * were taken from the baseline
+     */
+    private long                     shortCircuited;
+    /**
+     * Number of executions whose values were found in the result cache
+     */
+    private long                     cacheHits;
+    /**
+     * Number of executions whose values were not found in the result cache
+     */
+    private long                     cacheMisses;
+    /**
+     * Number of entries evicted from the result cache
+     */
+    private long                     cacheEvictions;
+    /**
+     * Statistics of the means of the blocks of executions, null if the
+     * executions are not sampled in blocks
+     */
+    private BlockStatistics          blocks;
+
+    /**
+     * Constructs a new, empty, ExperimentResults
+     *
+     * @param aspects
+     *            Number of quality aspects
+     */
+    public ExperimentResults(int aspects)
+    {
+        statistics = new AspectStatistics[aspects];
+        for (int j = 0; j < aspects; j++)
+            statistics[j] = new AspectStatistics();
+
+        executionsNeeded = new long[aspects];
+    }
+
+    /**
+     * Records the values observed for a single execution.
+     *
+     * @param execution
+     *            Index of the execution
+     * @param values
+     *            Observed values of the quality aspects
+     */
+    public void record(long execution, double[] values)
+    {
+        for (int j = 0; j < values.length; j++)
+            statistics[j].add(values[j]);
+
+        if (blocks != null)
+            blocks.add(execution, values);
+    }
+
+    /**
+     * Starts tracking the means of the blocks of executions, when the
+     * executions are sampled in blocks.
+     * 
+     * @param blockSize
+     *            Number of executions per block
+     * @param total
+     *            Number of executions planned for the experiment
+     */
+    public void trackBlocks(int blockSize, long total)
+    {
+        if (blocks == null)
+            blocks = new BlockStatistics(statistics.length, blockSize, total);
+    }
+
+    /**
+     * Records an execution to which no findings were linked.
+     */
+    public void recordShortCircuit()
+    {
+        shortCircuited++;
+    }
+
+    /**
+     * Records the activity of the result cache.
+     * 
+     * @param hits
+     *            Number of executions whose values were found in the cache
+     * @param misses
+     *            Number of executions whose values were not found in the cache
+     * @param evictions
+     *            Number of entries evicted from the cache
+     */
+    public void recordCache(long hits, long misses, long evictions)
+    {
+        cacheHits += hits;
+        cacheMisses += misses;
+        cacheEvictions += evictions;
+    }
+
+    /**
+     * Combines the results collected by another worker into these results.
+     *
+     * @param other
+     *            Results to merge into these
+     */
+    public void merge(ExperimentResults other)
+    {
+        for (int j = 0; j < statistics.length; j++)
+            statistics[j].merge(other.statistics[j]);
+        shortCircuited += other.shortCircuited;
+        if (other.blocks != null)
+        {
+            if (blocks == null)
+                blocks = other.blocks.emptyCopy();
+            blocks.merge(other.blocks);
+        }
+        recordCache(other.cacheHits, other.cacheMisses, other.cacheEvictions);
+    }
+
+    /**
+     * @param aspect
+     *            Index of the quality aspect
+     * @return Accumulated statistics of the quality aspect
+     */
+    public AspectStatistics statistics(int aspect)
+    {
+        return statistics[aspect];
+    }
+
+    /**
+     * @return Number of quality aspects
+     */
+    public int size()
+    {
+        return statistics.length;
+    }
+
+    /**
+     * @param aspect
+     *            Index of the quality aspect
+     * @return Number of executions after which the quality aspect converged,
+     *         0 if it has not converged
+     */
+    public long executionsNeeded(int aspect)
+    {
+        return executionsNeeded[aspect];
+    }
+
+    /**
+     * @param aspect
+     *            Index of the quality aspect
+     * @param executions
+     *            Number of executions after which the quality aspect
+     *            converged, 0 if it has not converged
+     */
+    public void setExecutionsNeeded(int aspect, long executions)
+    {
+        executionsNeeded[aspect] = executions;
+    }
+
+    /**
+     * @return Number of executions to which no findings were linked
+     */
+    public long shortCircuited()
+    {
+        return shortCircuited;
+    }
+
+    /**
+     * @return Number of executions whose values were found in the result cache
+     */
+    public long cacheHits()
+    {
+        return cacheHits;
+    }
+
+    /**
+     * @return Number of executions whose values were not found in the result
+     *         cache
+     */
+    public long cacheMisses()
+    {
+        return cacheMisses;
+    }
+
+    /**
+     * @return Number of entries evicted from the result cache
+     */
+    public long cacheEvictions()
+    {
+        return cacheEvictions;
+    }
+
+    /**
+     * @return Statistics of the means of the blocks of executions, null if
+     *         the executions were not sampled in blocks
+     */
+    public BlockStatistics blocks()
+    {
+        return blocks;
+    }
+}
@@ -0,0 +1,290 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.math.BigDecimal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.config.SamplingScheme;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * State used to run ranges of simulation executions on a single thread. Each
+ * worker owns its own random number generator and its own graph, which are
+ * kept between the ranges it is asked to run, and returns the partial results
+ * of each range so they can be merged once all workers are done. The random
+ * number generator is reseeded with the stream of each execution before it
+ * runs, so the findings of an execution do not depend on which worker runs it
+ * or on whether the experiment was resumed.
+ * <p>
+ * The worker keeps a single graph and a single {@link ExecutionState}. The
+ * findings of each execution are linked into the state first, then attached to
+ * the graph and its quality aspects read into the values of the execution. An
+ * execution to which no findings were linked takes the baseline values without
+ * the graph being touched.
+ * <p>
+ * When a sampling scheme other than plain sampling is configured, the
+ * findings of each execution are decided by an {@link ExecutionSampler}
+ * instead of the random number generator, and the means of the blocks of
+ * executions of the sampler are tracked alongside the results.
+ * <p>
+ * When a result cache is configured, the values of each execution are cached
+ * under the findings it linked, and later executions linking the same
+ * findings to the same locations take the cached values without being
+ * evaluated.
+ * <p>
+ * When incremental evaluation is enabled, quality aspects which are not
+ * downstream of any finding linked during an execution take their baseline
+ * value. Dirtiness is tracked per quality aspect, not per node, so a quality
+ * aspect downstream of any linked finding is recomputed as a whole. The
+ * skipped quality aspects are checked against their recomputed values on the
+ * first evaluated execution and then once every configured number of evaluated
+ * executions, deferring to the next execution when a sampled one skips none,
+ * and incremental evaluation is disabled for the worker if any of them
+ * differ.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+class ExperimentWorker implements ExecutionRunner {
+
+    /**
+     * Logger associated with this class
+     */
+    private static final Logger         LOG = LoggerFactory.getLogger(ExperimentWorker.class);
+    /**
+     * The verifier providing the graph building, linking, and evaluation steps
+     */
+    private final ModelVerifier         verifier;
+    /**
+     * The verifier configuration controlling the experiment
+     */
+    private final VerifierConfiguration config;
+    /**
+     * Index of the locations where findings are linked
+     */
+    private final LocationIndex         locations;
+    /**
+     * Source of the graph the executions are evaluated against
+     */
+    private final ReusableGraph         graph;
+    /**
+     * State of the current execution
+     */
+    private final ExecutionState        state;
+    /**
+     * Plan of the graph currently held, the shared layout until the first
+     * execution with findings
+     */
+    private EvaluationPlan              plan;
+    /**
+     * Random number generator owned by this worker
+     */
+    private final SplitMixRandom        rand;
+    /**
+     * Streams from which the random number generator of each execution is
+     * seeded
+     */
+    private final RandomStreams         streams;
+    /**
+     * Sampler deciding the findings of each execution, null when sampling
+     * plainly from the random number generator
+     */
+    private final ExecutionSampler      sampler;
+    /**
+     * Values of the quality aspects for the current execution
+     */
+    private final double[]              values;
+    /**
+     * Cache of the values of earlier executions, null if disabled
+     */
+    private final ResultCache           cache;
+    /**
+     * Boolean flag indicating whether clean quality aspects take their
+     * baseline value
+     */
+    private boolean                     incremental;
+    /**
+     * Number of executions evaluated against the graph by this worker
+     */
+    private long                        evaluated;
+    /**
+     * Boolean flag indicating whether a sampled check of the skipped quality
+     * aspects is still to be made
+     */
+    private boolean                     checkPending;
+
+    /**
+     * Constructs a new ExperimentWorker
+     * 
+     * @param verifier
+     *            The verifier providing the simulation steps
+     * @param config
+     *            The verifier configuration
+     * @param locations
+     *            Index of the locations where findings are linked
+     * @param template
+     *            Template of the distilled quality model
+     * @param baseline
+     *            Quality aspect values of the model with no findings attached
+     * @param layout
+     *            Plan of a copy of the model with its baseline values, shared
+     *            by the workers to size the state of each execution
+     * @param streams
+     *            Streams from which the random number generator of each
+     *            execution is seeded
+     */
+    ExperimentWorker(ModelVerifier verifier, VerifierConfiguration config, LocationIndex locations,
+            QualityModelTemplate template, BigDecimal[] baseline, EvaluationPlan layout, RandomStreams streams)
+    {
+        this.verifier = verifier;
+        this.config = config;
+        this.locations = locations;
+        this.graph = new ReusableGraph(verifier, config, template, baseline);
+        this.plan = layout;
+        this.state = new ExecutionState(layout);
+        this.rand = new SplitMixRandom(streams.seed());
+        this.streams = streams;
+        this.sampler = config.samplingScheme() == SamplingScheme.PLAIN ? null
+                : new ExecutionSampler(config, streams.child("sampling"),
+                        ModelVerifier.samplingDimensions(config, state));
+
+        this.values = new double[config.qualityAspects().size()];
+        this.cache = config.resultCacheSize() > 0 ? new ResultCache(config.resultCacheSize()) : null;
+        this.incremental = config.incrementalEvaluation();
+        this.evaluated = 0;
+        this.checkPending = false;
+    }
+
+    /**
+     * Runs the executions in the range [from, to).
+     * 
+     * @param from
+     *            First execution (inclusive)
+     * @param to
+     *            Last execution (exclusive)
+     * @return The results of the executions run
+     */
+    @Override
+    public ExperimentResults run(int from, int to)
+    {
+        ExperimentResults results = new ExperimentResults(values.length);
+        if (sampler != null)
+            results.trackBlocks(sampler.blockSize(), sampler.total());
+        long hits = cache == null ? 0 : cache.hits();
+        long misses = cache == null ? 0 : cache.misses();
+        long evictions = cache == null ? 0 : cache.evictions();
+
+        for (int i = from; i < to; i++)
+        {
+            state.clear();
+            if (sampler == null)
+            {
+                rand.setSeed(streams.seedOf(i));
+                verifier.linkIssues(config, state, locations, rand);
+            }
+            else
+            {
+                sampler.begin(i);
+                verifier.linkIssues(config, state, locations, sampler);
+            }
+
+            if (state.isUnchanged())
+            {
+                results.recordShortCircuit();
+                verifier.evaluateModel(plan, state, values, incremental);
+            }
+            else if (cache == null)
+            {
+                evaluate();
+            }
+            else
+            {
+                ScenarioKey key = state.scenarioKey();
+                double[] cached = cache.get(key);
+                if (cached != null)
+                    System.arraycopy(cached, 0, values, 0, values.length);
+                else
+                {
+                    evaluate();
+                    cache.put(key, values.clone());
+                }
+            }
+
+            results.record(i, values);
+        }
+
+        if (cache != null)
+            results.recordCache(cache.hits() - hits, cache.misses() - misses, cache.evictions() - evictions);
+
+        return results;
+    }
+
+    /**
+     * Attaches the findings of the current execution to a graph with no
+     * findings attached and reads its quality aspects into the values of the
+     * execution.
+     */
+    private void evaluate()
+    {
+        plan = graph.acquire();
+        verifier.applyFindings(plan, state, locations);
+        if (evaluated++ % config.incrementalCheckInterval() == 0)
+            checkPending = true;
+        if (incremental && checkPending)
+            checkPending = !verifyIncremental();
+        verifier.evaluateModel(plan, state, values, incremental);
+    }
+
+    /**
+     * Checks the quality aspects the current execution would skip against
+     * their values recomputed from the graph, disabling incremental evaluation
+     * if any differ.
+     * 
+     * @return true if at least one skipped quality aspect was checked
+     */
+    private boolean verifyIncremental()
+    {
+        boolean checked = false;
+        for (int j = 0; j < values.length; j++)
+        {
+            if (state.isDirty(j))
+                continue;
+
+            checked = true;
+            if (plan.aspects().get(j).getValue().compareTo(plan.baseline(j)) != 0)
+            {
+                LOG.warn("Quality aspects not downstream of any finding changed value, incremental evaluation disabled");
+                incremental = false;
+                return true;
+            }
+        }
+
+        return checked;
+    }
+}
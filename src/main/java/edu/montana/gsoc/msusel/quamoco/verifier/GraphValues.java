@@ -0,0 +1,196 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Values of the mutable scalar fields of a set of objects, such as the nodes
+ * and edges of a distilled graph, captured while they are clean so that they
+ * can be restored in place. A mutable scalar field is any field which is
+ * neither static nor final and holds a primitive, a boxed primitive, a
+ * BigInteger, a BigDecimal, a String, or an enum constant, which covers the
+ * values, flags, and counters the quamoco library caches in its nodes and
+ * edges. Fields holding other objects, such as collections, are left to their
+ * owners.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+class GraphValues {
+
+    /**
+     * Mutable scalar fields of each class seen, including inherited fields
+     */
+    private static final Map<Class<?>, Field[]> FIELDS  = Maps.newConcurrentMap();
+    /**
+     * Boxed and immutable types whose values are captured by reference
+     */
+    private static final Set<Class<?>>          SCALARS = ImmutableSet.of(Boolean.class, Byte.class,
+            Character.class, Short.class, Integer.class, Long.class, Float.class, Double.class, BigInteger.class,
+            BigDecimal.class, String.class);
+    /**
+     * Objects whose fields were captured
+     */
+    private final Object[]                      owners;
+    /**
+     * Captured values of the fields of each object, in the order of the
+     * fields of its class
+     */
+    private final Object[][]                    values;
+
+    /**
+     * Constructs a new GraphValues
+     *
+     * @param owners
+     *            Objects whose fields were captured
+     * @param values
+     *            Captured values of the fields of each object
+     */
+    private GraphValues(Object[] owners, Object[][] values)
+    {
+        this.owners = owners;
+        this.values = values;
+    }
+
+    /**
+     * Captures the current values of the mutable scalar fields of the given
+     * objects.
+     *
+     * @param elements
+     *            Objects to capture, such as the vertices and edges of a graph
+     * @return The captured values
+     */
+    static GraphValues capture(Iterable<?> elements)
+    {
+        List<Object> owners = Lists.newArrayList();
+        List<Object[]> values = Lists.newArrayList();
+        for (Object element : elements)
+        {
+            Field[] fields = fields(element.getClass());
+            if (fields.length == 0)
+                continue;
+
+            Object[] current = new Object[fields.length];
+            for (int i = 0; i < fields.length; i++)
+                current[i] = get(fields[i], element);
+
+            owners.add(element);
+            values.add(current);
+        }
+
+        return new GraphValues(owners.toArray(), values.toArray(new Object[values.size()][]));
+    }
+
+    /**
+     * Restores the captured values of the mutable scalar fields of every
+     * captured object.
+     */
+    void restore()
+    {
+        for (int o = 0; o < owners.length; o++)
+        {
+            Field[] fields = fields(owners[o].getClass());
+            for (int i = 0; i < fields.length; i++)
+            {
+                try
+                {
+                    fields[i].set(owners[o], values[o][i]);
+                }
+                catch (IllegalAccessException e)
+                {
+                    throw new IllegalStateException("Could not restore " + fields[i], e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param type
+     *            Class of a captured object
+     * @return Mutable scalar fields of the class and its superclasses
+     */
+    private static Field[] fields(Class<?> type)
+    {
+        return FIELDS.computeIfAbsent(type, t -> {
+            List<Field> fields = Lists.newArrayList();
+            for (Class<?> c = t; c != null && c != Object.class; c = c.getSuperclass())
+            {
+                for (Field field : c.getDeclaredFields())
+                {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic()
+                            || !isScalar(field.getType()))
+                        continue;
+
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+
+            return fields.toArray(new Field[fields.size()]);
+        });
+    }
+
+    /**
+     * @param type
+     *            Declared type of a field
+     * @return true if values of the type are scalars captured by value
+     */
+    private static boolean isScalar(Class<?> type)
+    {
+        return type.isPrimitive() || type.isEnum() || SCALARS.contains(type);
+    }
+
+    /**
+     * @param field
+     *            An accessible field
+     * @param owner
+     *            Object holding the field
+     * @return Current value of the field
+     */
+    private static Object get(Field field, Object owner)
+    {
+        try
+        {
+            return field.get(owner);
+        }
+        catch (IllegalAccessException e)
+        {
+            throw new IllegalStateException("Could not capture " + field, e);
+        }
+    }
+}
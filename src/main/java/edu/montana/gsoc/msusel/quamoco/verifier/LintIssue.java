@@ -0,0 +1,122 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.model.ModelElement;
+
+/**
+ * A defect of a quality model found by the {@link ModelLinter}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class LintIssue {
+
+    /**
+     * Enumeration of the defects detected by the linter
+     */
+    public enum Kind {
+        /**
+         * The weights of a weighted sum evaluation add up to less than 1.0, so
+         * the evaluated factor can never reach 1.0
+         */
+        WEIGHT_SUM,
+        /**
+         * The utility function of a measure does not match the impact of the
+         * evaluated factor, positive impacts calling for linearly decreasing
+         * functions and negative impacts for linearly increasing ones
+         */
+        FUNCTION_MISMATCH,
+        /**
+         * The factors ranked by an evaluation impact the evaluated factor both
+         * positively and negatively
+         */
+        MIXED_IMPACT
+    }
+
+    /**
+     * Kind of defect
+     */
+    private final Kind         kind;
+    /**
+     * Element exhibiting the defect
+     */
+    private final ModelElement element;
+    /**
+     * Description of the defect
+     */
+    private final String       message;
+
+    /**
+     * Constructs a new LintIssue
+     *
+     * @param kind
+     *            Kind of defect
+     * @param element
+     *            Element exhibiting the defect
+     * @param message
+     *            Description of the defect
+     */
+    public LintIssue(Kind kind, ModelElement element, String message)
+    {
+        this.kind = kind;
+        this.element = element;
+        this.message = message;
+    }
+
+    /**
+     * @return Kind of defect
+     */
+    public Kind kind()
+    {
+        return kind;
+    }
+
+    /**
+     * @return Element exhibiting the defect
+     */
+    public ModelElement element()
+    {
+        return element;
+    }
+
+    /**
+     * @return Description of the defect
+     */
+    public String message()
+    {
+        return message;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return String.format("%-17s %s: %s", kind, element, message);
+    }
+}
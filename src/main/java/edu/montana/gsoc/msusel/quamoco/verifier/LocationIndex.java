@@ -0,0 +1,167 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+
+import edu.montana.gsoc.msusel.CodeTree;
+import edu.montana.gsoc.msusel.INode;
+import edu.montana.gsoc.msusel.node.FileNode;
+import edu.montana.gsoc.msusel.node.MethodNode;
+import edu.montana.gsoc.msusel.node.TypeNode;
+
+/**
+ * Immutable index of the locations of a CodeTree to which findings can be
+ * linked. The methods, types, and files of the tree are collected once into
+ * arrays, which allows a location to be sampled in constant time without
+ * allocation, and allows the index to be shared by every execution and worker
+ * of an experiment.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class LocationIndex {
+
+    /**
+     * Methods of the tree
+     */
+    private final MethodNode[] methods;
+    /**
+     * Types of the tree
+     */
+    private final TypeNode[]   types;
+    /**
+     * Files of the tree
+     */
+    private final FileNode[]   files;
+
+    /**
+     * Constructs a new LocationIndex for the given tree
+     *
+     * @param tree
+     *            CodeTree providing the locations
+     */
+    public LocationIndex(CodeTree tree)
+    {
+        methods = Iterables.toArray(tree.getUtils().getMethods(), MethodNode.class);
+        types = Iterables.toArray(tree.getUtils().getTypes(), TypeNode.class);
+        files = Iterables.toArray(tree.getUtils().getFiles(), FileNode.class);
+    }
+
+    /**
+     * Randomly selects a location. The kind of location (method, type, or
+     * file) is selected uniformly, then a location of that kind is selected
+     * uniformly.
+     *
+     * @param rand
+     *            Random number generator used for the selection
+     * @return The selected location
+     */
+    public INode sample(Random rand)
+    {
+        return location(sampleIndex(rand));
+    }
+
+    /**
+     * Randomly selects a location, as {@link #sample(Random)} does, returning
+     * its index.
+     * 
+     * @param rand
+     *            Random number generator used for the selection
+     * @return Index of the selected location
+     */
+    public int sampleIndex(Random rand)
+    {
+        int type = rand.nextInt(3);
+        switch (type)
+        {
+        case 2:
+            return methods.length + types.length + rand.nextInt(files.length);
+        case 1:
+            return methods.length + rand.nextInt(types.length);
+        default:
+            return rand.nextInt(methods.length);
+        }
+    }
+
+    /**
+     * Selects a location from two uniform draws, with the same distribution
+     * as {@link #sampleIndex(Random)}.
+     * 
+     * @param kind
+     *            Uniform draw in [0, 1) selecting the kind of location
+     * @param position
+     *            Uniform draw in [0, 1) selecting the location of that kind
+     * @return Index of the selected location
+     */
+    public int sampleIndex(double kind, double position)
+    {
+        switch ((int) (kind * 3))
+        {
+        case 2:
+            return methods.length + types.length + (int) (position * files.length);
+        case 1:
+            return methods.length + (int) (position * types.length);
+        default:
+            return (int) (position * methods.length);
+        }
+    }
+
+    /**
+     * @param index
+     *            Index of a location
+     * @return The location
+     */
+    public INode location(int index)
+    {
+        if (index < methods.length)
+            return methods[index];
+        else if (index < methods.length + types.length)
+            return types[index - methods.length];
+        else
+            return files[index - methods.length - types.length];
+    }
+
+    /**
+     * @return Fingerprint of the locations of the index, in sampling order
+     */
+    public String fingerprint()
+    {
+        List<String> ids = Lists.newArrayList();
+        for (INode node : methods)
+            ids.add(node.getQIdentifier());
+        for (INode node : types)
+            ids.add(node.getQIdentifier());
+        for (INode node : files)
+            ids.add(node.getQIdentifier());
+
+        return Checkpoint.digest(ids);
+    }
+}
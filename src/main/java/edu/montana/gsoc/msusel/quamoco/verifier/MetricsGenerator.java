@@ -25,7 +25,11 @@
  */
 package edu.montana.gsoc.msusel.quamoco.verifier;
 
+import java.util.Random;
+
 import org.apache.commons.math3.distribution.TriangularDistribution;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.RandomGeneratorFactory;
 
 import edu.montana.gsoc.msusel.node.FileNode;
 import edu.montana.gsoc.msusel.node.MethodNode;
@@ -77,6 +81,43 @@ public class MetricsGenerator {
      * Constant for the NOM metric name
      */
     public static final String NOM        = "NOM";
+    /**
+     * Random number generator used to sample the generated metrics
+     */
+    private final RandomGenerator rng;
+
+    /**
+     * Constructs a new MetricsGenerator with a freshly seeded random number
+     * generator
+     */
+    public MetricsGenerator()
+    {
+        this(new SplitMixRandom(RandomStreams.freshSeed()));
+    }
+
+    /**
+     * Constructs a new MetricsGenerator using the given random number
+     * generator
+     * 
+     * @param rand
+     *            Random number generator used to sample the generated metrics
+     */
+    public MetricsGenerator(Random rand)
+    {
+        this.rng = RandomGeneratorFactory.createRandomGenerator(rand);
+    }
+
+    /**
+     * Constructs a new MetricsGenerator driven by the "metrics" random number
+     * stream of the given verification context
+     * 
+     * @param context
+     *            Context of the verification the metrics are generated for
+     */
+    public MetricsGenerator(VerificationContext context)
+    {
+        this(context.streams().stream("metrics"));
+    }
 
     /**
      * Generates the metrics for the given ProjectNode and all of the children
@@ -131,7 +172,7 @@ public class MetricsGenerator {
                     double loc = method.getEnd() - method.getStart();
                     // double mn = (int) new TriangularDistribution(1, 2,
                     // 4).sample();
-                    double nos = (int) new TriangularDistribution(loc, 1.25 * loc, 2 * loc).sample();
+                    double nos = (int) new TriangularDistribution(rng, loc, 1.25 * loc, 2 * loc).sample();
 
                     method.addMetric(LOC, loc);
                     method.addMetric(NOS, nos);
@@ -0,0 +1,665 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.CodeSource;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import edu.montana.gsoc.msusel.quamoco.distiller.ModelDistiller;
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * On disk cache of distilled quality model graphs. Each graph is stored as a
+ * compressed binary snapshot in a file named by a key computed from the
+ * contents of the quality model files it was distilled from, so a graph is
+ * distilled from the XMI only when one of its inputs changes, and is otherwise
+ * read back from disk.
+ * <p>
+ * The key of a graph distilled from the quality models packaged for a
+ * language is computed from the names and checksums of the quality model
+ * entries of the library jar holding them. Any cache file which cannot be
+ * read is discarded and the graph is distilled again. If the distilled graph
+ * cannot be serialized it is simply not cached.
+ * <p>
+ * As cache files are deserialized, the cache directory is created readable
+ * and writable by its owner only, and is bypassed when it is owned by another
+ * user or writable by anyone else. Only the classes making up a distilled
+ * graph, named one by one, and the nodes and edges of the quamoco library are
+ * written to and resolved from a cache file.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ModelCache {
+
+    /**
+     * Version of the cache file format
+     */
+    private static final int          FORMAT_VERSION   = 1;
+    /**
+     * Extension of the cache files
+     */
+    private static final String       EXTENSION        = ".qmg";
+    /**
+     * Extension of the quality model files
+     */
+    private static final String       MODEL_EXTENSION  = ".qm";
+    /**
+     * Names of the classes, other than the nodes and edges of the quamoco
+     * library, which may be read from a cache file
+     */
+    private static final Set<String>  ALLOWED_CLASSES  = ImmutableSet.of(
+            "edu.uci.ics.jung.graph.AbstractGraph", "edu.uci.ics.jung.graph.AbstractTypedGraph",
+            "edu.uci.ics.jung.graph.DirectedSparseGraph", "edu.uci.ics.jung.graph.util.EdgeType",
+            "edu.uci.ics.jung.graph.util.Pair", "java.lang.Boolean", "java.lang.Double", "java.lang.Enum",
+            "java.lang.Integer", "java.lang.Long", "java.lang.Number", "java.lang.Object", "java.lang.String",
+            "java.math.BigDecimal", "java.math.BigInteger", "java.util.ArrayList", "java.util.HashMap",
+            "java.util.HashSet", "java.util.LinkedHashMap", "java.util.LinkedHashSet", "java.util.LinkedList");
+    /**
+     * Package prefix of the quamoco library classes, of which the nodes and
+     * edges may be read from a cache file
+     */
+    private static final String       LIBRARY_PACKAGE  = "edu.montana.gsoc.msusel.quamoco.graph.";
+    /**
+     * Reference from a quality model file to an element of another, capturing
+     * the name of the other file
+     */
+    private static final Pattern      INCLUDE          = Pattern.compile("href\\s*=\\s*\"([^\"#]+)#");
+    /**
+     * Permissions of the cache directory
+     */
+    private static final String       DIRECTORY_ACCESS = "rwx------";
+    /**
+     * Logger associated with this class
+     */
+    private static final Logger       LOG              = LoggerFactory.getLogger(ModelCache.class);
+    /**
+     * Directory holding the cache files
+     */
+    private final Path                directory;
+
+    /**
+     * Constructs a new ModelCache stored in the given directory
+     *
+     * @param directory
+     *            Directory holding the cache files, created when the first
+     *            graph is stored
+     */
+    public ModelCache(Path directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Provides the graph distilled from the given inputs, reading it from the
+     * cache when a valid entry exists, and otherwise distilling it and storing
+     * it in the cache.
+     *
+     * @param label
+     *            Description of how the inputs are distilled, part of the key
+     * @param inputs
+     *            Files the graph is distilled from, null if they are not
+     *            known, in which case the cache is bypassed
+     * @param source
+     *            Source used to distill the graph
+     * @return The distilled graph
+     */
+    public DirectedSparseGraph<Node, Edge> load(String label, List<Path> inputs,
+            Supplier<DirectedSparseGraph<Node, Edge>> source)
+    {
+        if (inputs == null)
+            return source.get();
+
+        List<String> parts;
+        try
+        {
+            parts = fileParts(inputs);
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Could not read the quality model files, the model cache is bypassed: " + e.getMessage());
+            return source.get();
+        }
+
+        return lookup(key(label, parts), source);
+    }
+
+    /**
+     * Provides the graph distilled from the quality models packaged with the
+     * library, reading it from the cache when a valid entry exists, and
+     * otherwise distilling it and storing it in the cache. The cache is
+     * bypassed when the quality models are not loaded from a jar.
+     *
+     * @param label
+     *            Description of how the models are distilled, part of the key
+     * @param source
+     *            Source used to distill the graph
+     * @return The distilled graph
+     */
+    public DirectedSparseGraph<Node, Edge> loadPackaged(String label, Supplier<DirectedSparseGraph<Node, Edge>> source)
+    {
+        Path jar = libraryJar();
+        if (jar == null)
+            return source.get();
+
+        List<String> parts;
+        try
+        {
+            parts = jarParts(jar);
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Could not read the library jar, the model cache is bypassed: " + e.getMessage());
+            return source.get();
+        }
+
+        return lookup(key(label, parts), source);
+    }
+
+    /**
+     * Reads the graph stored under the given key, distilling and storing it
+     * when no valid entry exists.
+     *
+     * @param key
+     *            Cache key of the graph
+     * @param source
+     *            Source used to distill the graph
+     * @return The distilled graph
+     */
+    private DirectedSparseGraph<Node, Edge> lookup(String key, Supplier<DirectedSparseGraph<Node, Edge>> source)
+    {
+        if (!secureDirectory())
+            return source.get();
+
+        Path file = directory.resolve(key + EXTENSION);
+        if (Files.isRegularFile(file))
+        {
+            DirectedSparseGraph<Node, Edge> graph = read(file, key);
+            if (graph != null)
+            {
+                LOG.info("Loaded distilled quality model from " + file);
+                return graph;
+            }
+        }
+
+        DirectedSparseGraph<Node, Edge> graph = source.get();
+        write(file, key, graph);
+        return graph;
+    }
+
+    /**
+     * Computes the cache key of a graph from the description of how it is
+     * distilled and the parts identifying its inputs.
+     *
+     * @param label
+     *            Description of how the inputs are distilled
+     * @param inputs
+     *            Parts identifying the inputs, as produced by
+     *            {@link #fileParts(List)} or {@link #jarParts(Path)}
+     * @return Cache key of the graph
+     */
+    static String key(String label, List<String> inputs)
+    {
+        List<String> parts = Lists.newArrayList();
+        parts.add(Integer.toString(FORMAT_VERSION));
+        parts.add(label);
+        parts.add(String.valueOf(ModelDistiller.class.getPackage().getImplementationVersion()));
+        parts.addAll(inputs);
+
+        return Checkpoint.digest(parts);
+    }
+
+    /**
+     * Identifies the files a graph is distilled from by their names and
+     * contents.
+     *
+     * @param inputs
+     *            Files the graph is distilled from
+     * @return The name and contents of each file, in order
+     * @throws IOException
+     *             If any of the files cannot be read
+     */
+    static List<String> fileParts(List<Path> inputs) throws IOException
+    {
+        List<String> parts = Lists.newArrayList();
+        for (Path input : inputs)
+        {
+            parts.add(input.getFileName().toString());
+            parts.add(new String(Files.readAllBytes(input), StandardCharsets.ISO_8859_1));
+        }
+
+        return parts;
+    }
+
+    /**
+     * Identifies the quality models packaged in a jar by the names, sizes and
+     * checksums of its quality model entries, so the key does not change when
+     * only the classes of the jar do.
+     *
+     * @param jar
+     *            Jar holding the quality models
+     * @return The name, size and checksum of each quality model entry, in name
+     *         order
+     * @throws IOException
+     *             If the jar cannot be read
+     */
+    static List<String> jarParts(Path jar) throws IOException
+    {
+        List<String> parts = Lists.newArrayList();
+        try (JarFile file = new JarFile(jar.toFile()))
+        {
+            List<JarEntry> models = Lists.newArrayList();
+            Enumeration<JarEntry> entries = file.entries();
+            while (entries.hasMoreElements())
+            {
+                JarEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && entry.getName().endsWith(MODEL_EXTENSION))
+                    models.add(entry);
+            }
+            models.sort((a, b) -> a.getName().compareTo(b.getName()));
+
+            for (JarEntry entry : models)
+            {
+                parts.add(entry.getName());
+                parts.add(entry.getSize() + ":" + Long.toHexString(entry.getCrc()));
+            }
+        }
+
+        return parts;
+    }
+
+    /**
+     * Collects the quality model files a model is distilled from, being the
+     * model itself followed by the quality model files it references, directly
+     * or through other referenced files, in name order. Referenced files are
+     * resolved against the directory of the file referencing them, and those
+     * which do not exist are left out.
+     *
+     * @param model
+     *            Path to a quality model file
+     * @return The files the model is distilled from
+     */
+    static List<Path> includes(Path model)
+    {
+        Path root = model.toAbsolutePath().normalize();
+        Set<Path> found = Sets.newHashSet();
+        found.add(root);
+        Deque<Path> pending = new ArrayDeque<>();
+        pending.push(root);
+        List<Path> included = Lists.newArrayList();
+        while (!pending.isEmpty())
+        {
+            Path file = pending.pop();
+            String content;
+            try
+            {
+                content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+            }
+            catch (IOException e)
+            {
+                LOG.debug("Could not read the quality model " + file + ": " + e.getMessage());
+                continue;
+            }
+
+            Matcher matcher = INCLUDE.matcher(content);
+            while (matcher.find())
+            {
+                if (!matcher.group(1).endsWith(MODEL_EXTENSION))
+                    continue;
+
+                Path include = file.resolveSibling(matcher.group(1)).normalize();
+                if (Files.isRegularFile(include) && found.add(include))
+                {
+                    included.add(include);
+                    pending.push(include);
+                }
+            }
+        }
+        Collections.sort(included);
+
+        List<Path> files = Lists.newArrayList();
+        files.add(model);
+        files.addAll(included);
+        return files;
+    }
+
+    /**
+     * @return The library jar holding the quality models packaged for each
+     *         language, null if the models are not loaded from a jar
+     */
+    static Path libraryJar()
+    {
+        CodeSource source = ModelDistiller.class.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null)
+            return null;
+
+        try
+        {
+            Path jar = Paths.get(source.getLocation().toURI());
+            return Files.isRegularFile(jar) ? jar : null;
+        }
+        catch (URISyntaxException | IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Creates the cache directory, readable and writable by its owner only,
+     * if it does not exist, and checks that an existing directory is owned by
+     * the current user and cannot be written by anyone else. Ownership and
+     * permissions are only checked where the file system supports POSIX
+     * attributes.
+     *
+     * @return true if the cache directory may be used
+     */
+    private boolean secureDirectory()
+    {
+        try
+        {
+            boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+            if (!Files.isDirectory(directory))
+            {
+                if (posix)
+                    Files.createDirectories(directory,
+                            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString(DIRECTORY_ACCESS)));
+                else
+                    Files.createDirectories(directory);
+            }
+
+            if (!posix)
+                return true;
+
+            PosixFileAttributes attrs = Files.getFileAttributeView(directory, PosixFileAttributeView.class)
+                    .readAttributes();
+            Set<PosixFilePermission> perms = attrs.permissions();
+            if (!attrs.owner().getName().equals(System.getProperty("user.name"))
+                    || perms.contains(PosixFilePermission.GROUP_WRITE)
+                    || perms.contains(PosixFilePermission.OTHERS_WRITE))
+            {
+                LOG.warn("Model cache directory " + directory
+                        + " is not owned by the current user or is writable by others, the model cache is bypassed");
+                return false;
+            }
+
+            return true;
+        }
+        catch (IOException | UnsupportedOperationException e)
+        {
+            LOG.warn("Could not prepare the model cache directory " + directory + ", the model cache is bypassed: "
+                    + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reads a graph from a cache file, discarding the file if it cannot be
+     * read.
+     *
+     * @param file
+     *            Cache file
+     * @param key
+     *            Expected cache key of the graph
+     * @return The graph, or null if the file does not hold a valid graph for
+     *         the key
+     */
+    @SuppressWarnings("unchecked")
+    private static DirectedSparseGraph<Node, Edge> read(Path file, String key)
+    {
+        try (ObjectInputStream ois = new GraphInputStream(
+                new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file)))))
+        {
+            if (ois.readInt() == FORMAT_VERSION && key.equals(ois.readUTF()))
+                return (DirectedSparseGraph<Node, Edge>) ois.readObject();
+        }
+        catch (IOException | ClassNotFoundException | ClassCastException e)
+        {
+            LOG.warn("Discarding unreadable model cache file " + file + ": " + e.getMessage());
+        }
+
+        try
+        {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException e)
+        {
+            LOG.debug("Could not delete model cache file " + file + ": " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Writes a graph to a cache file. The graph is first written to a
+     * temporary file which then replaces the cache file, so a partially
+     * written file is never read.
+     *
+     * @param file
+     *            Cache file
+     * @param key
+     *            Cache key of the graph
+     * @param graph
+     *            Graph to store
+     */
+    private void write(Path file, String key, DirectedSparseGraph<Node, Edge> graph)
+    {
+        Path temp = null;
+        try
+        {
+            temp = Files.createTempFile(directory, key, ".tmp");
+            try (ObjectOutputStream oos = new GraphOutputStream(
+                    new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))))
+            {
+                oos.writeInt(FORMAT_VERSION);
+                oos.writeUTF(key);
+                oos.writeObject(graph);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+            LOG.info("Stored distilled quality model in " + file);
+        }
+        catch (NotSerializableException e)
+        {
+            LOG.warn("Distilled graph is not serializable (" + e.getMessage() + "), it will not be cached");
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Could not write model cache file " + file + ": " + e.getMessage());
+        }
+        finally
+        {
+            if (temp != null)
+            {
+                try
+                {
+                    Files.deleteIfExists(temp);
+                }
+                catch (IOException e)
+                {
+                    LOG.debug("Could not delete temporary file " + temp + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param name
+     *            Name of a class, as recorded in a serialization stream
+     * @return true if the class may be written to or read from a cache file
+     */
+    static boolean isAllowed(String name)
+    {
+        String element = name;
+        while (element.startsWith("["))
+            element = element.substring(1);
+        if (element.length() == 1)
+            return true;
+        if (element.startsWith("L") && element.endsWith(";"))
+            element = element.substring(1, element.length() - 1);
+
+        return ALLOWED_CLASSES.contains(element) || isGraphElement(element);
+    }
+
+    /**
+     * @param name
+     *            Name of a class
+     * @return true if the class is a node or an edge of the quamoco library
+     */
+    private static boolean isGraphElement(String name)
+    {
+        if (!name.startsWith(LIBRARY_PACKAGE))
+            return false;
+
+        try
+        {
+            Class<?> type = Class.forName(name, false, ModelCache.class.getClassLoader());
+            return Node.class.isAssignableFrom(type) || Edge.class.isAssignableFrom(type);
+        }
+        catch (ClassNotFoundException | LinkageError e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Object input stream resolving only the classes making up a distilled
+     * graph, so a tampered cache file cannot instantiate arbitrary classes.
+     *
+     * @author Isaac Griffith
+     * @version 1.1.1
+     */
+    private static class GraphInputStream extends ObjectInputStream {
+
+        /**
+         * Constructs a new GraphInputStream reading from the given stream
+         *
+         * @param in
+         *            Stream holding the cache file
+         * @throws IOException
+         *             If the stream header cannot be read
+         */
+        GraphInputStream(InputStream in) throws IOException
+        {
+            super(in);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException
+        {
+            if (!isAllowed(desc.getName()))
+                throw new InvalidClassException(desc.getName(), "class is not allowed in a model cache file");
+
+            return super.resolveClass(desc);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException
+        {
+            throw new InvalidClassException("proxy classes are not allowed in a model cache file");
+        }
+    }
+
+    /**
+     * Object output stream writing only the classes a {@link GraphInputStream}
+     * resolves, so a graph holding other classes is not cached rather than
+     * written and discarded on every read.
+     *
+     * @author Isaac Griffith
+     * @version 1.1.1
+     */
+    private static class GraphOutputStream extends ObjectOutputStream {
+
+        /**
+         * Constructs a new GraphOutputStream writing to the given stream
+         *
+         * @param out
+         *            Stream receiving the cache file
+         * @throws IOException
+         *             If the stream header cannot be written
+         */
+        GraphOutputStream(OutputStream out) throws IOException
+        {
+            super(out);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void annotateClass(Class<?> cl) throws IOException
+        {
+            if (!isAllowed(cl.getName()))
+                throw new NotSerializableException(cl.getName() + " is not allowed in a model cache file");
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.model.Evaluation;
+import edu.montana.gsoc.msusel.quamoco.verifier.model.Factor;
+import edu.montana.gsoc.msusel.quamoco.verifier.model.Influence;
+import edu.montana.gsoc.msusel.quamoco.verifier.model.Influence.Effect;
+import edu.montana.gsoc.msusel.quamoco.verifier.model.Measure;
+import edu.montana.gsoc.msusel.quamoco.verifier.model.QualityModel;
+import edu.montana.gsoc.msusel.quamoco.verifier.model.Ranking;
+
+/**
+ * Static analysis of a quality model, detecting in a single pass over its
+ * evaluations the defects which would otherwise only show up as biased
+ * quality aspect values after a full experiment:
+ * <ul>
+ * <li>weighted sum evaluations whose weights add up to less than 1.0,</li>
+ * <li>measures whose linear utility function does not match the impact of the
+ * evaluated factor, and</li>
+ * <li>evaluations whose ranked factors impact the evaluated factor both
+ * positively and negatively.</li>
+ * </ul>
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ModelLinter {
+
+    /**
+     * Tolerance used when comparing the sum of the weights to 1.0
+     */
+    private static final double            TOLERANCE = 1e-6;
+    /**
+     * Impacts of the factors, memoized as they are derived
+     */
+    private final Map<Factor, Set<Effect>> impacts;
+
+    /**
+     * Constructs a new ModelLinter
+     */
+    public ModelLinter()
+    {
+        impacts = Maps.newHashMap();
+    }
+
+    /**
+     * Analyzes the given quality model.
+     *
+     * @param model
+     *            Outline of the quality model
+     * @return Defects found, in the order the evaluations were read
+     */
+    public List<LintIssue> lint(QualityModel model)
+    {
+        List<LintIssue> issues = Lists.newArrayList();
+        for (Evaluation evaluation : model.evaluations())
+        {
+            checkWeights(evaluation, issues);
+            checkFunctions(evaluation, issues);
+            checkMixedImpacts(evaluation, issues);
+        }
+
+        return issues;
+    }
+
+    /**
+     * Checks that the weights of a weighted sum evaluation add up to at least
+     * 1.0.
+     *
+     * @param evaluation
+     *            Evaluation to check
+     * @param issues
+     *            Defects found so far
+     */
+    private void checkWeights(Evaluation evaluation, List<LintIssue> issues)
+    {
+        if (!evaluation.isWeightedSum() || evaluation.rankings().isEmpty())
+            return;
+
+        double sum = 0;
+        for (Ranking ranking : evaluation.rankings())
+            sum += ranking.weight();
+
+        if (sum < 1.0 - TOLERANCE)
+            issues.add(new LintIssue(LintIssue.Kind.WEIGHT_SUM, evaluation,
+                    String.format("weights of %s add up to %1.5f", subject(evaluation), sum)));
+    }
+
+    /**
+     * Checks that the utility function of each measure ranked by an evaluation
+     * matches the impact of the evaluated factor.
+     *
+     * @param evaluation
+     *            Evaluation to check
+     * @param issues
+     *            Defects found so far
+     */
+    private void checkFunctions(Evaluation evaluation, List<LintIssue> issues)
+    {
+        if (evaluation.evaluates() == null)
+            return;
+
+        Set<Effect> impact = impactOf(evaluation.evaluates());
+        if (impact.size() != 1)
+            return;
+
+        boolean positive = impact.contains(Effect.POSITIVE);
+        for (Ranking ranking : evaluation.rankings())
+        {
+            if (!(ranking.target() instanceof Measure) || ranking.function() == null)
+                continue;
+
+            boolean mismatch = positive ? ranking.function().isIncreasing() : ranking.function().isDecreasing();
+            if (mismatch)
+                issues.add(new LintIssue(LintIssue.Kind.FUNCTION_MISMATCH, evaluation,
+                        String.format("%s is ranked with a %s although %s has a %s impact", ranking.target().name(),
+                                ranking.function().type(), subject(evaluation), positive ? "positive" : "negative")));
+        }
+    }
+
+    /**
+     * Checks that the factors ranked by an evaluation all impact the evaluated
+     * factor in the same direction.
+     *
+     * @param evaluation
+     *            Evaluation to check
+     * @param issues
+     *            Defects found so far
+     */
+    private void checkMixedImpacts(Evaluation evaluation, List<LintIssue> issues)
+    {
+        Factor evaluated = evaluation.evaluates();
+        if (evaluated == null)
+            return;
+
+        Set<Effect> effects = EnumSet.noneOf(Effect.class);
+        for (Ranking ranking : evaluation.rankings())
+        {
+            if (!(ranking.target() instanceof Factor))
+                continue;
+
+            for (Influence influence : ((Factor) ranking.target()).influences())
+            {
+                if (influence.target() == evaluated)
+                    effects.add(influence.effect());
+            }
+        }
+
+        if (effects.size() > 1)
+            issues.add(new LintIssue(LintIssue.Kind.MIXED_IMPACT, evaluation,
+                    String.format("ranked factors impact %s both positively and negatively", subject(evaluation))));
+    }
+
+    /**
+     * Derives the impact of a factor from the effects of its influences, or,
+     * if it has none, from the impacts of the factors it refines.
+     *
+     * @param factor
+     *            A factor
+     * @return Effects of the factor, empty if it has no impact
+     */
+    private Set<Effect> impactOf(Factor factor)
+    {
+        Set<Effect> known = impacts.get(factor);
+        if (known != null)
+            return known;
+
+        // registered before recursing so that cyclic refinements terminate
+        Set<Effect> effects = EnumSet.noneOf(Effect.class);
+        impacts.put(factor, effects);
+        for (Influence influence : factor.influences())
+            effects.add(influence.effect());
+
+        if (effects.isEmpty())
+        {
+            for (Factor parent : factor.parents())
+                effects.addAll(impactOf(parent));
+        }
+
+        return effects;
+    }
+
+    /**
+     * @param evaluation
+     *            An evaluation
+     * @return Description of the factor evaluated by the evaluation
+     */
+    private static String subject(Evaluation evaluation)
+    {
+        return evaluation.evaluates() != null ? evaluation.evaluates().name() : "the evaluated factor";
+    }
+}
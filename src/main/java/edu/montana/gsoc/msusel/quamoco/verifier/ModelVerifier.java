@@ -25,17 +25,22 @@
  */
 package edu.montana.gsoc.msusel.quamoco.verifier;
 
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.SecureRandom;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
 
-import org.apache.commons.math3.stat.StatUtils;
 import org.apache.commons.math3.stat.inference.TestUtils;
 import org.apache.commons.math3.util.FastMath;
 import org.slf4j.Logger;
@@ -44,26 +49,26 @@ import org.slf4j.LoggerFactory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.gson.Gson;
 
-import edu.montana.gsoc.msusel.CodeTree;
-import edu.montana.gsoc.msusel.INode;
-import edu.montana.gsoc.msusel.metrics.Register;
-import edu.montana.gsoc.msusel.node.FileNode;
-import edu.montana.gsoc.msusel.node.MethodNode;
-import edu.montana.gsoc.msusel.node.TypeNode;
 import edu.montana.gsoc.msusel.quamoco.distiller.ModelDistiller;
 import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
-import edu.montana.gsoc.msusel.quamoco.graph.node.FactorNode;
 import edu.montana.gsoc.msusel.quamoco.graph.node.Finding;
 import edu.montana.gsoc.msusel.quamoco.graph.node.FindingNode;
 import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
-import edu.montana.gsoc.msusel.quamoco.processor.extents.Extent;
-import edu.montana.gsoc.msusel.quamoco.processor.MetricsContext;
 import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.montana.gsoc.msusel.quamoco.verifier.model.QualityModel;
+import edu.montana.gsoc.msusel.quamoco.verifier.model.QualityModelReader;
 import edu.uci.ics.jung.graph.DirectedSparseGraph;
 
 /**
  * Class controlling the simulation process for quality model verification.
+ * Each verification runs in its own {@link VerificationContext}. Separate
+ * ModelVerifier instances in one process are serialized: the quamoco library
+ * singletons are bound to one code tree at a time under a JVM-wide lock, so a
+ * verification waits for the evaluation of any other to finish before
+ * evaluating its own model.
  * 
  * @author Isaac Griffith
  * @version 1.1.1
@@ -78,6 +83,46 @@ public class ModelVerifier {
      * IO Writer for results
      */
     private PrintWriter         outputter;
+    /**
+     * File to which the progress of the experiment is saved, null if
+     * checkpoints are disabled
+     */
+    private Path                checkpointFile;
+    /**
+     * Boolean flag indicating whether the experiment resumes from the
+     * checkpoint file
+     */
+    private boolean             resume;
+    /**
+     * Random number streams of the current experiment
+     */
+    private RandomStreams       streams;
+    /**
+     * Random number generator used outside of the experiment executions
+     */
+    private SplitMixRandom      rand;
+    /**
+     * On disk cache of distilled graphs, null if distilled graphs are not
+     * cached
+     */
+    private ModelCache          modelCache;
+    /**
+     * File to which the partial results of this process's shard are written,
+     * null if the experiment is not sharded
+     */
+    private Path                partialFile;
+    /**
+     * Index of the shard run by this process
+     */
+    private int                 shardIndex;
+    /**
+     * Number of shards the experiment is split into
+     */
+    private int                 shardCount;
+    /**
+     * Master seed shared by every shard
+     */
+    private long                shardSeed;
 
     /**
      * Constructs a new ModelVerifier associated with the given Writer
@@ -88,6 +133,71 @@ public class ModelVerifier {
     public ModelVerifier(PrintWriter outputter)
     {
         this.outputter = outputter;
+        this.streams = new RandomStreams(RandomStreams.freshSeed());
+        this.rand = streams.stream("verifier");
+    }
+
+    /**
+     * Enables periodic checkpoints of the experiment to the given file.
+     * 
+     * @param checkpointFile
+     *            File to which the progress of the experiment is saved
+     * @param resume
+     *            true if the experiment resumes from the checkpoint file, when
+     *            it exists
+     */
+    public void enableCheckpoints(Path checkpointFile, boolean resume)
+    {
+        this.checkpointFile = checkpointFile;
+        this.resume = resume;
+    }
+
+    /**
+     * Restricts the experiment to a single shard of its executions, whose
+     * results are written to the given file instead of being reported. The
+     * partial results of every shard are combined by
+     * {@link #mergeResults(VerifierConfiguration, List)}.
+     * 
+     * @param index
+     *            Index of the shard, from 0
+     * @param count
+     *            Number of shards the experiment is split into
+     * @param seed
+     *            Master seed shared by every shard
+     * @param partialFile
+     *            File to which the partial results of the shard are written
+     */
+    public void enableShard(int index, int count, long seed, Path partialFile)
+    {
+        this.shardIndex = index;
+        this.shardCount = count;
+        this.shardSeed = seed;
+        this.partialFile = partialFile;
+    }
+
+    /**
+     * Combines the partial results of every shard of an experiment and
+     * reports them as {@link #process(VerifierConfiguration, String, String)}
+     * reports the results of an unsharded experiment.
+     * 
+     * @param config
+     *            Configuration the shards were run with
+     * @param partials
+     *            Partial results files of the shards
+     * @throws IOException
+     *             If any of the files cannot be read
+     * @throws IllegalStateException
+     *             If the shards ran different experiments or do not cover
+     *             every execution exactly once
+     */
+    public void mergeResults(VerifierConfiguration config, List<Path> partials) throws IOException
+    {
+        List<PartialResults> loaded = Lists.newArrayList();
+        for (Path partial : partials)
+            loaded.add(PartialResults.load(partial));
+
+        LOG.info("Merging the results of " + loaded.size() + " shards");
+        reportResults(config, PartialResults.merge(loaded, configFingerprint(config), config.numExecutions()));
     }
 
     /**
@@ -102,115 +212,894 @@ public class ModelVerifier {
      */
     public void process(VerifierConfiguration config, String qualityModel, String output)
     {
-        Register.register();
-        Extent.getInstance().clearExtents();
-        MetricsContext.getCleanInstance();
+        prepareExperiment(config);
+
+        if (config.lint() && !lintModel(config, qualityModel))
+            return;
+
+        VerificationContext context = generateContext(config);
 
+        LOG.info("Merging CodeTree into MetricsContext");
+        try (VerificationContext active = context.enter())
+        {
+            LOG.info("Building Graph");
+            QualityModelTemplate template = buildTemplate(config, qualityModel);
+
+            LOG.info("Validating Model");
+            validateModel(config, template.newInstance());
+
+            LOG.info("Evaluating Results");
+            evaluateResults(active, template);
+        }
+    }
+
+    /**
+     * Compares two versions of a quality model using common random numbers.
+     * Both models are evaluated against the same CodeTree, and every
+     * execution attaches the same findings, at the same locations, to both, so
+     * the differences between their quality aspects are measured without the
+     * noise of sampling the findings independently for each model.
+     * 
+     * @param config
+     *            Configuration object providing guidance to the generators.
+     * @param modelA
+     *            File name of the first version of the quality model, can be
+     *            null
+     * @param modelB
+     *            File names of the quality model files making up the second
+     *            version of the quality model
+     * @param output
+     *            File name of the results output file
+     */
+    public void compare(VerifierConfiguration config, String modelA, String[] modelB, String output)
+    {
+        prepareExperiment(config);
+
+        if (config.lint() && (!lintModel(config, modelA) || !lintModel(config, modelB)))
+            return;
+
+        VerificationContext context = generateContext(config);
+
+        LOG.info("Merging CodeTree into MetricsContext");
+        try (VerificationContext active = context.enter())
+        {
+            LOG.info("Building Graphs");
+            QualityModelTemplate templateA = buildTemplate(config, modelA);
+            QualityModelTemplate templateB = buildTemplate(config, modelB);
+
+            LOG.info("Validating Models");
+            validateModel(config, templateA.newInstance());
+            validateModel(config, templateB.newInstance());
+
+            LOG.info("Comparing Results");
+            reportComparison(config, executeComparison(active, templateA, templateB));
+        }
+    }
+
+    /**
+     * Selects the master seed of an experiment and opens the model cache.
+     * 
+     * @param config
+     *            The verifier configuration
+     */
+    private void prepareExperiment(VerifierConfiguration config)
+    {
+        streams = new RandomStreams(selectSeed(config));
+        rand = streams.stream("verifier");
+        LOG.info("Using master seed " + streams.seed());
+        modelCache = config.modelCache() ? new ModelCache(cacheDirectory(config)) : null;
+    }
+
+    /**
+     * Creates the context of a verification, generating its CodeTree and
+     * adding metrics to it.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @return The context of the verification
+     */
+    private VerificationContext generateContext(VerifierConfiguration config)
+    {
+        VerificationContext context = new VerificationContext(config, streams);
         ProjectGenerator generator = null;
         if (config.multiProject())
-            generator = new MultiProjectGenerator(config);
+            generator = new MultiProjectGenerator(context);
         else
-            generator = new SimpleProjectGenerator(config);
+            generator = new SimpleProjectGenerator(context);
 
         LOG.info("Generating Code Tree");
-        CodeTree tree = generator.generateCodeTree();
+        context.setTree(generator.generateCodeTree());
 
         LOG.info("Adding metrics to Tree");
-        MetricsGenerator metgen = new MetricsGenerator();
-        metgen.addMetricsToCodeTree(tree.getProject());
+        MetricsGenerator metgen = new MetricsGenerator(context);
+        metgen.addMetricsToCodeTree(context.tree().getProject());
 
-        LOG.info("Merging CodeTree into MetricsContext");
-        MetricsContext.getInstance().merge(tree);
+        return context;
+    }
 
-        LOG.info("Building Graph");
-        DirectedSparseGraph<Node, Edge> graph = null;
-        if (qualityModel != null)
-            graph = buildGraph(Paths.get(qualityModel));
-        else if (config.qmFiles().length > 0)
-            graph = buildGraph(config.qmFiles());
-        else
-            graph = buildGraph(config.fileExtension());
+    /**
+     * Checks the quality model for defects and reports them.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @param qualityModel
+     *            name of the file containing the qualify model information,
+     *            can be null
+     * @return false if defects were found and the experiment is to be
+     *         skipped, true otherwise
+     */
+    @VisibleForTesting
+    boolean lintModel(VerifierConfiguration config, String qualityModel)
+    {
+        try
+        {
+            return reportLint(config, buildOutline(config, qualityModel));
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Could not read the quality model files, lint skipped: " + e.getMessage());
+            return true;
+        }
+    }
 
-        LOG.info("Validating Model");
-        validateModel(config, graph);
+    /**
+     * Checks the quality model made up of the given quality model files for
+     * defects and reports them. A single file is read as the quality model
+     * file given on the command line is.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @param qmFiles
+     *            Array of quality model file names
+     * @return false if defects were found and the experiment is to be
+     *         skipped, true otherwise
+     */
+    @VisibleForTesting
+    boolean lintModel(VerifierConfiguration config, String[] qmFiles)
+    {
+        if (qmFiles.length == 1)
+            return lintModel(config, qmFiles[0]);
 
-        LOG.info("Evaluating Results");
-        evaluateResults(config, tree, qualityModel);
+        try
+        {
+            return reportLint(config, buildOutline(qmFiles));
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Could not read the quality model files, lint skipped: " + e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Reports the defects of the given quality model outline.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @param model
+     *            Outline of the quality model, null if it is packaged with the
+     *            library
+     * @return false if defects were found and the experiment is to be
+     *         skipped, true otherwise
+     */
+    private boolean reportLint(VerifierConfiguration config, QualityModel model)
+    {
+        if (model == null)
+        {
+            LOG.info("Quality models packaged with the library are not available as files, lint skipped");
+            return true;
+        }
+
+        List<LintIssue> issues = new ModelLinter().lint(model);
+        sendToOutput("----------------------------------------------------------------------------");
+        sendToOutput(String.format("Model Lint: %d issue(s) in %s", issues.size(), model.modules()));
+        sendToOutput("----------------------------------------------------------------------------");
+        for (LintIssue issue : issues)
+            sendToOutput(issue.toString());
+        if (!issues.isEmpty())
+            sendToOutput("----------------------------------------------------------------------------");
+
+        if (!issues.isEmpty() && config.abortOnLintIssues())
+        {
+            LOG.error("Quality model has " + issues.size() + " defect(s), experiment skipped");
+            return false;
+        }
 
-        // detectIssues(config, tree, qualityModel);
+        return true;
     }
 
     /**
      * Starts the experiments and evalutes their results.
      * 
+     * @param context
+     *            Context of the verification, providing the configuration
+     *            controlling the experiment and the CodeTree on which it
+     *            operates
+     * @param template
+     *            Template of the distilled quality model
+     */
+    @VisibleForTesting
+    void evaluateResults(VerificationContext context, QualityModelTemplate template)
+    {
+        ExperimentResults experiment = executeExperiment(context, template);
+        if (partialFile == null)
+            reportResults(context.config(), experiment);
+    }
+
+    /**
+     * Reports the statistics of the quality aspects observed during an
+     * experiment.
+     * 
      * @param config
      *            The configuration object controlling the experiment
-     * @param tree
-     *            The CodeTree on which the experiments operate
-     * @param qualityModel
-     *            the name of the input quality model file, can be null
+     * @param experiment
+     *            Results of the experiment
      */
     @VisibleForTesting
-    void evaluateResults(VerifierConfiguration config, CodeTree tree, String qualityModel)
+    void reportResults(VerifierConfiguration config, ExperimentResults experiment)
     {
-        double results[][] = executeExperiment(config, tree, qualityModel);
-
         sendToOutput("----------------------------------------------------------------------------");
         sendToOutput("Quality Aspect                     Mean       StdDev      p-val    p < 0.025");
         sendToOutput("----------------------------------------------------------------------------");
-        for (int i = 0; i < results.length; i++)
+        for (int i = 0; i < experiment.size(); i++)
         {
-            boolean notEqual = TestUtils.tTest(1.0d, results[i], 0.025);
-            double pVal = TestUtils.tTest(1.0d, results[i]);
-            double mean = StatUtils.mean(results[i]);
-            double std = FastMath.sqrt(StatUtils.variance(results[i]));
+            AspectStatistics stats = experiment.statistics(i);
+            AspectStatistics tested = stats;
+            if (experiment.blocks() != null && experiment.blocks().statistics(i).getN() >= 2)
+                tested = experiment.blocks().statistics(i);
+            boolean notEqual = TestUtils.tTest(1.0d, tested, 0.025);
+            double pVal = TestUtils.tTest(1.0d, tested);
+            double mean = stats.getMean();
+            double std = FastMath.sqrt(stats.getVariance());
             String out = String.format(
                     "%30.30s    %1.5f    %1.5f    %1.5f     %s", config.qualityAspects().get(i), mean, std, pVal,
                     notEqual);
             sendToOutput(out);
         }
         sendToOutput("----------------------------------------------------------------------------");
+        sendToOutput(String.format(
+                "Executions with no findings (baseline reused): %d of %d", experiment.shortCircuited(),
+                experiment.size() > 0 ? experiment.statistics(0).getN() : 0));
+        sendToOutput("----------------------------------------------------------------------------");
+
+        if (config.resultCacheSize() > 0)
+        {
+            sendToOutput(String.format(
+                    "Result cache: %d hits, %d misses, %d evictions", experiment.cacheHits(),
+                    experiment.cacheMisses(), experiment.cacheEvictions()));
+            sendToOutput("----------------------------------------------------------------------------");
+        }
+
+        if (experiment.blocks() != null)
+            reportSampling(config, experiment);
+
+        if (config.adaptiveStopping())
+            reportConvergence(config, experiment);
+
         sendToOutput("\n");
     }
 
     /**
-     * Executes the experiment as controlled by the provided configuration.
+     * Reports the variance reduction achieved by the sampling scheme. The
+     * variance of the mean under plain sampling is estimated from the
+     * variance of the individual executions, and the variance of the mean
+     * under the scheme from the variance of the independent block means. Their
+     * ratio is the number of plain executions each sampled execution is worth.
      * 
      * @param config
      *            The verifier configuration
-     * @param tree
-     *            CodeTree used during the simulations
-     * @param qualityModel
-     *            name of the file containing the qualify model information
+     * @param experiment
+     *            Results of the experiment
      */
     @VisibleForTesting
-    double[][] executeExperiment(VerifierConfiguration config, CodeTree tree, String qualityModel)
+    void reportSampling(VerifierConfiguration config, ExperimentResults experiment)
     {
-        double results[][] = new double[config.qualityAspects().size()][config.numExecutions()];
+        BlockStatistics blocks = experiment.blocks();
+        sendToOutput(String.format(
+                "Sampling: %s, %d complete blocks of %d executions (p-values computed from block means)",
+                config.samplingScheme(), blocks.completed(), blocks.blockSize()));
+        sendToOutput("----------------------------------------------------------------------------");
+        sendToOutput("Quality Aspect                  Plain Var    Scheme Var   Reduction  Effective");
+        sendToOutput("----------------------------------------------------------------------------");
+        for (int i = 0; i < experiment.size(); i++)
+        {
+            AspectStatistics stats = experiment.statistics(i);
+            AspectStatistics means = blocks.statistics(i);
+            double plain = stats.getVariance() / stats.getN();
+            double scheme = means.getN() < 2 ? Double.NaN : means.getVariance() / means.getN();
+            double reduction = plain / scheme;
+            boolean known = !Double.isNaN(reduction) && !Double.isInfinite(reduction);
+            String out = String.format(
+                    "%30.30s    %1.3e    %1.3e    %8s   %8s", config.qualityAspects().get(i), plain, scheme,
+                    known ? String.format("%.2f", reduction) : "-",
+                    known ? Long.toString(Math.round(stats.getN() * reduction)) : "-");
+            sendToOutput(out);
+        }
+        sendToOutput("----------------------------------------------------------------------------");
+    }
 
-        for (int i = 0; i < config.numExecutions(); i++)
+    /**
+     * Reports the number of executions each quality aspect needed to converge
+     * when stopping adaptively.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @param experiment
+     *            Results of the experiment
+     */
+    @VisibleForTesting
+    void reportConvergence(VerifierConfiguration config, ExperimentResults experiment)
+    {
+        sendToOutput("Quality Aspect                  Executions   Needed   Half-Width   Converged");
+        sendToOutput("----------------------------------------------------------------------------");
+        for (int i = 0; i < experiment.size(); i++)
         {
-            DirectedSparseGraph<Node, Edge> graph = null;
-            if (qualityModel != null)
-                graph = buildGraph(Paths.get(qualityModel));
+            AspectStatistics stats = experiment.statistics(i);
+            long needed = experiment.executionsNeeded(i);
+            double halfWidth = ConvergenceMonitor.halfWidth(ConvergenceMonitor.sampled(experiment, i));
+            String out = String.format(
+                    "%30.30s    %8d %8s    %1.5f     %s", config.qualityAspects().get(i), stats.getN(),
+                    needed > 0 ? Long.toString(needed) : "-", halfWidth, needed > 0);
+            sendToOutput(out);
+        }
+        sendToOutput("----------------------------------------------------------------------------");
+    }
+
+    /**
+     * Executes the experiment as controlled by the provided configuration.
+     * 
+     * @param context
+     *            Context of the verification, providing the verifier
+     *            configuration and the CodeTree used during the simulations
+     * @param template
+     *            Template of the distilled quality model
+     * @return Values of the quality aspects observed during the experiment
+     */
+    @VisibleForTesting
+    ExperimentResults executeExperiment(VerificationContext context, QualityModelTemplate template)
+    {
+        VerifierConfiguration config = context.config();
+        DirectedSparseGraph<Node, Edge> graph = template.newInstance();
+        BigDecimal[] baseline = evaluateModel(config, graph);
+        LocationIndex locations = context.locations();
+        String modelHash = modelFingerprint(graph, baseline);
+
+        EvaluationPlan layout = new EvaluationPlan(graph, config, baseline);
+
+        try (ExperimentEngine engine = new ExperimentEngine(
+                this, config, locations, template, baseline, layout, streams.child("executions")))
+        {
+            if (partialFile != null)
+                return executeShard(config, engine, modelHash, locations.fingerprint());
+
+            Checkpoint checkpoint = openCheckpoint(config, modelHash, locations.fingerprint());
+            if (config.adaptiveStopping())
+                return executeAdaptive(config, engine, checkpoint);
             else
-                graph = buildGraph(config.fileExtension());
+                return executeFixed(config, engine, checkpoint);
+        }
+    }
 
-            // LOG.info("Linking Issues to Graph");
-            linkIssues(config, graph, tree);
+    /**
+     * Executes the paired executions comparing two versions of a quality
+     * model. The findings of each execution are selected against the first
+     * model and attached to both, the findings of the second model being
+     * matched by name.
+     * 
+     * @param context
+     *            Context of the verification, providing the verifier
+     *            configuration and the CodeTree used during the simulations
+     * @param templateA
+     *            Template of the first version of the quality model
+     * @param templateB
+     *            Template of the second version of the quality model
+     * @return For each quality aspect, its values under the first model, then
+     *         under the second, then their differences
+     */
+    @VisibleForTesting
+    ExperimentResults executeComparison(VerificationContext context, QualityModelTemplate templateA,
+            QualityModelTemplate templateB)
+    {
+        VerifierConfiguration config = context.config();
+        DirectedSparseGraph<Node, Edge> graphA = templateA.newInstance();
+        DirectedSparseGraph<Node, Edge> graphB = templateB.newInstance();
+        BigDecimal[] baselineA = evaluateModel(config, graphA);
+        BigDecimal[] baselineB = evaluateModel(config, graphB);
+        EvaluationPlan layoutA = new EvaluationPlan(graphA, config, baselineA);
+        EvaluationPlan layoutB = new EvaluationPlan(graphB, config, baselineB);
+        int[] mapping = matchFindings(layoutA, layoutB);
+        LocationIndex locations = context.locations();
+        RandomStreams executions = streams.child("executions");
 
-            BigDecimal[] values = evaluateModel(config, graph);
-            for (int j = 0; j < values.length; j++)
-                results[j][i] = values[j].doubleValue();
+        try (ExperimentEngine engine = new ExperimentEngine(config, () -> new ComparisonWorker(
+                this, config, locations, templateA, baselineA, layoutA, templateB, baselineB, layoutB, mapping,
+                executions)))
+        {
+            return engine.run(0, config.numExecutions());
+        }
+    }
+
+    /**
+     * Matches the findings of one version of a quality model to those of
+     * another by name, logging the findings of either model which have no
+     * counterpart in the other.
+     * 
+     * @param planA
+     *            Plan of the first version of the quality model
+     * @param planB
+     *            Plan of the second version of the quality model
+     * @return Index of the finding of the second model matching each finding
+     *         of the first, -1 if it has none
+     */
+    @VisibleForTesting
+    int[] matchFindings(EvaluationPlan planA, EvaluationPlan planB)
+    {
+        Map<String, Integer> indexB = Maps.newHashMap();
+        for (int f = 0; f < planB.findingCount(); f++)
+            indexB.put(planB.finding(f).getName(), f);
+
+        int[] mapping = new int[planA.findingCount()];
+        for (int f = 0; f < mapping.length; f++)
+        {
+            Integer match = indexB.remove(planA.finding(f).getName());
+            mapping[f] = match == null ? -1 : match;
+            if (match == null)
+                LOG.info("Finding " + planA.finding(f).getName() + " only occurs in the first model");
+        }
+        for (String name : indexB.keySet())
+            LOG.info("Finding " + name + " only occurs in the second model, it is never linked");
+
+        return mapping;
+    }
+
+    /**
+     * Reports the paired comparison of two versions of a quality model. The
+     * p-value tests whether the mean difference between the models is zero,
+     * and the pairing gain is the ratio of the variance the difference would
+     * have had if the models were sampled independently to its variance under
+     * common random numbers.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @param comparison
+     *            Results of the comparison, as returned by
+     *            {@link #executeComparison(VerificationContext, QualityModelTemplate, QualityModelTemplate)}
+     */
+    @VisibleForTesting
+    void reportComparison(VerifierConfiguration config, ExperimentResults comparison)
+    {
+        int aspects = comparison.size() / 3;
+
+        sendToOutput("----------------------------------------------------------------------------");
+        sendToOutput("Quality Aspect            Mean A    Mean B  Mean Diff  StdDev Diff    p-val  Gain");
+        sendToOutput("----------------------------------------------------------------------------");
+        for (int i = 0; i < aspects; i++)
+        {
+            AspectStatistics statsA = comparison.statistics(i);
+            AspectStatistics statsB = comparison.statistics(aspects + i);
+            AspectStatistics diff = comparison.statistics(2 * aspects + i);
+            AspectStatistics tested = diff;
+            if (comparison.blocks() != null && comparison.blocks().statistics(2 * aspects + i).getN() >= 2)
+                tested = comparison.blocks().statistics(2 * aspects + i);
+            double pVal = diff.getVariance() > 0 ? TestUtils.tTest(0.0d, tested) : Double.NaN;
+            double gain = (statsA.getVariance() + statsB.getVariance()) / diff.getVariance();
+            boolean known = !Double.isNaN(gain) && !Double.isInfinite(gain);
+            String out = String.format(
+                    "%22.22s    %1.4f    %1.4f    %+1.4f    %1.5f    %1.4f  %s", config.qualityAspects().get(i),
+                    statsA.getMean(), statsB.getMean(), diff.getMean(), FastMath.sqrt(diff.getVariance()), pVal,
+                    known ? String.format("%.1f", gain) : "-");
+            sendToOutput(out);
+        }
+        sendToOutput("----------------------------------------------------------------------------");
+        sendToOutput(String.format(
+                "Executions with no findings (baseline reused): %d of %d", comparison.shortCircuited(),
+                aspects > 0 ? comparison.statistics(0).getN() : 0));
+        sendToOutput("----------------------------------------------------------------------------");
+        sendToOutput("\n");
+    }
+
+    /**
+     * Executes the range of executions of the shard run by this process and
+     * writes their results to the partial results file.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @param engine
+     *            Engine running the executions
+     * @param modelHash
+     *            Fingerprint of the distilled quality model
+     * @param treeHash
+     *            Fingerprint of the generated code tree
+     * @return Values of the quality aspects observed during the shard
+     * @throws IllegalStateException
+     *             If the partial results cannot be written
+     */
+    @VisibleForTesting
+    ExperimentResults executeShard(VerifierConfiguration config, ExperimentEngine engine, String modelHash,
+            String treeHash)
+    {
+        int[] range = PartialResults.range(shardIndex, shardCount, config.numExecutions());
+        LOG.info("Running executions [" + range[0] + ", " + range[1] + ") of shard " + shardIndex + "/" + shardCount);
+        ExperimentResults results = engine.run(range[0], range[1]);
+
+        PartialResults partial = new PartialResults(
+                configFingerprint(config), modelHash, treeHash, streams.seed(), range[0], range[1], results);
+        try
+        {
+            partial.save(partialFile);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Could not write the partial results " + partialFile, e);
+        }
+
+        return results;
+    }
+
+    /**
+     * Executes the configured number of executions, starting from the progress
+     * recorded in the given checkpoint. When checkpoints are enabled the
+     * executions are run in rounds, saving the checkpoint after each round.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @param engine
+     *            Engine running the executions
+     * @param checkpoint
+     *            Progress of the experiment
+     * @return Values of the quality aspects observed during the experiment
+     */
+    @VisibleForTesting
+    ExperimentResults executeFixed(VerifierConfiguration config, ExperimentEngine engine, Checkpoint checkpoint)
+    {
+        int total = config.numExecutions();
+        int interval = checkpointFile != null ? config.checkpointInterval() : total;
+        int done = checkpoint.completed();
+
+        ExperimentResults results = checkpoint.results();
+        while (done < total)
+        {
+            int next = Math.min(done + interval, total);
+            results.merge(engine.run(done, next));
+            done = next;
+            saveCheckpoint(checkpoint, done, results);
+        }
+
+        return results;
+    }
+
+    /**
+     * Executes the experiment in rounds, stopping as soon as the confidence
+     * interval of every quality aspect is within the targets of the
+     * configuration, or the maximum number of executions is reached. The
+     * experiment starts from the progress recorded in the given checkpoint,
+     * which is saved after each round when checkpoints are enabled.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @param engine
+     *            Engine running the executions
+     * @param checkpoint
+     *            Progress of the experiment
+     * @return Values of the quality aspects observed during the experiment
+     */
+    @VisibleForTesting
+    ExperimentResults executeAdaptive(VerifierConfiguration config, ExperimentEngine engine, Checkpoint checkpoint)
+    {
+        ConvergenceMonitor monitor = new ConvergenceMonitor(config);
+        int max = config.maxExecutions();
+        int done = checkpoint.completed();
 
-            graph = null;
+        ExperimentResults results = checkpoint.results();
+        if (done == 0)
+        {
+            done = Math.min(config.minExecutions(), max);
+            results.merge(engine.run(0, done));
+            saveCheckpoint(checkpoint, done, results);
+        }
 
-            System.gc();
+        while (!monitor.update(results) && done < max)
+        {
+            int next = Math.min(done + config.convergenceInterval(), max);
+            results.merge(engine.run(done, next));
+            done = next;
+            saveCheckpoint(checkpoint, done, results);
         }
 
+        LOG.info("Adaptive stopping ran " + done + " of at most " + max + " executions");
         return results;
     }
 
+    /**
+     * Selects the master seed of the experiment: the seed recorded in the
+     * checkpoint when resuming, otherwise the configured seed, or a fresh seed
+     * if none is configured.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @return The master seed
+     */
+    @VisibleForTesting
+    long selectSeed(VerifierConfiguration config)
+    {
+        if (partialFile != null)
+            return shardSeed;
+        else if (resume && checkpointFile != null && Files.exists(checkpointFile))
+            return readCheckpoint().seed();
+        else if (config.seed() != 0)
+            return config.seed();
+        else
+            return RandomStreams.freshSeed();
+    }
+
+    /**
+     * Restores the progress of the experiment from the checkpoint file when
+     * resuming, or starts a new experiment from the current master seed
+     * otherwise.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @param modelHash
+     *            Fingerprint of the distilled quality model
+     * @param treeHash
+     *            Fingerprint of the generated code tree
+     * @return Progress of the experiment
+     * @throws IllegalStateException
+     *             If the checkpoint cannot be read or was written under
+     *             different conditions
+     */
+    @VisibleForTesting
+    Checkpoint openCheckpoint(VerifierConfiguration config, String modelHash, String treeHash)
+    {
+        String configHash = configFingerprint(config);
+
+        if (resume && checkpointFile != null && Files.exists(checkpointFile))
+        {
+            Checkpoint checkpoint = readCheckpoint();
+            checkpoint.verify(configHash, modelHash, treeHash);
+            LOG.info("Resuming experiment after " + checkpoint.completed() + " executions");
+            return checkpoint;
+        }
+
+        if (resume)
+            LOG.warn("No checkpoint found at " + checkpointFile + ", starting a new experiment");
+
+        ExperimentResults results = new ExperimentResults(config.qualityAspects().size());
+        return new Checkpoint(configHash, modelHash, treeHash, streams.seed(), results);
+    }
+
+    /**
+     * @return The checkpoint read from the checkpoint file
+     * @throws IllegalStateException
+     *             If the checkpoint cannot be read
+     */
+    private Checkpoint readCheckpoint()
+    {
+        try
+        {
+            return Checkpoint.load(checkpointFile);
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Could not read the checkpoint " + checkpointFile, e);
+        }
+    }
+
+    /**
+     * Records the progress of the experiment in the given checkpoint and, when
+     * checkpoints are enabled, saves it to the checkpoint file. A checkpoint
+     * which cannot be saved is reported but does not stop the experiment.
+     * 
+     * @param checkpoint
+     *            Progress of the experiment
+     * @param completed
+     *            Number of executions completed
+     * @param results
+     *            Accumulated results of the completed executions
+     */
+    @VisibleForTesting
+    void saveCheckpoint(Checkpoint checkpoint, int completed, ExperimentResults results)
+    {
+        checkpoint.update(completed, results);
+        if (checkpointFile == null)
+            return;
+
+        try
+        {
+            checkpoint.save(checkpointFile);
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Could not save the checkpoint " + checkpointFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param config
+     *            The verifier configuration
+     * @return Fingerprint of the verifier configuration
+     */
+    @VisibleForTesting
+    String configFingerprint(VerifierConfiguration config)
+    {
+        return Checkpoint.digest(Collections.singletonList(new Gson().toJson(config)));
+    }
+
+    /**
+     * Computes a fingerprint of the distilled quality model from its nodes,
+     * its number of edges, and its baseline quality aspect values.
+     * 
+     * @param graph
+     *            Distilled graph of the quality model
+     * @param baseline
+     *            Quality aspect values of the model with no findings attached
+     * @return Fingerprint of the quality model
+     */
+    @VisibleForTesting
+    String modelFingerprint(DirectedSparseGraph<Node, Edge> graph, BigDecimal[] baseline)
+    {
+        List<String> parts = Lists.newArrayList();
+        for (final Node n : graph.getVertices())
+            parts.add(n.getClass().getSimpleName() + ":" + n.getName());
+        Collections.sort(parts);
+
+        parts.add("edges:" + graph.getEdgeCount());
+        for (BigDecimal value : baseline)
+            parts.add(value.toPlainString());
+
+        return Checkpoint.digest(parts);
+    }
+
+    /**
+     * Distills the quality model selected by the provided configuration and
+     * quality model file name into a template from which each execution
+     * receives its own copy of the graph. When configured, the graph is pruned
+     * to the cone of influence of the selected quality aspects.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @param qualityModel
+     *            name of the file containing the qualify model information,
+     *            can be null
+     * @return Template of the distilled quality model
+     */
+    @VisibleForTesting
+    QualityModelTemplate buildTemplate(VerifierConfiguration config, String qualityModel)
+    {
+        if (qualityModel != null)
+            return template(config, () -> buildGraph(Paths.get(qualityModel)));
+        else if (config.qmFiles().length > 0)
+            return template(config, () -> buildGraph(config.qmFiles()));
+        else
+            return template(config, () -> buildGraph(config.fileExtension()));
+    }
+
+    /**
+     * Distills the quality model made up of the given quality model files
+     * into a template, as {@link #buildTemplate(VerifierConfiguration, String)}
+     * does for the configured quality model. A single file is read as the
+     * quality model file given on the command line is.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @param qmFiles
+     *            Array of quality model file names
+     * @return Template of the distilled quality model
+     */
+    @VisibleForTesting
+    QualityModelTemplate buildTemplate(VerifierConfiguration config, String[] qmFiles)
+    {
+        if (qmFiles.length == 1)
+            return buildTemplate(config, qmFiles[0]);
+
+        return template(config, () -> buildGraph(qmFiles));
+    }
+
+    /**
+     * Creates the template of the graphs distilled by the given source,
+     * pruning them to the cone of influence of the selected quality aspects
+     * when configured.
+     * 
+     * @param config
+     *            The verifier configuration
+     * @param source
+     *            Source used to distill the graph
+     * @return Template of the distilled quality model
+     */
+    private QualityModelTemplate template(VerifierConfiguration config,
+            Supplier<DirectedSparseGraph<Node, Edge>> source)
+    {
+        if (!config.pruneToAspects())
+            return new QualityModelTemplate(source);
+
+        return new QualityModelTemplate(() -> {
+            DirectedSparseGraph<Node, Edge> graph = source.get();
+            return pruneGraph(config, graph) ? graph : source.get();
+        });
+    }
+
+    /**
+     * Removes every node of the given graph which is not on a path leading to
+     * one of the selected quality aspects, along with its edges. FindingNodes
+     * outside the cone are kept without their edges, so findings are selected
+     * from the same FindingNodes, consuming the same random numbers, as in the
+     * full graph, and those attached outside the cone still have no effect on
+     * the quality aspects. The values of the quality aspects are compared
+     * before and after pruning, and if they differ the pruned graph must not
+     * be used.
+     * 
+     * @param config
+     *            The verifier configuration selecting the quality aspects
+     * @param graph
+     *            Distilled graph of the quality model, pruned in place
+     * @return true if the values of the quality aspects are unchanged by the
+     *         pruning
+     */
+    @VisibleForTesting
+    boolean pruneGraph(VerifierConfiguration config, DirectedSparseGraph<Node, Edge> graph)
+    {
+        AspectIndex index = new AspectIndex(graph, config.qualityAspects());
+        BigDecimal[] before = evaluateModel(index);
+
+        Set<Node> cone = Sets.newHashSet();
+        Deque<Node> pending = new ArrayDeque<>();
+        for (int i = 0; i < index.size(); i++)
+        {
+            if (cone.add(index.get(i)))
+                pending.add(index.get(i));
+        }
+        while (!pending.isEmpty())
+        {
+            for (final Node pred : graph.getPredecessors(pending.poll()))
+            {
+                if (cone.add(pred))
+                    pending.add(pred);
+            }
+        }
+
+        int nodes = graph.getVertexCount();
+        int edges = graph.getEdgeCount();
+        List<Node> outside = Lists.newArrayList();
+        Set<Edge> detached = Sets.newHashSet();
+        int findings = 0;
+        for (final Node n : graph.getVertices())
+        {
+            if (cone.contains(n))
+                continue;
+
+            if (n instanceof FindingNode)
+            {
+                detached.addAll(graph.getIncidentEdges(n));
+                findings++;
+            }
+            else
+            {
+                outside.add(n);
+            }
+        }
+        for (final Edge e : detached)
+            graph.removeEdge(e);
+        for (final Node n : outside)
+            graph.removeVertex(n);
+
+        LOG.info(String.format(
+                "Pruned graph to the selected quality aspects: kept %d of %d nodes and %d of %d edges, "
+                        + "including %d unconnected FindingNodes kept for selection",
+                graph.getVertexCount(), nodes, graph.getEdgeCount(), edges, findings));
+
+        BigDecimal[] after = evaluateModel(index);
+        for (int i = 0; i < before.length; i++)
+        {
+            if (before[i].compareTo(after[i]) != 0)
+            {
+                LOG.warn("Pruning changed the value of " + config.qualityAspects().get(i) + ", using the full graph");
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     /**
      * Method validates that quality aspects to verify from the selected quality
      * model (with no attached findings) all equate to 1.0
@@ -244,6 +1133,24 @@ public class ModelVerifier {
         sendToOutput("-------------------------------------------------------------------");
     }
 
+    /**
+     * Resets the given plan's graph so that it can be reused by another
+     * execution. The values held by its nodes and edges, including any value
+     * they cached while evaluating the previous execution, are restored to
+     * those captured when the plan was compiled, and the findings attached to
+     * every FindingNode are cleared.
+     * 
+     * @param plan
+     *            Evaluation plan of the distilled graph of the quality model
+     */
+    @VisibleForTesting
+    void resetGraph(EvaluationPlan plan)
+    {
+        plan.restoreValues();
+        for (int f = 0; f < plan.findingCount(); f++)
+            plan.finding(f).getFindings().clear();
+    }
+
     /**
      * Sends output to both the console and the provided writer
      * 
@@ -270,27 +1177,61 @@ public class ModelVerifier {
     @VisibleForTesting
     BigDecimal[] evaluateModel(VerifierConfiguration config, DirectedSparseGraph<Node, Edge> graph)
     {
-        BigDecimal[] values = new BigDecimal[config.qualityAspects().size()];
+        return evaluateModel(new AspectIndex(graph, config.qualityAspects()));
+    }
 
-        for (int i = 0; i < config.qualityAspects().size(); i++)
-        {
-            String aspect = config.qualityAspects().get(i);
-            FactorNode factor = null;
-            for (final Node n : graph.getVertices())
-            {
-                if (n != null && n instanceof FactorNode && n.getName().equalsIgnoreCase(aspect))
-                {
-                    factor = (FactorNode) n;
-                    break;
-                }
-            }
+    /**
+     * Evaluates the value of the quality aspects resolved by the provided
+     * index.
+     * 
+     * @param index
+     *            Quality aspects resolved against the graph to evaluate
+     * @return array of values for the selected quality aspects
+     */
+    @VisibleForTesting
+    BigDecimal[] evaluateModel(AspectIndex index)
+    {
+        BigDecimal[] values = new BigDecimal[index.size()];
 
-            values[i] = factor.getValue();
-        }
+        for (int i = 0; i < index.size(); i++)
+            values[i] = index.get(i).getValue();
 
         return values;
     }
 
+    /**
+     * Evaluates the value of the quality aspects of the graph of the given
+     * plan, writing them into the provided array. Every value is computed by
+     * the BigDecimal arithmetic of the quamoco library and only converted to
+     * a double once it has been computed. An execution to which no findings
+     * were linked takes the baseline values without the graph being
+     * evaluated. When evaluating
+     * incrementally, quality aspects which are not downstream of any finding
+     * linked during the execution also take their baseline value instead of
+     * being recomputed.
+     * 
+     * @param plan
+     *            Plan of the graph to evaluate, with the findings of the
+     *            execution attached
+     * @param state
+     *            State of the execution
+     * @param values
+     *            Array receiving the values of the quality aspects
+     * @param incremental
+     *            true if clean quality aspects take their baseline value
+     */
+    @VisibleForTesting
+    void evaluateModel(EvaluationPlan plan, ExecutionState state, double[] values, boolean incremental)
+    {
+        for (int j = 0; j < values.length; j++)
+        {
+            if (state.isUnchanged() || (incremental && !state.isDirty(j)))
+                values[j] = plan.baselineValue(j);
+            else
+                values[j] = plan.aspects().get(j).getValue().doubleValue();
+        }
+    }
+
     /**
      * Distills a graph from a quality model at the given path.
      * 
@@ -301,10 +1242,11 @@ public class ModelVerifier {
     @VisibleForTesting
     DirectedSparseGraph<Node, Edge> buildGraph(Path path)
     {
-        final ModelDistiller distiller = new ModelDistiller();
-        distiller.buildGraph(path);
-        final DirectedSparseGraph<Node, Edge> graph = distiller.getGraph();
-        return graph;
+        return cached("path:" + path.getFileName(), ModelCache.includes(path), () -> {
+            final ModelDistiller distiller = new ModelDistiller();
+            distiller.buildGraph(path);
+            return distiller.getGraph();
+        });
     }
 
     /**
@@ -319,11 +1261,14 @@ public class ModelVerifier {
     @VisibleForTesting
     DirectedSparseGraph<Node, Edge> buildGraph(String lang)
     {
-        final ModelDistiller distiller = new ModelDistiller();
-        distiller.setLanguage(lang);
-        distiller.buildGraph();
-        final DirectedSparseGraph<Node, Edge> graph = distiller.getGraph();
-        return graph;
+        Supplier<DirectedSparseGraph<Node, Edge>> source = () -> {
+            final ModelDistiller distiller = new ModelDistiller();
+            distiller.setLanguage(lang);
+            distiller.buildGraph();
+            return distiller.getGraph();
+        };
+
+        return modelCache == null ? source.get() : modelCache.loadPackaged("lang:" + lang, source);
     }
 
     /**
@@ -337,101 +1282,237 @@ public class ModelVerifier {
     @VisibleForTesting
     DirectedSparseGraph<Node, Edge> buildGraph(String[] qmFiles)
     {
-        final ModelDistiller distiller = new ModelDistiller();
-        distiller.buildGraph(qmFiles);
-        final DirectedSparseGraph<Node, Edge> graph = distiller.getGraph();
-        return graph;
+        List<Path> inputs = Lists.newArrayList();
+        for (String file : qmFiles)
+            inputs.add(Paths.get(file));
+
+        return cached("files", inputs, () -> {
+            final ModelDistiller distiller = new ModelDistiller();
+            distiller.buildGraph(qmFiles);
+            return distiller.getGraph();
+        });
     }
 
     /**
-     * Generates findings for issues in the provided quality model graph based
-     * on information in the provided config and linked to entities in the
-     * provided tree.
+     * Reads the outline of the quality model identified by the configuration
+     * or the given file, streaming the quality model files rather than
+     * distilling them. The quality models packaged for a language are not
+     * available as files, so no outline can be read for them.
      * 
      * @param config
-     *            Configuration controlling the identification of which issues
-     *            to use
+     *            The verifier configuration
+     * @param qualityModel
+     *            name of the file containing the qualify model information,
+     *            can be null
+     * @return Outline of the quality model, or null if it is packaged with
+     *         the library
+     * @throws IOException
+     *             If any of the quality model files cannot be read or is
+     *             malformed
+     */
+    @VisibleForTesting
+    QualityModel buildOutline(VerifierConfiguration config, String qualityModel) throws IOException
+    {
+        if (qualityModel != null)
+            return QualityModelReader.load(Paths.get(qualityModel));
+
+        if (config.qmFiles().length == 0)
+            return null;
+
+        return buildOutline(config.qmFiles());
+    }
+
+    /**
+     * Reads the outline of the quality model made up of the given quality
+     * model files, streaming them rather than distilling them.
+     * 
+     * @param qmFiles
+     *            Array of quality model file names
+     * @return Outline of the quality model
+     * @throws IOException
+     *             If any of the quality model files cannot be read or is
+     *             malformed
+     */
+    @VisibleForTesting
+    QualityModel buildOutline(String[] qmFiles) throws IOException
+    {
+        Path[] files = new Path[qmFiles.length];
+        for (int i = 0; i < files.length; i++)
+            files[i] = Paths.get(qmFiles[i]);
+
+        return QualityModelReader.load(files);
+    }
+
+    /**
+     * Provides the graph distilled by the given source, through the model
+     * cache when it is enabled.
+     * 
+     * @param label
+     *            Description of how the inputs are distilled
+     * @param inputs
+     *            Files the graph is distilled from, null if unknown
+     * @param source
+     *            Source used to distill the graph
+     * @return Distilled graph of the quality model
+     */
+    private DirectedSparseGraph<Node, Edge> cached(String label, List<Path> inputs,
+            Supplier<DirectedSparseGraph<Node, Edge>> source)
+    {
+        if (modelCache == null)
+            return source.get();
+
+        return modelCache.load(label, inputs, source);
+    }
+
+    /**
+     * @param config
+     *            The verifier configuration
+     * @return Directory holding the model cache
+     */
+    private static Path cacheDirectory(VerifierConfiguration config)
+    {
+        if (config.modelCacheDir().isEmpty())
+            return Paths.get(System.getProperty("user.home"), ".msusel-verifier", "model-cache");
+
+        return Paths.get(config.modelCacheDir());
+    }
+
+    /**
+     * Generates findings for issues in the provided quality model graph based
+     * on the configuration of the provided context and linked to entities in
+     * its tree.
+     * 
+     * @param context
+     *            Context of the verification, providing the configuration
+     *            controlling the identification of which issues to use and
+     *            the tree providing locations where Findings will be linked
      * @param graph
      *            Distilled Graph of the quality model to which issues will be
      *            provided with findings
-     * @param tree
-     *            Tree providing locations where Findings will be linked
      */
     @VisibleForTesting
-    void linkIssues(VerifierConfiguration config, DirectedSparseGraph<Node, Edge> graph, CodeTree tree)
+    void linkIssues(VerificationContext context, DirectedSparseGraph<Node, Edge> graph)
     {
-        Map<String, FindingNode> linkLocs = Maps.newHashMap();
-        for (final Node n : graph.getVertices())
+        VerifierConfiguration config = context.config();
+        EvaluationPlan plan = new EvaluationPlan(graph, config);
+        LocationIndex locations = context.locations();
+        ExecutionState state = new ExecutionState(plan);
+
+        linkIssues(config, state, locations, rand);
+        applyFindings(plan, state, locations);
+    }
+
+    /**
+     * Selects the findings of an execution and the locations they are linked
+     * to using the provided random number generator, recording them in the
+     * state of the execution. No graph is modified, the findings are attached
+     * by {@link #applyFindings(EvaluationPlan, ExecutionState, LocationIndex)}.
+     * 
+     * @param config
+     *            Configuration controlling the number of findings generated
+     * @param state
+     *            State of the execution receiving the findings
+     * @param locations
+     *            Index of the locations where Findings will be linked
+     * @param rand
+     *            Random number generator used to select findings and their
+     *            locations
+     */
+    @VisibleForTesting
+    void linkIssues(VerifierConfiguration config, ExecutionState state, LocationIndex locations, Random rand)
+    {
+        int count = state.selectFindings(rand);
+        for (int s = 0; s < count; s++)
         {
-            if (n instanceof FindingNode)
+            int f = state.selected(s);
+            int num = rand.nextInt(config.maxFindingsPerItem()) + 1;
+
+            if (f >= 0)
             {
-                linkLocs.put(n.getName(), (FindingNode) n);
+                for (int i = 0; i < num; i++)
+                {
+                    if (Double.compare(rand.nextDouble(), config.findingProbability()) <= 0)
+                        state.markLinked(f, locations.sampleIndex(rand));
+                }
             }
         }
+    }
 
-        List<String> names = Lists.newArrayList();
-
-        if (config.findingsToVerify().contains(VerifierConfiguration.ANY))
-            names.addAll(randomLinkLocNames(config.maxFindingsActivatedForAny(), linkLocs));
-        else if (config.findingsToVerify().contains(VerifierConfiguration.ALL))
-            names.addAll(linkLocs.keySet());
-        else
-            names.addAll(config.findingsToVerify());
-
-        SecureRandom rand = new SecureRandom();
-        for (String name : names)
+    /**
+     * Selects the findings of an execution and the locations they are linked
+     * to as {@link #linkIssues(VerifierConfiguration, ExecutionState, LocationIndex, Random)}
+     * does, reading every decision from a fixed dimension of the provided
+     * sampler. The findings are selected from the leading dimensions, followed
+     * by one group of dimensions per selected finding: the number of findings
+     * generated, then whether each is linked and the kind and position of its
+     * location.
+     * 
+     * @param config
+     *            Configuration controlling the number of findings generated
+     * @param state
+     *            State of the execution receiving the findings
+     * @param locations
+     *            Index of the locations where Findings will be linked
+     * @param sampler
+     *            Sampler providing the draws of the execution
+     */
+    @VisibleForTesting
+    void linkIssues(VerifierConfiguration config, ExecutionState state, LocationIndex locations,
+            ExecutionSampler sampler)
+    {
+        int max = config.maxFindingsPerItem();
+        int stride = 1 + 3 * max;
+        int count = state.selectFindings(sampler);
+        for (int s = 0; s < count; s++)
         {
-            FindingNode fnode = linkLocs.get(name);
-            int num = rand.nextInt(config.maxFindingsPerItem()) + 1;
+            int f = state.selected(s);
+            int d = state.selectionDimensions() + s * stride;
+            int num = Math.min((int) (sampler.count(d) * max), max - 1) + 1;
 
-            if (fnode != null)
+            if (f >= 0)
             {
                 for (int i = 0; i < num; i++)
                 {
-                    if (Double.compare(rand.nextDouble(), config.findingProbability()) <= 0)
-                    {
-                        List<MethodNode> methods = Lists.newArrayList(tree.getUtils().getMethods());
-                        List<TypeNode> types = Lists.newArrayList(tree.getUtils().getTypes());
-                        List<FileNode> files = Lists.newArrayList(tree.getUtils().getFiles());
-
-                        INode location = null;
-
-                        int type = rand.nextInt(3);
-                        switch (type)
-                        {
-                        case 2:
-                            location = files.get(rand.nextInt(files.size()));
-                            break;
-                        case 1:
-                            location = types.get(rand.nextInt(types.size()));
-                            break;
-                        default:
-                            location = methods.get(rand.nextInt(methods.size()));
-                            break;
-                        }
-
-                        Finding finding = new Finding(location, fnode.getRuleName(), fnode.getRuleName());
-                        fnode.addFinding(finding);
-                    }
+                    int e = d + 1 + 3 * i;
+                    if (Double.compare(sampler.uniform(e), config.findingProbability()) <= 0)
+                        state.markLinked(f, locations.sampleIndex(sampler.uniform(e + 1), sampler.uniform(e + 2)));
                 }
             }
         }
     }
 
     /**
-     * Method to randomly select a set of Issues to be used for linking.
+     * @param config
+     *            The verifier configuration
+     * @param state
+     *            State of an execution
+     * @return Number of sampler dimensions read by each execution
+     */
+    static int samplingDimensions(VerifierConfiguration config, ExecutionState state)
+    {
+        return state.selectionDimensions() + state.selectionSize() * (1 + 3 * config.maxFindingsPerItem());
+    }
+
+    /**
+     * Attaches the findings recorded in the state of an execution to the
+     * FindingNodes of the graph of the given plan, in the order they were
+     * linked.
      * 
-     * @param max
-     *            Maximum number of issues to select
-     * @param linkLocs
-     *            Map of FindingNodes indexed by their identifier
-     * @return List of FindingNode identifiers to use
+     * @param plan
+     *            Evaluation plan of a graph with no findings attached
+     * @param state
+     *            State of the execution
+     * @param locations
+     *            Index of the locations the findings were linked to
      */
     @VisibleForTesting
-    List<String> randomLinkLocNames(int max, Map<String, FindingNode> linkLocs)
+    void applyFindings(EvaluationPlan plan, ExecutionState state, LocationIndex locations)
     {
-        List<String> names = Lists.newArrayList(linkLocs.keySet());
-        Collections.shuffle(names, new SecureRandom());
-        return names.subList(0, max > names.size() ? names.size() : max);
+        for (int i = 0; i < state.linkCount(); i++)
+        {
+            int f = state.linkedFinding(i);
+            String rule = plan.ruleName(f);
+            plan.finding(f).addFinding(new Finding(locations.location(state.linkedLocation(i)), rule, rule));
+        }
     }
 }
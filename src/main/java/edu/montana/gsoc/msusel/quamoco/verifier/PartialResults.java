@@ -0,0 +1,284 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * Results of one shard of an experiment split across several processes,
+ * which can be written to, and read from, a local file. A shard runs a
+ * contiguous range of the executions of the experiment. Every shard derives
+ * its random number streams from the same master seed, and each execution
+ * seeds its own stream from its index, so the shards run disjoint streams and
+ * together run exactly the executions of the unsharded experiment.
+ * <p>
+ * The partial results of all shards are combined by
+ * {@link #merge(List, String, int)}, which checks that they were collected
+ * under the same conditions and cover every execution exactly once.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class PartialResults {
+
+    /**
+     * Version of the partial results file format
+     */
+    private static final int  FORMAT_VERSION = 1;
+    /**
+     * Version of the format the partial results were written with
+     */
+    private int               version;
+    /**
+     * Fingerprint of the verifier configuration
+     */
+    private String            configHash;
+    /**
+     * Fingerprint of the distilled quality model
+     */
+    private String            modelHash;
+    /**
+     * Fingerprint of the generated code tree
+     */
+    private String            treeHash;
+    /**
+     * Master seed from which every random number stream of the experiment is
+     * derived
+     */
+    private long              seed;
+    /**
+     * First execution of the shard (inclusive)
+     */
+    private int               from;
+    /**
+     * Last execution of the shard (exclusive)
+     */
+    private int               to;
+    /**
+     * Results of the executions of the shard
+     */
+    private ExperimentResults results;
+
+    /**
+     * Constructs a new PartialResults
+     * 
+     * @param configHash
+     *            Fingerprint of the verifier configuration
+     * @param modelHash
+     *            Fingerprint of the distilled quality model
+     * @param treeHash
+     *            Fingerprint of the generated code tree
+     * @param seed
+     *            Master seed of the experiment
+     * @param from
+     *            First execution of the shard (inclusive)
+     * @param to
+     *            Last execution of the shard (exclusive)
+     * @param results
+     *            Results of the executions of the shard
+     */
+    public PartialResults(String configHash, String modelHash, String treeHash, long seed, int from, int to,
+            ExperimentResults results)
+    {
+        this.version = FORMAT_VERSION;
+        this.configHash = configHash;
+        this.modelHash = modelHash;
+        this.treeHash = treeHash;
+        this.seed = seed;
+        this.from = from;
+        this.to = to;
+        this.results = results;
+    }
+
+    /**
+     * Computes the range of executions run by a shard, splitting the
+     * executions as evenly as possible.
+     * 
+     * @param shard
+     *            Index of the shard, from 0
+     * @param shards
+     *            Number of shards
+     * @param total
+     *            Number of executions of the experiment
+     * @return First (inclusive) and last (exclusive) execution of the shard
+     */
+    public static int[] range(int shard, int shards, int total)
+    {
+        return new int[] { (int) ((long) total * shard / shards), (int) ((long) total * (shard + 1) / shards) };
+    }
+
+    /**
+     * Combines the partial results of every shard of an experiment.
+     * 
+     * @param partials
+     *            Partial results of the shards, in any order
+     * @param configHash
+     *            Fingerprint of the verifier configuration of the experiment
+     * @param total
+     *            Number of executions of the experiment
+     * @return Results of the whole experiment
+     * @throws IllegalStateException
+     *             If the partial results were collected under different
+     *             conditions, or do not cover every execution exactly once
+     */
+    public static ExperimentResults merge(List<PartialResults> partials, String configHash, int total)
+    {
+        if (partials.isEmpty())
+            throw new IllegalStateException("No partial results to merge");
+
+        List<PartialResults> sorted = Lists.newArrayList(partials);
+        sorted.sort(Comparator.comparingInt(p -> p.from));
+
+        PartialResults first = sorted.get(0);
+        ExperimentResults merged = new ExperimentResults(first.results.size());
+        int next = 0;
+        for (PartialResults partial : sorted)
+        {
+            if (partial.version != FORMAT_VERSION)
+                throw new IllegalStateException("Unsupported partial results format version: " + partial.version);
+            if (!partial.configHash.equals(configHash))
+                throw new IllegalStateException("Cannot merge, the configuration differs from the partial results");
+            if (!partial.modelHash.equals(first.modelHash) || !partial.treeHash.equals(first.treeHash)
+                    || partial.seed != first.seed)
+                throw new IllegalStateException("Cannot merge, the shards ran different experiments");
+            if (partial.from > next)
+                throw new IllegalStateException(
+                        "Cannot merge, executions [" + next + ", " + partial.from + ") are missing");
+            if (partial.from < next)
+                throw new IllegalStateException(
+                        "Cannot merge, executions [" + partial.from + ", " + next + ") were run by more than one shard");
+
+            merged.merge(partial.results);
+            next = partial.to;
+        }
+
+        if (next != total)
+            throw new IllegalStateException("Cannot merge, executions [" + next + ", " + total + ") are missing");
+
+        return merged;
+    }
+
+    /**
+     * @return Master seed of the experiment
+     */
+    public long seed()
+    {
+        return seed;
+    }
+
+    /**
+     * @return First execution of the shard (inclusive)
+     */
+    public int from()
+    {
+        return from;
+    }
+
+    /**
+     * @return Last execution of the shard (exclusive)
+     */
+    public int to()
+    {
+        return to;
+    }
+
+    /**
+     * @return Results of the executions of the shard
+     */
+    public ExperimentResults results()
+    {
+        return results;
+    }
+
+    /**
+     * Writes these partial results to the given file. The results are first
+     * written to a temporary file which then replaces the given file, so a
+     * partially written file is never read.
+     * 
+     * @param file
+     *            Partial results file
+     * @throws IOException
+     *             If the partial results could not be written
+     */
+    public void save(Path file) throws IOException
+    {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8))
+        {
+            gson().toJson(this, writer);
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads partial results from the given file.
+     * 
+     * @param file
+     *            Partial results file
+     * @return The partial results
+     * @throws IOException
+     *             If the file could not be read or does not describe partial
+     *             results
+     */
+    public static PartialResults load(Path file) throws IOException
+    {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+        {
+            PartialResults partial = gson().fromJson(reader, PartialResults.class);
+            if (partial == null || partial.results == null)
+                throw new IOException("Not a partial results file: " + file);
+
+            return partial;
+        }
+        catch (JsonParseException e)
+        {
+            throw new IOException("Not a partial results file: " + file, e);
+        }
+    }
+
+    /**
+     * @return Gson instance used to read and write partial results, which
+     *         keeps the NaN extremes of empty accumulators
+     */
+    private static Gson gson()
+    {
+        return new GsonBuilder().serializeSpecialFloatingPointValues().create();
+    }
+}
@@ -28,13 +28,15 @@ package edu.montana.gsoc.msusel.quamoco.verifier;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.security.SecureRandom;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.Random;
 
 import org.apache.commons.math3.distribution.TriangularDistribution;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.RandomGeneratorFactory;
 
 import com.google.common.collect.Lists;
 
@@ -56,16 +58,53 @@ public abstract class ProjectGenerator {
      * The verifier configuration used to control the generator
      */
     protected VerifierConfiguration config;
+    /**
+     * Random number generator driving every choice made by the generator
+     */
+    protected final Random          rand;
+    /**
+     * Adapter of the random number generator used to sample distributions
+     */
+    protected final RandomGenerator rng;
 
     /**
      * Constructs a new ProjectGenerator with the given verifier configuration
+     * and a freshly seeded random number generator
      * 
      * @param config
      *            The Verifier Configuration
      */
     public ProjectGenerator(VerifierConfiguration config)
+    {
+        this(config, new SplitMixRandom(RandomStreams.freshSeed()));
+    }
+
+    /**
+     * Constructs a new ProjectGenerator with the given verifier configuration
+     * and random number generator
+     * 
+     * @param config
+     *            The Verifier Configuration
+     * @param rand
+     *            Random number generator driving the generator
+     */
+    public ProjectGenerator(VerifierConfiguration config, Random rand)
     {
         this.config = config;
+        this.rand = rand;
+        this.rng = RandomGeneratorFactory.createRandomGenerator(rand);
+    }
+
+    /**
+     * Constructs a new ProjectGenerator with the configuration of the given
+     * verification context, driven by its "project" random number stream
+     * 
+     * @param context
+     *            Context of the verification the tree is generated for
+     */
+    public ProjectGenerator(VerificationContext context)
+    {
+        this(context.config(), context.streams().stream("project"));
     }
 
     /**
@@ -132,12 +171,11 @@ public abstract class ProjectGenerator {
 
         }
 
-        SecureRandom r = new SecureRandom();
-        Collections.shuffle(cn);
+        Collections.shuffle(cn, rand);
         String name = cn.get(0);
-        if (Double.compare(r.nextDouble(), 0.5) < 0)
+        if (Double.compare(rand.nextDouble(), 0.5) < 0)
             name += cn.get(1);
-        if (Double.compare(r.nextDouble(), 0.15) < 0)
+        if (Double.compare(rand.nextDouble(), 0.15) < 0)
             name += cn.get(2);
 
         return name;
@@ -148,7 +186,7 @@ public abstract class ProjectGenerator {
      */
     protected List<String> generateNamespaceList()
     {
-        TriangularDistribution dist = new TriangularDistribution(5, 10, 15);
+        TriangularDistribution dist = new TriangularDistribution(rng, 5, 10, 15);
         int numPkgs = (int) dist.sample();
 
         String base = "com.sparqline";
@@ -205,7 +243,7 @@ public abstract class ProjectGenerator {
 
         }
 
-        TriangularDistribution subdist = new TriangularDistribution(2, 3, 5);
+        TriangularDistribution subdist = new TriangularDistribution(rng, 2, 3, 5);
         List<String> pkgs = Lists.newArrayList();
         Queue<String> pq = new LinkedList<>();
         int count = 0;
@@ -214,7 +252,7 @@ public abstract class ProjectGenerator {
         {
             String pkg = pq.poll();
             int numsubs = (int) subdist.sample();
-            Collections.shuffle(pn);
+            Collections.shuffle(pn, rand);
             for (int i = 0; i <= numsubs; i++)
             {
                 String temp = pkg + "." + pn.get(i);
@@ -295,12 +333,11 @@ public abstract class ProjectGenerator {
 
         }
 
-        SecureRandom r = new SecureRandom();
-        Collections.shuffle(cn);
+        Collections.shuffle(cn, rand);
         String name = cn.get(0);
-        if (Double.compare(r.nextDouble(), 0.5) < 0)
+        if (Double.compare(rand.nextDouble(), 0.5) < 0)
             name += cn.get(1);
-        if (Double.compare(r.nextDouble(), 0.15) < 0)
+        if (Double.compare(rand.nextDouble(), 0.15) < 0)
             name += cn.get(2);
 
         return name;
@@ -345,7 +382,7 @@ public abstract class ProjectGenerator {
 
         }
 
-        Collections.shuffle(fn);
+        Collections.shuffle(fn, rand);
 
         return fn.get(0);
     }
@@ -409,10 +446,9 @@ public abstract class ProjectGenerator {
 
         }
 
-        Collections.shuffle(mn1);
-        Collections.shuffle(mn2);
+        Collections.shuffle(mn1, rand);
+        Collections.shuffle(mn2, rand);
 
-        SecureRandom rand = new SecureRandom();
         String prefix = "";
         if (Double.compare(rand.nextDouble(), 0.33) < 0)
         {
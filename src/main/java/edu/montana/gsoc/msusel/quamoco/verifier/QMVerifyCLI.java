@@ -28,6 +28,7 @@ package edu.montana.gsoc.msusel.quamoco.verifier;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.List;
@@ -39,6 +40,11 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 
 import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
 
@@ -62,6 +68,14 @@ public class QMVerifyCLI {
      * Constant defining the default output file name
      */
     private static final String  DEFAULT_OUTPUT = "verifier_output";
+    /**
+     * Constant defining the default checkpoint file name
+     */
+    private static final String  DEFAULT_CHECKPOINT = "verifier.checkpoint";
+    /**
+     * Logger associated with this class
+     */
+    private static final Logger  LOG            = LoggerFactory.getLogger(QMVerifyCLI.class);
     /**
      * The output printwritter
      */
@@ -102,11 +116,88 @@ public class QMVerifyCLI {
                 .hasArg()
                 .numberOfArgs(1)
                 .build();
+        final Option checkpoint = Option.builder("k")
+                .required(false)
+                .longOpt("checkpoint")
+                .desc("Periodically saves the progress of the experiment to the given file.")
+                .argName("FILE")
+                .hasArg()
+                .numberOfArgs(1)
+                .build();
+        final Option resume = Option.builder("r")
+                .required(false)
+                .longOpt("resume")
+                .desc("Resumes the experiment saved in the checkpoint file.")
+                .hasArg(false)
+                .build();
+        final Option shards = Option.builder("s")
+                .required(false)
+                .longOpt("shards")
+                .desc("Splits the executions across the given number of worker JVMs and merges their results.")
+                .argName("N")
+                .hasArg()
+                .numberOfArgs(1)
+                .build();
+        final Option shardDir = Option.builder()
+                .required(false)
+                .longOpt("shard-dir")
+                .desc("Directory receiving the partial results and logs of the shard workers.")
+                .argName("DIR")
+                .hasArg()
+                .numberOfArgs(1)
+                .build();
+        final Option merge = Option.builder("m")
+                .required(false)
+                .longOpt("merge")
+                .desc("Merges the given partial results files and reports the combined results.")
+                .argName("FILE")
+                .hasArgs()
+                .build();
+        final Option shard = Option.builder()
+                .required(false)
+                .longOpt("shard")
+                .desc("Runs only the given shard of the executions, as a worker.")
+                .argName("I/N")
+                .hasArg()
+                .numberOfArgs(1)
+                .build();
+        final Option seed = Option.builder()
+                .required(false)
+                .longOpt("seed")
+                .desc("Master seed shared by every shard.")
+                .argName("SEED")
+                .hasArg()
+                .numberOfArgs(1)
+                .build();
+        final Option partial = Option.builder()
+                .required(false)
+                .longOpt("partial")
+                .desc("File to which a shard worker writes its partial results.")
+                .argName("FILE")
+                .hasArg()
+                .numberOfArgs(1)
+                .build();
+        final Option compare = Option.builder("b")
+                .required(false)
+                .longOpt("compare")
+                .desc("Compares the quality model against the given quality model files, using the same findings for both.")
+                .argName("QM_FILE")
+                .hasArgs()
+                .build();
         options = new Options();
         QMVerifyCLI.options.addOption(help);
         QMVerifyCLI.options.addOption(output);
         QMVerifyCLI.options.addOption(model);
         QMVerifyCLI.options.addOption(config);
+        QMVerifyCLI.options.addOption(checkpoint);
+        QMVerifyCLI.options.addOption(resume);
+        QMVerifyCLI.options.addOption(shards);
+        QMVerifyCLI.options.addOption(shardDir);
+        QMVerifyCLI.options.addOption(merge);
+        QMVerifyCLI.options.addOption(shard);
+        QMVerifyCLI.options.addOption(seed);
+        QMVerifyCLI.options.addOption(partial);
+        QMVerifyCLI.options.addOption(compare);
     }
 
     /**
@@ -116,8 +207,11 @@ public class QMVerifyCLI {
      *            The parsed command line arguments.
      * @throws IOException
      *             If the file for output cannot be written to
+     * @throws ParseException
+     *             If the shard options are malformed or the options cannot
+     *             be combined
      */
-    public static void execute(final CommandLine line) throws IOException
+    public static void execute(final CommandLine line) throws IOException, ParseException
     {
         VerifierConfiguration config = null;
         String qualityModel = null;
@@ -129,6 +223,8 @@ public class QMVerifyCLI {
             return;
         }
 
+        checkOptions(line);
+
         List<String> args = line.getArgList();
         for (String arg : args)
         {
@@ -154,18 +250,51 @@ public class QMVerifyCLI {
             qualityModel = line.getOptionValue('q');
         }
 
-        if (line.hasOption('c'))
+        String configFile = line.getOptionValue('c', DEFAULT_CONFIG);
+        config = VerifierConfiguration.load(configFile);
+
+        ModelVerifier verifier = new ModelVerifier(outputter);
+        if (line.hasOption('m'))
+        {
+            List<Path> partials = Lists.newArrayList();
+            for (String file : line.getOptionValues('m'))
+                partials.add(Paths.get(file));
+            verifier.mergeResults(config, partials);
+        }
+        else if (line.hasOption('b'))
         {
-            config = VerifierConfiguration.load(line.getOptionValue('c'));
+            verifier.compare(config, qualityModel, line.getOptionValues('b'), output);
+        }
+        else if (line.hasOption('s'))
+        {
+            int shards = parseInt(line.getOptionValue('s'), "shards", 1);
+            Path shardDir = line.hasOption("shard-dir") ? Paths.get(line.getOptionValue("shard-dir"))
+                    : Files.createTempDirectory("qmverify-shards");
+            ShardCoordinator coordinator = new ShardCoordinator(config, configFile, qualityModel, shardDir);
+            verifier.mergeResults(config, coordinator.run(shards, coordinator.selectSeed()));
         }
         else
         {
-            config = VerifierConfiguration.load(DEFAULT_CONFIG);
+            if (line.hasOption("shard"))
+            {
+                String[] shard = line.getOptionValue("shard").split("/");
+                if (shard.length != 2 || !line.hasOption("seed") || !line.hasOption("partial"))
+                    throw new ParseException("--shard requires I/N, --seed, and --partial");
+                int index = parseInt(shard[0], "shard index", 0);
+                int count = parseInt(shard[1], "shard count", 1);
+                if (index >= count)
+                    throw new ParseException("Shard index must be less than the shard count: " + index);
+                verifier.enableShard(index, count, parseLong(line.getOptionValue("seed")),
+                        Paths.get(line.getOptionValue("partial")));
+            }
+            else if (line.hasOption('k') || line.hasOption('r'))
+            {
+                verifier.enableCheckpoints(Paths.get(line.getOptionValue('k', DEFAULT_CHECKPOINT)),
+                        line.hasOption('r'));
+            }
+            verifier.process(config, qualityModel, output);
         }
 
-        ModelVerifier verifier = new ModelVerifier(outputter);
-        verifier.process(config, qualityModel, output);
-
         if (outputter != null)
         {
             outputter.flush();
@@ -173,6 +302,83 @@ public class QMVerifyCLI {
         }
     }
 
+    /**
+     * Rejects combinations of options of which some would otherwise be
+     * silently ignored. Merging, comparing, coordinating shards and running a
+     * single shard are exclusive modes, checkpoints only apply to an
+     * experiment run in a single process, and the seed and partial results
+     * file only apply to a shard worker.
+     *
+     * @param line
+     *            The parsed command line arguments.
+     * @throws ParseException
+     *             If any of the options cannot be combined
+     */
+    @VisibleForTesting
+    static void checkOptions(final CommandLine line) throws ParseException
+    {
+        int modes = 0;
+        for (String mode : new String[] { "merge", "compare", "shards", "shard" })
+        {
+            if (line.hasOption(mode))
+                modes++;
+        }
+        if (modes > 1)
+            throw new ParseException("Only one of --merge, --compare, --shards, and --shard may be given");
+
+        if ((line.hasOption('k') || line.hasOption('r')) && modes > 0)
+            throw new ParseException(
+                    "--checkpoint and --resume cannot be combined with --merge, --compare, --shards, or --shard");
+
+        if ((line.hasOption("seed") || line.hasOption("partial")) && !line.hasOption("shard"))
+            throw new ParseException("--seed and --partial are only used with --shard");
+    }
+
+    /**
+     * @param value
+     *            Option value
+     * @param name
+     *            Name of the value, used in the error message
+     * @param min
+     *            Smallest valid value
+     * @return The value as an int
+     * @throws ParseException
+     *             If the value is not a valid int
+     */
+    private static int parseInt(String value, String name, int min) throws ParseException
+    {
+        try
+        {
+            int parsed = Integer.parseInt(value);
+            if (parsed < min)
+                throw new ParseException("Invalid " + name + ": " + value);
+            return parsed;
+        }
+        catch (NumberFormatException e)
+        {
+            throw new ParseException("Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * @param value
+     *            Option value
+     * @return The value as a long
+     * @throws ParseException
+     *             If the value is not a valid long
+     */
+    private static long parseLong(String value) throws ParseException
+    {
+        try
+        {
+            return Long.parseLong(value);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new ParseException("Invalid seed: " + value);
+        }
+    }
+
     /**
      * Starting point of execution.
      *
@@ -181,22 +387,40 @@ public class QMVerifyCLI {
      */
     public static void main(final String... args)
     {
-        final CommandLineParser parser = new DefaultParser();
         try
         {
-            final CommandLine line = parser.parse(QMVerifyCLI.options, args);
-            execute(line);
+            execute(parse(args));
         }
         catch (final ParseException exp)
         {
+            System.err.println(exp.getMessage());
             printHelp();
+            System.exit(1);
         }
         catch (IOException e)
         {
-
+            LOG.error("Could not complete the verification", e);
+            System.exit(1);
         }
     }
 
+    /**
+     * Parses the raw command line arguments against the options of the
+     * verifier.
+     *
+     * @param args
+     *            Raw command line arguments.
+     * @return The parsed command line arguments.
+     * @throws ParseException
+     *             If the arguments do not match the options
+     */
+    @VisibleForTesting
+    static CommandLine parse(final String... args) throws ParseException
+    {
+        final CommandLineParser parser = new DefaultParser();
+        return parser.parse(QMVerifyCLI.options, args);
+    }
+
     /**
      * Prints the help message
      */
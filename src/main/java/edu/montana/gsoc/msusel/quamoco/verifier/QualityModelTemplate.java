@@ -0,0 +1,153 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * An immutable template of a distilled quality model. The model is distilled
+ * exactly once, when the template is constructed, and is then kept as a binary
+ * snapshot from which clean copies of the graph can be produced for each
+ * execution of an experiment without parsing the underlying quality model
+ * files again.
+ * <p>
+ * If the distilled graph cannot be serialized, the template falls back to
+ * distilling a new graph for each copy requested.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class QualityModelTemplate {
+
+    /**
+     * Logger associated with this class
+     */
+    private static final Logger                           LOG = LoggerFactory.getLogger(QualityModelTemplate.class);
+    /**
+     * Source used to distill the quality model graph
+     */
+    private final Supplier<DirectedSparseGraph<Node, Edge>> source;
+    /**
+     * Serialized form of the distilled graph, null if the graph could not be
+     * serialized
+     */
+    private final byte[]                                  snapshot;
+
+    /**
+     * Constructs a new template by distilling the graph provided by the given
+     * source once.
+     *
+     * @param source
+     *            Source used to distill the quality model graph
+     */
+    public QualityModelTemplate(Supplier<DirectedSparseGraph<Node, Edge>> source)
+    {
+        this.source = source;
+        this.snapshot = serialize(source.get());
+    }
+
+    /**
+     * @return A new, clean copy of the distilled quality model graph
+     */
+    public DirectedSparseGraph<Node, Edge> newInstance()
+    {
+        if (snapshot == null)
+            return source.get();
+
+        return deserialize(snapshot);
+    }
+
+    /**
+     * @return true if copies are produced from the binary snapshot, false if
+     *         each copy is distilled from the quality model files
+     */
+    public boolean isSnapshot()
+    {
+        return snapshot != null;
+    }
+
+    /**
+     * Serializes the given graph into a byte array.
+     *
+     * @param graph
+     *            Graph to serialize
+     * @return Serialized form of the graph, or null if the graph cannot be
+     *         serialized
+     */
+    private static byte[] serialize(DirectedSparseGraph<Node, Edge> graph)
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes))
+        {
+            oos.writeObject(graph);
+        }
+        catch (NotSerializableException e)
+        {
+            LOG.warn("Distilled graph is not serializable (" + e.getMessage()
+                    + "), each execution will distill the quality model");
+            return null;
+        }
+        catch (IOException e)
+        {
+            throw new IllegalStateException("Could not snapshot the distilled quality model", e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reconstructs a graph from its serialized form.
+     *
+     * @param data
+     *            Serialized form of a graph
+     * @return The reconstructed graph
+     */
+    @SuppressWarnings("unchecked")
+    private static DirectedSparseGraph<Node, Edge> deserialize(byte[] data)
+    {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data)))
+        {
+            return (DirectedSparseGraph<Node, Edge>) ois.readObject();
+        }
+        catch (IOException | ClassNotFoundException e)
+        {
+            throw new IllegalStateException("Could not copy the distilled quality model", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.security.SecureRandom;
+
+/**
+ * Hierarchy of independent random number streams derived from a single master
+ * seed. Each part of the verifier (the project and metrics generators, the
+ * experiment executions, and so on) obtains its own named stream, and every
+ * execution of an experiment obtains its own numbered stream, so an
+ * experiment can be reproduced from its master seed regardless of how its
+ * executions are distributed across workers.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class RandomStreams {
+
+    /**
+     * Seed from which every stream of this hierarchy is derived
+     */
+    private final long seed;
+
+    /**
+     * Constructs a new RandomStreams hierarchy rooted at the given seed
+     * 
+     * @param seed
+     *            Master seed
+     */
+    public RandomStreams(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * @return Seed from which every stream of this hierarchy is derived
+     */
+    public long seed()
+    {
+        return seed;
+    }
+
+    /**
+     * @param name
+     *            Name of the stream
+     * @return A new generator for the named stream
+     */
+    public SplitMixRandom stream(String name)
+    {
+        return new SplitMixRandom(seedOf(name));
+    }
+
+    /**
+     * @param name
+     *            Name of the sub-hierarchy
+     * @return Hierarchy of streams rooted at the named stream
+     */
+    public RandomStreams child(String name)
+    {
+        return new RandomStreams(seedOf(name));
+    }
+
+    /**
+     * @param index
+     *            Index of the stream
+     * @return Seed of the numbered stream, used to reseed a generator in
+     *         place
+     */
+    public long seedOf(long index)
+    {
+        return SplitMixRandom.mix64(seed + (index + 1) * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * @param name
+     *            Name of the stream
+     * @return Seed of the named stream
+     */
+    private long seedOf(String name)
+    {
+        long h = 1125899906842597L;
+        for (int i = 0; i < name.length(); i++)
+            h = 31 * h + name.charAt(i);
+
+        return SplitMixRandom.mix64(seed ^ SplitMixRandom.mix64(h));
+    }
+
+    /**
+     * @return A new master seed drawn from the system entropy source
+     */
+    public static long freshSeed()
+    {
+        return new SecureRandom().nextLong();
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the quality aspect values of earlier executions, keyed by
+ * the findings they linked. When full, the least recently used entry is
+ * evicted. The cache counts its hits, misses, and evictions so they can be
+ * reported with the results of the experiment. A cache is owned by a single
+ * worker and is not thread safe.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+class ResultCache {
+
+    /**
+     * Maximum number of entries held
+     */
+    private final int                                 capacity;
+    /**
+     * Cached values, in least recently used order
+     */
+    private final LinkedHashMap<ScenarioKey, double[]> entries;
+    /**
+     * Number of lookups which found an entry
+     */
+    private long                                      hits;
+    /**
+     * Number of lookups which did not find an entry
+     */
+    private long                                      misses;
+    /**
+     * Number of entries evicted to make room for new ones
+     */
+    private long                                      evictions;
+
+    /**
+     * Constructs a new ResultCache holding at most the given number of entries
+     * 
+     * @param capacity
+     *            Maximum number of entries held
+     */
+    ResultCache(int capacity)
+    {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<ScenarioKey, double[]>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ScenarioKey, double[]> eldest)
+            {
+                if (size() <= ResultCache.this.capacity)
+                    return false;
+
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Looks up the values of an earlier execution which linked the same
+     * findings.
+     * 
+     * @param key
+     *            Findings linked by the current execution
+     * @return The cached values, or null if there are none
+     */
+    double[] get(ScenarioKey key)
+    {
+        double[] values = entries.get(key);
+        if (values == null)
+            misses++;
+        else
+            hits++;
+
+        return values;
+    }
+
+    /**
+     * Caches the values of an execution.
+     * 
+     * @param key
+     *            Findings linked by the execution
+     * @param values
+     *            Values of the quality aspects, which must not be modified
+     *            afterwards
+     */
+    void put(ScenarioKey key, double[] values)
+    {
+        entries.put(key, values);
+    }
+
+    /**
+     * @return Number of lookups which found an entry
+     */
+    long hits()
+    {
+        return hits;
+    }
+
+    /**
+     * @return Number of lookups which did not find an entry
+     */
+    long misses()
+    {
+        return misses;
+    }
+
+    /**
+     * @return Number of entries evicted to make room for new ones
+     */
+    long evictions()
+    {
+        return evictions;
+    }
+}
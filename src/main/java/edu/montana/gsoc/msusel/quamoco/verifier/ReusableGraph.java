@@ -0,0 +1,193 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.math.BigDecimal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Provides the graph used by each execution run on a single thread. When graph
+ * reuse is enabled the same graph is handed out for every execution and is
+ * reset in place between executions, otherwise a new copy is taken from the
+ * template each time.
+ * <p>
+ * A reset restores the values held by the nodes and edges of the graph to
+ * those of the clean copy and clears its findings, see
+ * {@link ModelVerifier#resetGraph(EvaluationPlan)}. As a safeguard against
+ * state the reset does not know of, the first time a graph holding findings
+ * is reset its quality aspect values are compared against the baseline values
+ * of a clean graph. If they differ the reset did not restore the graph and
+ * reuse is disabled for the remaining executions. Resets of a graph to which
+ * no findings were attached are not taken as this check, but with assertions
+ * enabled every reset is checked against the baseline.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+class ReusableGraph {
+
+    /**
+     * Logger associated with this class
+     */
+    private static final Logger             LOG = LoggerFactory.getLogger(ReusableGraph.class);
+    /**
+     * The verifier providing the reset and evaluation steps
+     */
+    private final ModelVerifier             verifier;
+    /**
+     * The verifier configuration
+     */
+    private final VerifierConfiguration     config;
+    /**
+     * Template from which new graphs are copied
+     */
+    private final QualityModelTemplate      template;
+    /**
+     * Quality aspect values of the graph with no findings attached
+     */
+    private final BigDecimal[]              baseline;
+    /**
+     * The graph currently held, null until the first execution
+     */
+    private DirectedSparseGraph<Node, Edge> graph;
+    /**
+     * Evaluation plan compiled for the held graph
+     */
+    private EvaluationPlan                  plan;
+    /**
+     * Boolean flag indicating whether the held graph is reused
+     */
+    private boolean                         reuse;
+    /**
+     * Boolean flag indicating whether a reset of a graph holding findings has
+     * been checked against the baseline
+     */
+    private boolean                         verified;
+
+    /**
+     * Constructs a new ReusableGraph
+     *
+     * @param verifier
+     *            The verifier providing the reset and evaluation steps
+     * @param config
+     *            The verifier configuration
+     * @param template
+     *            Template from which new graphs are copied
+     * @param baseline
+     *            Quality aspect values of the graph with no findings attached
+     */
+    ReusableGraph(ModelVerifier verifier, VerifierConfiguration config, QualityModelTemplate template,
+            BigDecimal[] baseline)
+    {
+        this.verifier = verifier;
+        this.config = config;
+        this.template = template;
+        this.baseline = baseline;
+        this.reuse = config.reuseGraph();
+        this.verified = false;
+    }
+
+    /**
+     * @return Plan of a graph, with no findings attached, for the next
+     *         execution
+     */
+    EvaluationPlan acquire()
+    {
+        if (graph == null || !reuse)
+        {
+            replace();
+            return plan;
+        }
+
+        boolean check = !verified && hasFindings();
+        verifier.resetGraph(plan);
+        assert check || matchesBaseline(verifier.evaluateModel(plan.aspects()))
+                : "Resetting the graph did not restore its baseline values";
+
+        if (check)
+        {
+            verified = true;
+            if (!matchesBaseline(verifier.evaluateModel(plan.aspects())))
+            {
+                LOG.warn("Resetting the graph did not restore its baseline values, graph reuse disabled");
+                reuse = false;
+                replace();
+            }
+        }
+
+        return plan;
+    }
+
+    /**
+     * Replaces the held graph with a new copy from the template, compiling
+     * its evaluation plan.
+     */
+    private void replace()
+    {
+        graph = template.newInstance();
+        plan = new EvaluationPlan(graph, config, baseline);
+    }
+
+    /**
+     * @return true if findings are attached to any FindingNode of the held
+     *         graph
+     */
+    private boolean hasFindings()
+    {
+        for (int f = 0; f < plan.findingCount(); f++)
+        {
+            if (!plan.finding(f).getFindings().isEmpty())
+                return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Compares the given quality aspect values to the baseline values.
+     *
+     * @param values
+     *            Quality aspect values
+     * @return true if every value is numerically equal to its baseline value
+     */
+    private boolean matchesBaseline(BigDecimal[] values)
+    {
+        for (int i = 0; i < values.length; i++)
+        {
+            if (values[i].compareTo(baseline[i]) != 0)
+                return false;
+        }
+
+        return true;
+    }
+}
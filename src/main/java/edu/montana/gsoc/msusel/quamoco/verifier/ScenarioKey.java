@@ -0,0 +1,107 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.util.Arrays;
+
+/**
+ * Canonical form of the findings linked during an execution, used to look up
+ * the results of earlier executions which linked the same findings. Each
+ * linked finding is encoded as its finding index and location index, and the
+ * encoded findings are sorted, so the key does not depend on the order in
+ * which the findings were linked.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+final class ScenarioKey {
+
+    /**
+     * Sorted, encoded, findings
+     */
+    private final long[] links;
+    /**
+     * Hash of the encoded findings
+     */
+    private final int    hash;
+
+    /**
+     * Constructs a new ScenarioKey from the given encoded findings
+     * 
+     * @param links
+     *            Encoded findings, in any order
+     * @param count
+     *            Number of encoded findings to use
+     */
+    ScenarioKey(long[] links, int count)
+    {
+        this.links = Arrays.copyOf(links, count);
+        Arrays.sort(this.links);
+
+        long h = count;
+        for (long link : this.links)
+            h = SplitMixRandom.mix64(h ^ link);
+        this.hash = (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Encodes a single linked finding
+     * 
+     * @param finding
+     *            Index of the finding
+     * @param location
+     *            Index of the location the finding was linked to
+     * @return The encoded finding
+     */
+    static long encode(int finding, int location)
+    {
+        return ((long) finding << 32) | (location & 0xFFFFFFFFL);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof ScenarioKey))
+            return false;
+
+        ScenarioKey other = (ScenarioKey) obj;
+        return hash == other.hash && Arrays.equals(links, other.links);
+    }
+}
@@ -0,0 +1,222 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * Splits the executions of an experiment into shards, each run by a worker
+ * JVM launched on the local host. Every worker is started from the same class
+ * path with the same configuration and master seed, runs the range of
+ * executions of its shard, and writes its {@link PartialResults} to a file in
+ * the shard directory. Each worker also writes its console output to a log
+ * file, and its report output to an output file, next to its partial results.
+ * <p>
+ * The memory and garbage collector options of the coordinator JVM are passed
+ * on to the workers, so each worker is given the same heap as the
+ * coordinator.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+class ShardCoordinator {
+
+    /**
+     * Logger associated with this class
+     */
+    private static final Logger         LOG = LoggerFactory.getLogger(ShardCoordinator.class);
+    /**
+     * The verifier configuration controlling the experiment
+     */
+    private final VerifierConfiguration config;
+    /**
+     * Path of the configuration file, read by every worker
+     */
+    private final String                configFile;
+    /**
+     * File name of the quality model, null if the model is selected by the
+     * configuration
+     */
+    private final String                qualityModel;
+    /**
+     * Directory receiving the partial results, logs, and output of the
+     * workers
+     */
+    private final Path                  directory;
+
+    /**
+     * Constructs a new ShardCoordinator
+     * 
+     * @param config
+     *            The verifier configuration controlling the experiment
+     * @param configFile
+     *            Path of the configuration file, read by every worker
+     * @param qualityModel
+     *            File name of the quality model, can be null
+     * @param directory
+     *            Directory receiving the partial results, logs, and output of
+     *            the workers
+     */
+    ShardCoordinator(VerifierConfiguration config, String configFile, String qualityModel, Path directory)
+    {
+        this.config = config;
+        this.configFile = configFile;
+        this.qualityModel = qualityModel;
+        this.directory = directory;
+    }
+
+    /**
+     * @return Master seed shared by every shard, taken from the configuration
+     *         or freshly drawn
+     */
+    long selectSeed()
+    {
+        return config.seed() != 0 ? config.seed() : RandomStreams.freshSeed();
+    }
+
+    /**
+     * Runs the experiment on the given number of worker JVMs, waiting until
+     * every worker has exited.
+     * 
+     * @param shards
+     *            Number of shards, each run by its own worker
+     * @param seed
+     *            Master seed shared by every shard
+     * @return The partial results files of the shards
+     * @throws IOException
+     *             If a worker could not be started or did not complete its
+     *             shard
+     */
+    List<Path> run(int shards, long seed) throws IOException
+    {
+        if (config.adaptiveStopping())
+            LOG.warn("Adaptive stopping is not supported across shards, running " + config.numExecutions()
+                    + " executions");
+
+        Files.createDirectories(directory);
+        LOG.info("Running " + shards + " shards with master seed " + seed + " in " + directory);
+
+        List<Process> workers = Lists.newArrayList();
+        List<Path> partials = Lists.newArrayList();
+        try
+        {
+            for (int i = 0; i < shards; i++)
+            {
+                Path partial = directory.resolve("shard-" + i + ".json");
+                Files.deleteIfExists(partial);
+                partials.add(partial);
+
+                ProcessBuilder builder = new ProcessBuilder(command(i, shards, seed, partial));
+                builder.redirectErrorStream(true);
+                builder.redirectOutput(directory.resolve("shard-" + i + ".log").toFile());
+                workers.add(builder.start());
+            }
+
+            List<String> failures = Lists.newArrayList();
+            for (int i = 0; i < shards; i++)
+            {
+                int exit = workers.get(i).waitFor();
+                if (exit != 0 || !Files.isRegularFile(partials.get(i)))
+                    failures.add("shard " + i + " (exit code " + exit + ", see "
+                            + directory.resolve("shard-" + i + ".log") + ")");
+            }
+
+            if (!failures.isEmpty())
+                throw new IOException("Shard workers did not complete: " + String.join(", ", failures));
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the shard workers", e);
+        }
+        finally
+        {
+            for (Process worker : workers)
+            {
+                if (worker.isAlive())
+                    worker.destroyForcibly();
+            }
+        }
+
+        return partials;
+    }
+
+    /**
+     * Builds the command line starting the worker of a shard.
+     * 
+     * @param shard
+     *            Index of the shard
+     * @param shards
+     *            Number of shards
+     * @param seed
+     *            Master seed shared by every shard
+     * @param partial
+     *            File receiving the partial results of the shard
+     * @return The command line
+     */
+    private List<String> command(int shard, int shards, long seed, Path partial)
+    {
+        List<String> command = Lists.newArrayList();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments())
+        {
+            if (arg.startsWith("-Xm") || arg.startsWith("-Xss") || arg.startsWith("-XX:"))
+                command.add(arg);
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(QMVerifyCLI.class.getName());
+        command.add("-c");
+        command.add(configFile);
+        command.add("-o");
+        command.add(directory.resolve("shard-" + shard + ".out").toString());
+        if (qualityModel != null)
+        {
+            command.add("-q");
+            command.add(qualityModel);
+        }
+        command.add("--shard");
+        command.add(shard + "/" + shards);
+        command.add("--seed");
+        command.add(Long.toString(seed));
+        command.add("--partial");
+        command.add(partial.toString());
+
+        return command;
+    }
+}
@@ -25,8 +25,8 @@
  */
 package edu.montana.gsoc.msusel.quamoco.verifier;
 
-import java.security.SecureRandom;
 import java.util.List;
+import java.util.Random;
 
 import org.apache.commons.math3.distribution.TriangularDistribution;
 
@@ -57,6 +57,32 @@ public class SimpleProjectGenerator extends ProjectGenerator {
         super(config);
     }
 
+    /**
+     * Constructs a new SimpleProjectGenerator using the provided verifier
+     * configuration and random number generator.
+     * 
+     * @param config
+     *            The Verifier Configuration
+     * @param rand
+     *            Random number generator driving the generator
+     */
+    public SimpleProjectGenerator(VerifierConfiguration config, Random rand)
+    {
+        super(config, rand);
+    }
+
+    /**
+     * Constructs a new SimpleProjectGenerator for the given verification
+     * context.
+     * 
+     * @param context
+     *            Context of the verification the tree is generated for
+     */
+    public SimpleProjectGenerator(VerificationContext context)
+    {
+        super(context);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -70,7 +96,7 @@ public class SimpleProjectGenerator extends ProjectGenerator {
         {
 
             TriangularDistribution dist = new TriangularDistribution(
-                    1, config.maxFilesPerProject() / 2 + 1, config.maxFilesPerProject());
+                    rng, 1, config.maxFilesPerProject() / 2 + 1, config.maxFilesPerProject());
             int numFiles = (int) dist.sample();
             for (int i = 0; i < numFiles; i++)
             {
@@ -82,7 +108,7 @@ public class SimpleProjectGenerator extends ProjectGenerator {
                     continue;
                 }
 
-                TriangularDistribution sizeDist = new TriangularDistribution(300, 700, 3000);
+                TriangularDistribution sizeDist = new TriangularDistribution(rng, 300, 700, 3000);
                 final int length = (int) sizeDist.sample();
 
                 FileNode file = FileNode.builder(fullPath).length(length).create();
@@ -90,7 +116,7 @@ public class SimpleProjectGenerator extends ProjectGenerator {
 
                 int lastEnd = 1;
                 TriangularDistribution ncDist = new TriangularDistribution(
-                        1, config.maxTypesPerFile() / 2 + 1, config.maxTypesPerFile());
+                        rng, 1, config.maxTypesPerFile() / 2 + 1, config.maxTypesPerFile());
                 int numClasses = (int) ncDist.sample();
                 for (int j = 0; j < numClasses; j++)
                 {
@@ -107,7 +133,7 @@ public class SimpleProjectGenerator extends ProjectGenerator {
                     TypeNode clazz = TypeNode.builder(qIdentifier, identifier).range(start, end).create();
 
                     TriangularDistribution nfDist = new TriangularDistribution(
-                            1, config.maxFieldsPerType() / 2 + 1, config.maxFieldsPerType());
+                            rng, 1, config.maxFieldsPerType() / 2 + 1, config.maxFieldsPerType());
                     int lastLine = start;
                     int numFields = (int) nfDist.sample();
                     for (int k = 0; k < numFields; k++)
@@ -123,17 +149,16 @@ public class SimpleProjectGenerator extends ProjectGenerator {
                     }
 
                     TriangularDistribution nmDist = new TriangularDistribution(
-                            1, config.maxMethodsPerType() / 2 + 1, config.maxMethodsPerType());
+                            rng, 1, config.maxMethodsPerType() / 2 + 1, config.maxMethodsPerType());
                     int numMethods = (int) nmDist.sample();
                     for (int l = 0; l < numMethods || lastLine + 1 < end; l++)
                     {
-                        SecureRandom rand = new SecureRandom();
                         String name = generateRandomMethodName();
                         boolean constructor = false;
                         if (Double.compare(rand.nextDouble(), 0.10) < 0)
                             constructor = true;
 
-                        TriangularDistribution sDist = new TriangularDistribution(1, 5, 25);
+                        TriangularDistribution sDist = new TriangularDistribution(rng, 1, 5, 25);
                         int size = (int) sDist.sample();
 
                         int s = lastLine + 1;
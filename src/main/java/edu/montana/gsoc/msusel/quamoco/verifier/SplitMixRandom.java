@@ -0,0 +1,185 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.util.Random;
+
+/**
+ * Fast, splittable, pseudo random number generator based on the SplitMix64
+ * algorithm. The generator extends {@link Random} so it can be used wherever
+ * the generators and simulation steps expect one, but unlike {@link Random}
+ * it is not synchronized and must not be shared between threads. Independent
+ * generators for other threads are obtained through {@link #split()}.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class SplitMixRandom extends Random {
+
+    /**
+     * Serial version UID
+     */
+    private static final long serialVersionUID = 1L;
+    /**
+     * Odd increment of the Weyl sequence of the default stream
+     */
+    private static final long GOLDEN_GAMMA     = 0x9E3779B97F4A7C15L;
+    /**
+     * Current state of the generator
+     */
+    private long              state;
+    /**
+     * Odd increment applied to the state on each step
+     */
+    private long              gamma;
+
+    /**
+     * Constructs a new SplitMixRandom from the given seed
+     * 
+     * @param seed
+     *            Initial seed
+     */
+    public SplitMixRandom(long seed)
+    {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Constructs a new SplitMixRandom with the given state and increment
+     * 
+     * @param state
+     *            Initial state
+     * @param gamma
+     *            Odd increment applied to the state on each step
+     */
+    private SplitMixRandom(long state, long gamma)
+    {
+        super(0);
+        this.state = state;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Reseeds this generator, restarting the default stream from the given
+     * seed.
+     * 
+     * @param seed
+     *            New seed
+     */
+    @Override
+    public void setSeed(long seed)
+    {
+        this.state = seed;
+        this.gamma = GOLDEN_GAMMA;
+    }
+
+    /**
+     * Constructs a new generator whose stream is statistically independent of
+     * the stream of this generator, advancing this generator.
+     * 
+     * @return The new generator
+     */
+    public SplitMixRandom split()
+    {
+        return new SplitMixRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long nextLong()
+    {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int nextInt()
+    {
+        return (int) (mix64(nextSeed()) >>> 32);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double nextDouble()
+    {
+        return (mix64(nextSeed()) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected int next(int bits)
+    {
+        return (int) (mix64(nextSeed()) >>> (64 - bits));
+    }
+
+    /**
+     * Mixes the bits of the given value, the finalizer of the SplitMix64
+     * algorithm.
+     * 
+     * @param z
+     *            Value to mix
+     * @return Mixed value
+     */
+    static long mix64(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * @return The next state of the generator
+     */
+    private long nextSeed()
+    {
+        return state += gamma;
+    }
+
+    /**
+     * Derives an odd increment, with enough bit transitions, for a split
+     * generator.
+     * 
+     * @param z
+     *            Value from which the increment is derived
+     * @return The increment
+     */
+    private static long mixGamma(long z)
+    {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import edu.montana.gsoc.msusel.CodeTree;
+import edu.montana.gsoc.msusel.metrics.Register;
+import edu.montana.gsoc.msusel.quamoco.processor.MetricsContext;
+import edu.montana.gsoc.msusel.quamoco.processor.extents.Extent;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * State of a single verification: its configuration, random number streams,
+ * generated code tree, and the index of its locations. Each verification run by a
+ * {@link ModelVerifier} has its own context, but the evaluation of
+ * verifications in one process is serialized.
+ * <p>
+ * The extent registry and metrics context are singletons of the quamoco
+ * library, which its graph nodes read while computing their values. They are
+ * bound to the code tree of a context between {@link #enter()} and
+ * {@link #close()}, under a single lock shared by every context of the JVM,
+ * and hold the metrics of one code tree at a time. The lock itself is held
+ * only while the singletons are swapped and the bindings counted, so the
+ * workers of a verification may enter contexts of its code tree at once, but
+ * a context of another code tree, which is any other verification as each
+ * generates its own tree, waits until the last context bound to the
+ * singletons is closed. Generating the code tree and its metrics, and linting
+ * the quality model, use no singletons and need not enter the context, so
+ * only they overlap with another verification.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class VerificationContext implements AutoCloseable {
+
+    /**
+     * Lock guarding the singletons of the quamoco library
+     */
+    private static final ReentrantLock  LIBRARY_LOCK = new ReentrantLock();
+    /**
+     * Condition signalled when the singletons are no longer bound to any
+     * context
+     */
+    private static final Condition      RELEASED     = LIBRARY_LOCK.newCondition();
+    /**
+     * Boolean flag indicating whether the metrics have been registered with
+     * the library
+     */
+    private static boolean              registered   = false;
+    /**
+     * Code tree the singletons are bound to, null when no context is entered
+     */
+    private static CodeTree             boundTree    = null;
+    /**
+     * Number of contexts currently entered
+     */
+    private static int                  bindings     = 0;
+    /**
+     * The verifier configuration
+     */
+    private final VerifierConfiguration config;
+    /**
+     * Random number streams of the verification
+     */
+    private final RandomStreams         streams;
+    /**
+     * Code tree generated for the verification, null until generated
+     */
+    private CodeTree                    tree;
+    /**
+     * Index of the locations of the code tree, null until first requested
+     */
+    private LocationIndex               locations;
+    /**
+     * Boolean flag indicating whether this context is entered
+     */
+    private boolean                     entered;
+
+    /**
+     * Constructs a new VerificationContext
+     *
+     * @param config
+     *            The verifier configuration
+     * @param streams
+     *            Random number streams of the verification
+     */
+    public VerificationContext(VerifierConfiguration config, RandomStreams streams)
+    {
+        this.config = config;
+        this.streams = streams;
+    }
+
+    /**
+     * Binds the singletons of the quamoco library to the code tree of this
+     * context, waiting until no context of another code tree is bound to
+     * them. When the singletons are not bound yet, the extent registry is
+     * cleared and the metrics context is replaced by one holding the metrics
+     * of the code tree. Entering a context which is already entered has no
+     * effect.
+     *
+     * @return This context, to be closed once the library is no longer used
+     * @throws IllegalStateException
+     *             If no code tree has been generated
+     */
+    public VerificationContext enter()
+    {
+        if (tree == null)
+            throw new IllegalStateException("The code tree must be generated before entering the context");
+
+        if (entered)
+            return this;
+
+        LIBRARY_LOCK.lock();
+        try
+        {
+            while (bindings > 0 && boundTree != tree)
+                RELEASED.awaitUninterruptibly();
+
+            if (!registered)
+            {
+                Register.register();
+                registered = true;
+            }
+
+            if (bindings == 0)
+            {
+                Extent.getInstance().clearExtents();
+                MetricsContext.getCleanInstance().merge(tree);
+                boundTree = tree;
+            }
+            bindings++;
+            entered = true;
+        }
+        finally
+        {
+            LIBRARY_LOCK.unlock();
+        }
+
+        return this;
+    }
+
+    /**
+     * Releases the binding of this context, freeing the singletons of the
+     * quamoco library for contexts of other code trees once no context of
+     * its code tree remains entered.
+     */
+    @Override
+    public void close()
+    {
+        if (!entered)
+            return;
+
+        LIBRARY_LOCK.lock();
+        try
+        {
+            entered = false;
+            bindings--;
+            if (bindings == 0)
+            {
+                boundTree = null;
+                RELEASED.signalAll();
+            }
+        }
+        finally
+        {
+            LIBRARY_LOCK.unlock();
+        }
+    }
+
+    /**
+     * @return The verifier configuration
+     */
+    public VerifierConfiguration config()
+    {
+        return config;
+    }
+
+    /**
+     * @return Random number streams of the verification
+     */
+    public RandomStreams streams()
+    {
+        return streams;
+    }
+
+    /**
+     * @return Code tree generated for the verification, null until generated
+     */
+    public CodeTree tree()
+    {
+        return tree;
+    }
+
+    /**
+     * @param tree
+     *            Code tree generated for the verification
+     */
+    public void setTree(CodeTree tree)
+    {
+        this.tree = tree;
+        this.locations = null;
+    }
+
+    /**
+     * @return Index of the locations of the code tree
+     */
+    public LocationIndex locations()
+    {
+        if (locations == null)
+            locations = new LocationIndex(tree);
+
+        return locations;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.config;
+
+/**
+ * Enumeration of the schemes used to sample the random decisions of each
+ * execution: the findings selected, the number of findings generated for
+ * each, whether each is linked, and the location it is linked to. Every
+ * scheme other than plain sampling correlates the executions of a block so
+ * that the mean of the block varies less than that of as many independent
+ * executions, while each execution on its own still follows the same
+ * distribution as under plain sampling.
+ * 
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public enum SamplingScheme {
+    /**
+     * Every execution draws its decisions independently
+     */
+    PLAIN,
+    /**
+     * Executions are run in pairs, the second taking the complement of every
+     * uniform draw of the first
+     */
+    ANTITHETIC,
+    /**
+     * The number of findings generated for each finding is stratified across
+     * the executions of a block, so every count occurs equally often
+     */
+    STRATIFIED,
+    /**
+     * Every decision is stratified across the executions of a block, each
+     * stratum of each decision being sampled exactly once
+     */
+    LATIN_HYPERCUBE,
+    /**
+     * The decisions of the executions of a block follow a randomly shifted
+     * Sobol sequence
+     */
+    SOBOL;
+
+    /**
+     * Parses the given name of a scheme, ignoring case.
+     * 
+     * @param name
+     *            Name of the scheme
+     * @return The matching scheme
+     * @throws IllegalArgumentException
+     *             If the name does not match any scheme
+     */
+    public static SamplingScheme fromString(String name)
+    {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -61,87 +61,199 @@ public class VerifierConfiguration {
      * Boolean flag indicating whether or not to use a multiproject generator
      */
     @Expose
-    private boolean      multiProject;
+    private boolean        multiProject;
     /**
      * Integer representing the maximum depth of projects in a multiproject
      * simulation
      */
     @Expose
-    private int          maxSubProjectDepth;
+    private int            maxSubProjectDepth;
     /**
      * Integer representing the maximum number of projects within a given level
      * of a multiproject simulation
      */
     @Expose
-    private int          maxProjectsPerPly;
+    private int            maxProjectsPerPly;
     /**
      * Integer representing the maximum number of files to be generated for a
      * project
      */
     @Expose
-    private int          maxFilesPerProject;
+    private int            maxFilesPerProject;
     /**
      * Integer representing the maximum number of types to be generated for a
      * file
      */
     @Expose
-    private int          maxTypesPerFile;
+    private int            maxTypesPerFile;
     /**
      * Integer representing the maximum number of methods to be generated for a
      * type
      */
     @Expose
-    private int          maxMethodsPerType;
+    private int            maxMethodsPerType;
     /**
      * Integer representing the maximum number of fields to be generated for a
      * type
      */
     @Expose
-    private int          maxFieldsPerType;
+    private int            maxFieldsPerType;
     /**
      * Integer representing the maximum number of findings to be activated when
      * using the ANY constant in the findingsVerified field
      */
     @Expose
-    private int          maxFindingsActivatedForAny;
+    private int            maxFindingsActivatedForAny;
     /**
      * Integer representing the maximum number of findings to be assigned to an
      * item of the codetree during a simulation
      */
     @Expose
-    private int          maxFindingsPerItem;
+    private int            maxFindingsPerItem;
     /**
      * Double representing the probability (from a uniform distribution) of a
      * finding being assigned
      */
     @Expose
-    private double       findingProbability;
+    private double         findingProbability;
     /**
      * Number of simulation executions, runs, for the experiment
      */
     @Expose
-    private int          numExecutions;
+    private int            numExecutions;
     /**
      * List of quality aspects to take into consideration
      */
     @Expose
-    private List<String> qualityAspects;
+    private List<String>   qualityAspects;
     /**
      * List of the findings to verify, if either the ALL or ANY constant is
      * used, the rest will be disregarded, and ANY supercedes ALL
      */
     @Expose
-    private List<String> findingsToVerify;
+    private List<String>   findingsToVerify;
     /**
      * The extension for the files used in the codetree during the simulation.
      */
     @Expose
-    private String       fileExtension;
+    private String         fileExtension;
     /**
      * Array of file names/paths from which a quality model will be read.
      */
     @Expose
-    private String[]     qmFiles;
+    private String[]       qmFiles;
+    /**
+     * Number of worker threads used to run the simulation executions, a value
+     * of 1 runs the executions sequentially
+     */
+    @Expose
+    private int            numWorkers;
+    /**
+     * Boolean flag indicating whether each worker reuses a single graph,
+     * clearing its findings between executions, rather than taking a new copy
+     * of the graph for every execution
+     */
+    @Expose
+    private boolean        reuseGraph;
+    /**
+     * Target half-width of the confidence interval of the mean of each
+     * quality aspect, 0 to disable
+     */
+    @Expose
+    private double         targetHalfWidth;
+    /**
+     * Target half-width of the confidence interval of the mean of each
+     * quality aspect, relative to the mean, 0 to disable
+     */
+    @Expose
+    private double         targetRelativeError;
+    /**
+     * Minimum number of executions run when stopping adaptively
+     */
+    @Expose
+    private int            minExecutions;
+    /**
+     * Maximum number of executions run when stopping adaptively, 0 to use
+     * numExecutions
+     */
+    @Expose
+    private int            maxExecutions;
+    /**
+     * Number of executions run between convergence checks when stopping
+     * adaptively
+     */
+    @Expose
+    private int            convergenceInterval;
+    /**
+     * Number of executions run between checkpoints of the experiment
+     */
+    @Expose
+    private int            checkpointInterval;
+    /**
+     * Master seed of the random number streams, 0 to draw a fresh seed for
+     * each run
+     */
+    @Expose
+    private long           seed;
+    /**
+     * Boolean flag indicating whether quality aspects which are not downstream
+     * of any linked finding take their baseline value instead of being
+     * recomputed
+     */
+    @Expose
+    private boolean        incrementalEvaluation;
+    /**
+     * Number of evaluated executions, per worker, between checks of the
+     * quality aspects skipped by incremental evaluation
+     */
+    @Expose
+    private int            incrementalCheckInterval;
+    /**
+     * Maximum number of executions whose values are cached, per worker, 0 to
+     * disable the result cache
+     */
+    @Expose
+    private int            resultCacheSize;
+    /**
+     * Boolean flag indicating whether the distilled graph is pruned to the
+     * nodes on a path to one of the selected quality aspects
+     */
+    @Expose
+    private boolean        pruneToAspects;
+    /**
+     * Boolean flag indicating whether distilled graphs are cached on disk
+     */
+    @Expose
+    private boolean        modelCache;
+    /**
+     * Directory holding the cached distilled graphs, empty to use the system
+     * temporary directory
+     */
+    @Expose
+    private String         modelCacheDir;
+    /**
+     * Boolean flag indicating whether the quality model is checked for
+     * defects before the experiment
+     */
+    @Expose
+    private boolean        lint;
+    /**
+     * Boolean flag indicating whether the experiment is skipped when the
+     * quality model has defects
+     */
+    @Expose
+    private boolean        abortOnLintIssues;
+    /**
+     * Scheme used to sample the random decisions of each execution
+     */
+    @Expose
+    private SamplingScheme samplingScheme;
+    /**
+     * Number of independent blocks the executions are divided into when
+     * sampling with a scheme which stratifies the executions of a block
+     */
+    @Expose
+    private int            samplingReplicates;
 
     /**
      * Constructs a new default VerifierConfiguration;
@@ -159,6 +271,25 @@ public class VerifierConfiguration {
         findingProbability = 0.05;
         numExecutions = 1000;
         maxFindingsActivatedForAny = 25;
+        numWorkers = 1;
+        reuseGraph = true;
+        targetHalfWidth = 0;
+        targetRelativeError = 0;
+        minExecutions = 30;
+        maxExecutions = 0;
+        convergenceInterval = 50;
+        checkpointInterval = 100;
+        seed = 0;
+        incrementalEvaluation = true;
+        incrementalCheckInterval = 100;
+        resultCacheSize = 0;
+        pruneToAspects = false;
+        modelCache = true;
+        modelCacheDir = "";
+        lint = true;
+        abortOnLintIssues = false;
+        samplingScheme = SamplingScheme.PLAIN;
+        samplingReplicates = 10;
 
         qualityAspects = Lists.newArrayList();
         findingsToVerify = Lists.newArrayList();
@@ -251,6 +382,168 @@ public class VerifierConfiguration {
         return numExecutions;
     }
 
+    /**
+     * @return value of the numWorkers field
+     */
+    public int numWorkers()
+    {
+        return numWorkers;
+    }
+
+    /**
+     * @return value of the reuseGraph flag
+     */
+    public boolean reuseGraph()
+    {
+        return reuseGraph;
+    }
+
+    /**
+     * @return value of the targetHalfWidth field
+     */
+    public double targetHalfWidth()
+    {
+        return targetHalfWidth;
+    }
+
+    /**
+     * @return value of the targetRelativeError field
+     */
+    public double targetRelativeError()
+    {
+        return targetRelativeError;
+    }
+
+    /**
+     * @return true if the experiment stops once every quality aspect has
+     *         converged, false if it runs a fixed number of executions
+     */
+    public boolean adaptiveStopping()
+    {
+        return targetHalfWidth > 0 || targetRelativeError > 0;
+    }
+
+    /**
+     * @return value of the minExecutions field
+     */
+    public int minExecutions()
+    {
+        return minExecutions;
+    }
+
+    /**
+     * @return value of the maxExecutions field, or of the numExecutions field
+     *         if maxExecutions is not set
+     */
+    public int maxExecutions()
+    {
+        return maxExecutions > 0 ? maxExecutions : numExecutions;
+    }
+
+    /**
+     * @return value of the convergenceInterval field
+     */
+    public int convergenceInterval()
+    {
+        return convergenceInterval;
+    }
+
+    /**
+     * @return value of the checkpointInterval field
+     */
+    public int checkpointInterval()
+    {
+        return checkpointInterval;
+    }
+
+    /**
+     * @return value of the seed field
+     */
+    public long seed()
+    {
+        return seed;
+    }
+
+    /**
+     * @return value of the incrementalEvaluation field
+     */
+    public boolean incrementalEvaluation()
+    {
+        return incrementalEvaluation;
+    }
+
+    /**
+     * @return value of the incrementalCheckInterval field
+     */
+    public int incrementalCheckInterval()
+    {
+        return incrementalCheckInterval;
+    }
+
+    /**
+     * @return value of the resultCacheSize field
+     */
+    public int resultCacheSize()
+    {
+        return resultCacheSize;
+    }
+
+    /**
+     * @return value of the pruneToAspects field
+     */
+    public boolean pruneToAspects()
+    {
+        return pruneToAspects;
+    }
+
+    /**
+     * @return value of the modelCache field
+     */
+    public boolean modelCache()
+    {
+        return modelCache;
+    }
+
+    /**
+     * @return value of the modelCacheDir field
+     */
+    public String modelCacheDir()
+    {
+        return modelCacheDir;
+    }
+
+    /**
+     * @return value of the lint field
+     */
+    public boolean lint()
+    {
+        return lint;
+    }
+
+    /**
+     * @return value of the abortOnLintIssues field
+     */
+    public boolean abortOnLintIssues()
+    {
+        return abortOnLintIssues;
+    }
+
+    /**
+     * @return value of the samplingScheme field
+     */
+    public SamplingScheme samplingScheme()
+    {
+        return samplingScheme;
+    }
+
+    /**
+     * @return value of the samplingReplicates field
+     */
+    public int samplingReplicates()
+    {
+        return samplingReplicates;
+    }
+
     /**
      * @return value of the fileExtension field
      */
@@ -412,6 +705,213 @@ public class VerifierConfiguration {
         this.numExecutions = numExecutions;
     }
 
+    /**
+     * @param numWorkers
+     *            the numWorkers to set
+     */
+    private void setNumWorkers(int numWorkers)
+    {
+        if (numWorkers <= 0)
+            return;
+
+        this.numWorkers = numWorkers;
+    }
+
+    /**
+     * @param reuseGraph
+     *            the reuseGraph to set
+     */
+    private void setReuseGraph(boolean reuseGraph)
+    {
+        this.reuseGraph = reuseGraph;
+    }
+
+    /**
+     * @param targetHalfWidth
+     *            the targetHalfWidth to set
+     */
+    private void setTargetHalfWidth(double targetHalfWidth)
+    {
+        if (targetHalfWidth < 0)
+            return;
+
+        this.targetHalfWidth = targetHalfWidth;
+    }
+
+    /**
+     * @param targetRelativeError
+     *            the targetRelativeError to set
+     */
+    private void setTargetRelativeError(double targetRelativeError)
+    {
+        if (targetRelativeError < 0)
+            return;
+
+        this.targetRelativeError = targetRelativeError;
+    }
+
+    /**
+     * @param minExecutions
+     *            the minExecutions to set
+     */
+    private void setMinExecutions(int minExecutions)
+    {
+        if (minExecutions < 2)
+            return;
+
+        this.minExecutions = minExecutions;
+    }
+
+    /**
+     * @param maxExecutions
+     *            the maxExecutions to set
+     */
+    private void setMaxExecutions(int maxExecutions)
+    {
+        if (maxExecutions < 0)
+            return;
+
+        this.maxExecutions = maxExecutions;
+    }
+
+    /**
+     * @param convergenceInterval
+     *            the convergenceInterval to set
+     */
+    private void setConvergenceInterval(int convergenceInterval)
+    {
+        if (convergenceInterval <= 0)
+            return;
+
+        this.convergenceInterval = convergenceInterval;
+    }
+
+    /**
+     * @param checkpointInterval
+     *            the checkpointInterval to set
+     */
+    private void setCheckpointInterval(int checkpointInterval)
+    {
+        if (checkpointInterval <= 0)
+            return;
+
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * @param seed
+     *            the seed to set
+     */
+    private void setSeed(long seed)
+    {
+        this.seed = seed;
+    }
+
+    /**
+     * @param incrementalEvaluation
+     *            the incrementalEvaluation to set
+     */
+    private void setIncrementalEvaluation(boolean incrementalEvaluation)
+    {
+        this.incrementalEvaluation = incrementalEvaluation;
+    }
+
+    /**
+     * @param incrementalCheckInterval
+     *            the incrementalCheckInterval to set
+     */
+    private void setIncrementalCheckInterval(int incrementalCheckInterval)
+    {
+        if (incrementalCheckInterval <= 0)
+            return;
+
+        this.incrementalCheckInterval = incrementalCheckInterval;
+    }
+
+    /**
+     * @param resultCacheSize
+     *            the resultCacheSize to set
+     */
+    private void setResultCacheSize(int resultCacheSize)
+    {
+        if (resultCacheSize < 0)
+            return;
+
+        this.resultCacheSize = resultCacheSize;
+    }
+
+    /**
+     * @param pruneToAspects
+     *            the pruneToAspects to set
+     */
+    private void setPruneToAspects(boolean pruneToAspects)
+    {
+        this.pruneToAspects = pruneToAspects;
+    }
+
+    /**
+     * @param modelCache
+     *            the modelCache to set
+     */
+    private void setModelCache(boolean modelCache)
+    {
+        this.modelCache = modelCache;
+    }
+
+    /**
+     * @param modelCacheDir
+     *            the modelCacheDir to set
+     */
+    private void setModelCacheDir(String modelCacheDir)
+    {
+        if (modelCacheDir == null)
+            return;
+
+        this.modelCacheDir = modelCacheDir;
+    }
+
+    /**
+     * @param lint
+     *            the lint to set
+     */
+    private void setLint(boolean lint)
+    {
+        this.lint = lint;
+    }
+
+    /**
+     * @param abortOnLintIssues
+     *            the abortOnLintIssues to set
+     */
+    private void setAbortOnLintIssues(boolean abortOnLintIssues)
+    {
+        this.abortOnLintIssues = abortOnLintIssues;
+    }
+
+    /**
+     * @param samplingScheme
+     *            the samplingScheme to set
+     */
+    private void setSamplingScheme(SamplingScheme samplingScheme)
+    {
+        if (samplingScheme == null)
+            return;
+
+        this.samplingScheme = samplingScheme;
+    }
+
+    /**
+     * @param samplingReplicates
+     *            the samplingReplicates to set
+     */
+    private void setSamplingReplicates(int samplingReplicates)
+    {
+        if (samplingReplicates < 2)
+            return;
+
+        this.samplingReplicates = samplingReplicates;
+    }
+
     /**
      * @param fileExtension
      *            the fileExtension to set
@@ -667,6 +1167,310 @@ public class VerifierConfiguration {
             return this;
         }
 
+        /**
+         * Sets the number of worker threads used to run the executions of the
+         * simulation
+         * 
+         * @param workers
+         *            Number of worker threads
+         * @return this
+         */
+        @NonNull
+        public Builder numWorkers(int workers)
+        {
+            config.setNumWorkers(workers);
+
+            return this;
+        }
+
+        /**
+         * Sets whether a single graph is reused, and reset, across the
+         * executions run by a worker
+         * 
+         * @param reuse
+         *            true to reuse graphs, false to copy a new graph for every
+         *            execution
+         * @return this
+         */
+        @NonNull
+        public Builder reuseGraph(boolean reuse)
+        {
+            config.setReuseGraph(reuse);
+
+            return this;
+        }
+
+        /**
+         * Sets the target half-width of the confidence interval of the mean of
+         * each quality aspect, enabling adaptive stopping
+         * 
+         * @param halfWidth
+         *            Target half-width
+         * @return this
+         */
+        @NonNull
+        public Builder targetHalfWidth(double halfWidth)
+        {
+            config.setTargetHalfWidth(halfWidth);
+
+            return this;
+        }
+
+        /**
+         * Sets the target half-width of the confidence interval of the mean of
+         * each quality aspect, relative to the mean, enabling adaptive
+         * stopping
+         * 
+         * @param error
+         *            Target relative error
+         * @return this
+         */
+        @NonNull
+        public Builder targetRelativeError(double error)
+        {
+            config.setTargetRelativeError(error);
+
+            return this;
+        }
+
+        /**
+         * Sets the minimum number of executions run when stopping adaptively
+         * 
+         * @param exec
+         *            Minimum number of executions
+         * @return this
+         */
+        @NonNull
+        public Builder minExecutions(int exec)
+        {
+            config.setMinExecutions(exec);
+
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of executions run when stopping adaptively
+         * 
+         * @param exec
+         *            Maximum number of executions
+         * @return this
+         */
+        @NonNull
+        public Builder maxExecutions(int exec)
+        {
+            config.setMaxExecutions(exec);
+
+            return this;
+        }
+
+        /**
+         * Sets the number of executions run between convergence checks when
+         * stopping adaptively
+         * 
+         * @param exec
+         *            Number of executions between checks
+         * @return this
+         */
+        @NonNull
+        public Builder convergenceInterval(int exec)
+        {
+            config.setConvergenceInterval(exec);
+
+            return this;
+        }
+
+        /**
+         * Sets the number of executions run between checkpoints of the
+         * experiment
+         * 
+         * @param exec
+         *            Number of executions between checkpoints
+         * @return this
+         */
+        @NonNull
+        public Builder checkpointInterval(int exec)
+        {
+            config.setCheckpointInterval(exec);
+
+            return this;
+        }
+
+        /**
+         * Sets the master seed of the random number streams, making runs
+         * reproducible
+         * 
+         * @param seed
+         *            Master seed, 0 to draw a fresh seed for each run
+         * @return this
+         */
+        @NonNull
+        public Builder seed(long seed)
+        {
+            config.setSeed(seed);
+
+            return this;
+        }
+
+        /**
+         * Sets whether quality aspects which are not downstream of any linked
+         * finding take their baseline value instead of being recomputed
+         * 
+         * @param incremental
+         *            true to evaluate incrementally
+         * @return this
+         */
+        @NonNull
+        public Builder incrementalEvaluation(boolean incremental)
+        {
+            config.setIncrementalEvaluation(incremental);
+
+            return this;
+        }
+
+        /**
+         * Sets the number of evaluated executions, per worker, between checks
+         * of the quality aspects skipped by incremental evaluation
+         * 
+         * @param interval
+         *            Number of evaluated executions between checks
+         * @return this
+         */
+        @NonNull
+        public Builder incrementalCheckInterval(int interval)
+        {
+            config.setIncrementalCheckInterval(interval);
+
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of executions whose values are cached by
+         * each worker
+         * 
+         * @param size
+         *            Maximum number of cached executions, 0 to disable the
+         *            result cache
+         * @return this
+         */
+        @NonNull
+        public Builder resultCacheSize(int size)
+        {
+            config.setResultCacheSize(size);
+
+            return this;
+        }
+
+        /**
+         * Sets whether the distilled graph is pruned to the nodes on a path to
+         * one of the selected quality aspects
+         * 
+         * @param prune
+         *            true to prune the graph
+         * @return this
+         */
+        @NonNull
+        public Builder pruneToAspects(boolean prune)
+        {
+            config.setPruneToAspects(prune);
+
+            return this;
+        }
+
+        /**
+         * Sets whether distilled graphs are cached on disk
+         * 
+         * @param cache
+         *            true to cache distilled graphs
+         * @return this
+         */
+        @NonNull
+        public Builder modelCache(boolean cache)
+        {
+            config.setModelCache(cache);
+
+            return this;
+        }
+
+        /**
+         * Sets the directory holding the cached distilled graphs
+         * 
+         * @param dir
+         *            Cache directory, empty to use the system temporary
+         *            directory
+         * @return this
+         */
+        @NonNull
+        public Builder modelCacheDir(String dir)
+        {
+            config.setModelCacheDir(dir);
+
+            return this;
+        }
+
+        /**
+         * Sets whether the quality model is checked for defects before the
+         * experiment
+         * 
+         * @param lint
+         *            true to check the quality model
+         * @return this
+         */
+        @NonNull
+        public Builder lint(boolean lint)
+        {
+            config.setLint(lint);
+
+            return this;
+        }
+
+        /**
+         * Sets whether the experiment is skipped when the quality model has
+         * defects
+         * 
+         * @param abort
+         *            true to skip the experiment
+         * @return this
+         */
+        @NonNull
+        public Builder abortOnLintIssues(boolean abort)
+        {
+            config.setAbortOnLintIssues(abort);
+
+            return this;
+        }
+
+        /**
+         * Sets the scheme used to sample the random decisions of each
+         * execution
+         * 
+         * @param scheme
+         *            Sampling scheme
+         * @return this
+         */
+        @NonNull
+        public Builder samplingScheme(SamplingScheme scheme)
+        {
+            config.setSamplingScheme(scheme);
+
+            return this;
+        }
+
+        /**
+         * Sets the number of independent blocks the executions are divided
+         * into when sampling with a stratifying scheme
+         * 
+         * @param replicates
+         *            Number of blocks, at least 2
+         * @return this
+         */
+        @NonNull
+        public Builder samplingReplicates(int replicates)
+        {
+            config.setSamplingReplicates(replicates);
+
+            return this;
+        }
+
         /**
          * Sets the file extension of file nodes to be constructed
          * 
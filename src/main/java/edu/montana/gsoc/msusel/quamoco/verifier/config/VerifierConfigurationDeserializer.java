@@ -75,6 +75,108 @@ public class VerifierConfigurationDeserializer implements JsonDeserializer<Verif
                 builder.multiProject();
         }
 
+        if (obj.has("numWorkers"))
+        {
+            builder.numWorkers(obj.get("numWorkers").getAsInt());
+        }
+
+        if (obj.has("reuseGraph"))
+        {
+            builder.reuseGraph(obj.get("reuseGraph").getAsBoolean());
+        }
+
+        if (obj.has("targetHalfWidth"))
+        {
+            builder.targetHalfWidth(obj.get("targetHalfWidth").getAsDouble());
+        }
+
+        if (obj.has("targetRelativeError"))
+        {
+            builder.targetRelativeError(obj.get("targetRelativeError").getAsDouble());
+        }
+
+        if (obj.has("minExecutions"))
+        {
+            builder.minExecutions(obj.get("minExecutions").getAsInt());
+        }
+
+        if (obj.has("maxExecutions"))
+        {
+            builder.maxExecutions(obj.get("maxExecutions").getAsInt());
+        }
+
+        if (obj.has("convergenceInterval"))
+        {
+            builder.convergenceInterval(obj.get("convergenceInterval").getAsInt());
+        }
+
+        if (obj.has("checkpointInterval"))
+        {
+            builder.checkpointInterval(obj.get("checkpointInterval").getAsInt());
+        }
+
+        if (obj.has("seed"))
+        {
+            builder.seed(obj.get("seed").getAsLong());
+        }
+
+        if (obj.has("incrementalEvaluation"))
+        {
+            builder.incrementalEvaluation(obj.get("incrementalEvaluation").getAsBoolean());
+        }
+
+        if (obj.has("incrementalCheckInterval"))
+        {
+            builder.incrementalCheckInterval(obj.get("incrementalCheckInterval").getAsInt());
+        }
+
+        if (obj.has("resultCacheSize"))
+        {
+            builder.resultCacheSize(obj.get("resultCacheSize").getAsInt());
+        }
+
+        if (obj.has("pruneToAspects"))
+        {
+            builder.pruneToAspects(obj.get("pruneToAspects").getAsBoolean());
+        }
+
+        if (obj.has("modelCache"))
+        {
+            builder.modelCache(obj.get("modelCache").getAsBoolean());
+        }
+
+        if (obj.has("modelCacheDir"))
+        {
+            builder.modelCacheDir(obj.get("modelCacheDir").getAsString());
+        }
+
+        if (obj.has("lint"))
+        {
+            builder.lint(obj.get("lint").getAsBoolean());
+        }
+
+        if (obj.has("abortOnLintIssues"))
+        {
+            builder.abortOnLintIssues(obj.get("abortOnLintIssues").getAsBoolean());
+        }
+
+        if (obj.has("samplingScheme"))
+        {
+            try
+            {
+                builder.samplingScheme(SamplingScheme.fromString(obj.get("samplingScheme").getAsString()));
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw new JsonParseException("Unknown samplingScheme: " + obj.get("samplingScheme").getAsString());
+            }
+        }
+
+        if (obj.has("samplingReplicates"))
+        {
+            builder.samplingReplicates(obj.get("samplingReplicates").getAsInt());
+        }
+
         if (obj.has("qmFiles"))
         {
             builder.qmFiles(context.deserialize(obj.get("qmFiles"), String[].class));
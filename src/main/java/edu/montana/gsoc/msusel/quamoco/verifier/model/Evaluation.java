@@ -0,0 +1,124 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * An evaluation of a quality model outline, aggregating the values of the
+ * ranked factors or measures into the value of the evaluated factor.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class Evaluation extends ModelElement {
+
+    /**
+     * Type of the evaluation, such as WeightedSumFactorAggregation
+     */
+    private final String        type;
+    /**
+     * Rankings of the evaluation
+     */
+    private final List<Ranking> rankings;
+    /**
+     * Evaluated factor, null until the reference to it is resolved
+     */
+    private Factor              evaluates;
+
+    /**
+     * Constructs a new Evaluation
+     *
+     * @param module
+     *            Name of the module defining the evaluation
+     * @param xmiId
+     *            XMI id of the evaluation within its module
+     * @param name
+     *            Name of the evaluation
+     * @param type
+     *            Type of the evaluation, without namespace prefix
+     */
+    Evaluation(String module, String xmiId, String name, String type)
+    {
+        super(module, xmiId, name);
+        this.type = type;
+        rankings = Lists.newArrayList();
+    }
+
+    /**
+     * @return Type of the evaluation, such as WeightedSumFactorAggregation
+     */
+    public String type()
+    {
+        return type;
+    }
+
+    /**
+     * @return Rankings of the evaluation
+     */
+    public List<Ranking> rankings()
+    {
+        return Collections.unmodifiableList(rankings);
+    }
+
+    /**
+     * @return Evaluated factor, null if the reference to it could not be
+     *         resolved
+     */
+    public Factor evaluates()
+    {
+        return evaluates;
+    }
+
+    /**
+     * @return true if the evaluation is a weighted sum
+     */
+    public boolean isWeightedSum()
+    {
+        return type != null && type.startsWith("WeightedSum");
+    }
+
+    /**
+     * @param ranking
+     *            Ranking of the evaluation
+     */
+    void addRanking(Ranking ranking)
+    {
+        rankings.add(ranking);
+    }
+
+    /**
+     * @param evaluates
+     *            Evaluated factor
+     */
+    void setEvaluates(Factor evaluates)
+    {
+        this.evaluates = evaluates;
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * A factor of a quality model outline, either a quality aspect or a product
+ * factor, along with the factors it refines and influences.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class Factor extends ModelElement {
+
+    /**
+     * Factors refined by this factor
+     */
+    private final List<Factor>    parents;
+    /**
+     * Influences of this factor on other factors
+     */
+    private final List<Influence> influences;
+
+    /**
+     * Constructs a new Factor
+     *
+     * @param module
+     *            Name of the module defining the factor
+     * @param xmiId
+     *            XMI id of the factor within its module
+     * @param name
+     *            Name of the factor
+     */
+    Factor(String module, String xmiId, String name)
+    {
+        super(module, xmiId, name);
+        parents = Lists.newArrayList();
+        influences = Lists.newArrayList();
+    }
+
+    /**
+     * @return Factors refined by this factor
+     */
+    public List<Factor> parents()
+    {
+        return Collections.unmodifiableList(parents);
+    }
+
+    /**
+     * @return Influences of this factor on other factors
+     */
+    public List<Influence> influences()
+    {
+        return Collections.unmodifiableList(influences);
+    }
+
+    /**
+     * @param parent
+     *            Factor refined by this factor
+     */
+    void addParent(Factor parent)
+    {
+        parents.add(parent);
+    }
+
+    /**
+     * @param influence
+     *            Influence of this factor on another factor
+     */
+    void addInfluence(Influence influence)
+    {
+        influences.add(influence);
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+/**
+ * Influence of a product factor on another factor, typically a quality
+ * aspect. An influence without an explicit effect is positive.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class Influence {
+
+    /**
+     * Enumeration of the effects an influence may have on its target
+     */
+    public enum Effect {
+        /**
+         * The target improves as the influencing factor increases
+         */
+        POSITIVE,
+        /**
+         * The target degrades as the influencing factor increases
+         */
+        NEGATIVE
+    }
+
+    /**
+     * Effect of the influence
+     */
+    private final Effect effect;
+    /**
+     * Influenced factor, null until the reference to it is resolved
+     */
+    private Factor       target;
+
+    /**
+     * Constructs a new Influence
+     *
+     * @param effect
+     *            Effect of the influence
+     */
+    Influence(Effect effect)
+    {
+        this.effect = effect;
+    }
+
+    /**
+     * @return Effect of the influence
+     */
+    public Effect effect()
+    {
+        return effect;
+    }
+
+    /**
+     * @return Influenced factor, null if the reference to it could not be
+     *         resolved
+     */
+    public Factor target()
+    {
+        return target;
+    }
+
+    /**
+     * @param target
+     *            Influenced factor
+     */
+    void setTarget(Factor target)
+    {
+        this.target = target;
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * A measure of a quality model outline, along with the measures it refines and
+ * the factors it measures.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class Measure extends ModelElement {
+
+    /**
+     * Type of the measure, such as FINDINGS or NUMBER, may be null
+     */
+    private final String        type;
+    /**
+     * Measures refined by this measure
+     */
+    private final List<Measure> parents;
+    /**
+     * Factors measured by this measure
+     */
+    private final List<Factor>  measuredFactors;
+
+    /**
+     * Constructs a new Measure
+     *
+     * @param module
+     *            Name of the module defining the measure
+     * @param xmiId
+     *            XMI id of the measure within its module
+     * @param name
+     *            Name of the measure
+     * @param type
+     *            Type of the measure, may be null
+     */
+    Measure(String module, String xmiId, String name, String type)
+    {
+        super(module, xmiId, name);
+        this.type = type;
+        parents = Lists.newArrayList();
+        measuredFactors = Lists.newArrayList();
+    }
+
+    /**
+     * @return Type of the measure, such as FINDINGS or NUMBER, may be null
+     */
+    public String type()
+    {
+        return type;
+    }
+
+    /**
+     * @return Measures refined by this measure
+     */
+    public List<Measure> parents()
+    {
+        return Collections.unmodifiableList(parents);
+    }
+
+    /**
+     * @return Factors measured by this measure
+     */
+    public List<Factor> measuredFactors()
+    {
+        return Collections.unmodifiableList(measuredFactors);
+    }
+
+    /**
+     * @param parent
+     *            Measure refined by this measure
+     */
+    void addParent(Measure parent)
+    {
+        parents.add(parent);
+    }
+
+    /**
+     * @param factor
+     *            Factor measured by this measure
+     */
+    void addMeasuredFactor(Factor factor)
+    {
+        measuredFactors.add(factor);
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+/**
+ * Base class of the elements of a quality model outline. Each element is
+ * identified by the name of the module (.qm file) defining it and its XMI id
+ * within that module, which is the form used by cross module references.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public abstract class ModelElement {
+
+    /**
+     * Name of the module defining the element
+     */
+    private final String module;
+    /**
+     * XMI id of the element within its module
+     */
+    private final String xmiId;
+    /**
+     * Name of the element, may be null
+     */
+    private final String name;
+
+    /**
+     * Constructs a new ModelElement
+     *
+     * @param module
+     *            Name of the module defining the element
+     * @param xmiId
+     *            XMI id of the element within its module
+     * @param name
+     *            Name of the element, may be null
+     */
+    protected ModelElement(String module, String xmiId, String name)
+    {
+        this.module = module;
+        this.xmiId = xmiId;
+        this.name = name;
+    }
+
+    /**
+     * @return Qualified id of the element, in the form module#xmiId
+     */
+    public String id()
+    {
+        return id(module, xmiId);
+    }
+
+    /**
+     * @return Name of the module defining the element
+     */
+    public String module()
+    {
+        return module;
+    }
+
+    /**
+     * @return Name of the element, may be null
+     */
+    public String name()
+    {
+        return name;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return name != null ? name + " (" + id() + ")" : id();
+    }
+
+    /**
+     * @param module
+     *            Name of a module
+     * @param xmiId
+     *            XMI id of an element within the module
+     * @return Qualified id of the element
+     */
+    static String id(String module, String xmiId)
+    {
+        return module + "#" + xmiId;
+    }
+}
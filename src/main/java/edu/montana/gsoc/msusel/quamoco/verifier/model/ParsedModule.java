@@ -0,0 +1,231 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * The elements read from a single module (.qm file) together with the
+ * references they make, which are bound when the module is linked into a
+ * quality model. A module is parsed independently of every other module, so
+ * modules can be parsed concurrently, and once parsed a module can be shared
+ * by every quality model that includes it. Each reference is bound at most
+ * once, so linking a shared module into further quality models leaves its
+ * elements unchanged.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+class ParsedModule {
+
+    /**
+     * Name of the module, as used by references from other modules
+     */
+    private final String                    name;
+    /**
+     * Elements of the module, by qualified id, in the order they were read
+     */
+    private final Map<String, ModelElement> elements;
+    /**
+     * References made by the elements of the module
+     */
+    private final List<DeferredLink>        links;
+
+    /**
+     * Constructs a new, empty, ParsedModule
+     *
+     * @param name
+     *            Name of the module
+     */
+    ParsedModule(String name)
+    {
+        this.name = name;
+        elements = Maps.newLinkedHashMap();
+        links = Lists.newArrayList();
+    }
+
+    /**
+     * @return Name of the module
+     */
+    String name()
+    {
+        return name;
+    }
+
+    /**
+     * @return Elements of the module, by qualified id
+     */
+    Map<String, ModelElement> elements()
+    {
+        return elements;
+    }
+
+    /**
+     * @return References made by the elements of the module
+     */
+    List<DeferredLink> links()
+    {
+        return links;
+    }
+
+    /**
+     * @param element
+     *            Element read from the module
+     */
+    void add(ModelElement element)
+    {
+        elements.put(element.id(), element);
+    }
+
+    /**
+     * Records a reference to be bound when the module is linked.
+     *
+     * @param href
+     *            Reference, either an id within the module or an href of the
+     *            form module#id, null if the reference is absent
+     * @param type
+     *            Type of the referenced element
+     * @param bind
+     *            Action binding the referenced element
+     */
+    <T extends ModelElement> void defer(String href, Class<T> type, Consumer<? super T> bind)
+    {
+        if (href == null || href.isEmpty())
+            return;
+
+        links.add(new DeferredLink(name, href, type, e -> bind.accept(type.cast(e))));
+    }
+
+    /**
+     * A reference made by an element of a module, bound once the referenced
+     * element has been read.
+     *
+     * @author Isaac Griffith
+     * @version 1.1.1
+     */
+    static class DeferredLink {
+
+        /**
+         * Name of the module holding the reference
+         */
+        private final String                        module;
+        /**
+         * The reference as written in the module
+         */
+        private final String                        href;
+        /**
+         * Type of the referenced element
+         */
+        private final Class<? extends ModelElement> type;
+        /**
+         * Action binding the referenced element
+         */
+        private final Consumer<ModelElement>        bind;
+        /**
+         * Boolean flag indicating whether the reference has been bound
+         */
+        private boolean                             bound;
+
+        /**
+         * Constructs a new DeferredLink
+         *
+         * @param module
+         *            Name of the module holding the reference
+         * @param href
+         *            The reference as written in the module
+         * @param type
+         *            Type of the referenced element
+         * @param bind
+         *            Action binding the referenced element
+         */
+        DeferredLink(String module, String href, Class<? extends ModelElement> type, Consumer<ModelElement> bind)
+        {
+            this.module = module;
+            this.href = href;
+            this.type = type;
+            this.bind = bind;
+            this.bound = false;
+        }
+
+        /**
+         * Binds the reference to the referenced element found in the given
+         * elements, unless it is already bound.
+         *
+         * @param elements
+         *            Elements of a quality model, by qualified id
+         * @return true if the reference is bound
+         */
+        boolean bind(Map<String, ModelElement> elements)
+        {
+            if (bound)
+                return true;
+
+            ModelElement target = elements.get(targetId());
+            if (!type.isInstance(target))
+                return false;
+
+            bind.accept(target);
+            bound = true;
+            return true;
+        }
+
+        /**
+         * @return Name of the module holding the referenced element
+         */
+        String targetModule()
+        {
+            int hash = href.indexOf('#');
+            if (hash < 0)
+                return module;
+
+            String target = href.substring(0, hash);
+            return target.substring(target.lastIndexOf('/') + 1);
+        }
+
+        /**
+         * @return Qualified id of the referenced element
+         */
+        String targetId()
+        {
+            int hash = href.indexOf('#');
+            return ModelElement.id(targetModule(), hash < 0 ? href : href.substring(hash + 1));
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString()
+        {
+            return module + ": " + href;
+        }
+    }
+}
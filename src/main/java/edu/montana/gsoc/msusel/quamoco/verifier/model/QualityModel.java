@@ -0,0 +1,153 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+
+/**
+ * Outline of a quality model assembled from one or more modules (.qm files),
+ * holding its factors, measures, and evaluations with every reference between
+ * them resolved. Outlines are produced by {@link QualityModelReader}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class QualityModel {
+
+    /**
+     * Names of the modules of the model, in the order they were read
+     */
+    private final List<String>              modules;
+    /**
+     * Elements of the model, by qualified id, in the order they were read
+     */
+    private final Map<String, ModelElement> elements;
+    /**
+     * References which could not be resolved, as module: href
+     */
+    private final List<String>              unresolved;
+    /**
+     * Evaluations of the model, by the factor they evaluate
+     */
+    private final Map<Factor, Evaluation>   evaluationOf;
+
+    /**
+     * Constructs a new QualityModel
+     *
+     * @param modules
+     *            Names of the modules of the model
+     * @param elements
+     *            Elements of the model, by qualified id
+     * @param unresolved
+     *            References which could not be resolved
+     */
+    QualityModel(List<String> modules, Map<String, ModelElement> elements, List<String> unresolved)
+    {
+        this.modules = Collections.unmodifiableList(modules);
+        this.elements = Collections.unmodifiableMap(elements);
+        this.unresolved = Collections.unmodifiableList(unresolved);
+
+        evaluationOf = Maps.newHashMap();
+        for (Evaluation evaluation : evaluations())
+        {
+            if (evaluation.evaluates() != null)
+                evaluationOf.putIfAbsent(evaluation.evaluates(), evaluation);
+        }
+    }
+
+    /**
+     * @return Names of the modules of the model, in the order they were read
+     */
+    public List<String> modules()
+    {
+        return modules;
+    }
+
+    /**
+     * @param id
+     *            Qualified id of an element, in the form module#xmiId
+     * @return The element, or null if the model has no element with the id
+     */
+    public ModelElement element(String id)
+    {
+        return elements.get(id);
+    }
+
+    /**
+     * @return Factors of the model
+     */
+    public Iterable<Factor> factors()
+    {
+        return Iterables.filter(elements.values(), Factor.class);
+    }
+
+    /**
+     * @return Measures of the model
+     */
+    public Iterable<Measure> measures()
+    {
+        return Iterables.filter(elements.values(), Measure.class);
+    }
+
+    /**
+     * @return Evaluations of the model
+     */
+    public Iterable<Evaluation> evaluations()
+    {
+        return Iterables.filter(elements.values(), Evaluation.class);
+    }
+
+    /**
+     * @param factor
+     *            A factor of the model
+     * @return Evaluation of the factor, null if none is defined
+     */
+    public Evaluation evaluation(Factor factor)
+    {
+        return evaluationOf.get(factor);
+    }
+
+    /**
+     * @return Number of elements of the model
+     */
+    public int size()
+    {
+        return elements.size();
+    }
+
+    /**
+     * @return References which could not be resolved, as module: href
+     */
+    public List<String> unresolved()
+    {
+        return unresolved;
+    }
+}
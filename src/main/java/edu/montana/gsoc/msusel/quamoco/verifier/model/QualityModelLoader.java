@@ -0,0 +1,101 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * Loads quality model outlines from sets of .qm files. The given files are
+ * read in turn, followed by every module they reference which is found in the
+ * directory of one of the files, and the modules are then linked into a
+ * single outline.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class QualityModelLoader {
+
+    /**
+     * Constructs a new QualityModelLoader
+     */
+    public QualityModelLoader()
+    {
+    }
+
+    /**
+     * Loads the quality models in the given files, along with every module
+     * they reference, directly or indirectly, which is found in the directory
+     * of one of the files.
+     *
+     * @param files
+     *            Quality model files
+     * @return Outline of the quality model
+     * @throws IOException
+     *             If any of the files cannot be read or is malformed
+     */
+    public QualityModel load(Path... files) throws IOException
+    {
+        QualityModelReader reader = new QualityModelReader();
+        Set<Path> dirs = Sets.newLinkedHashSet();
+        List<Path> pending = Lists.newArrayList();
+        for (Path file : files)
+        {
+            Path abs = file.toAbsolutePath().normalize();
+            pending.add(abs);
+            if (abs.getParent() != null)
+                dirs.add(abs.getParent());
+        }
+
+        while (!pending.isEmpty())
+        {
+            for (Path file : pending)
+                reader.read(file);
+
+            pending = Lists.newArrayList();
+            for (String module : reader.missingModules())
+            {
+                for (Path dir : dirs)
+                {
+                    Path file = dir.resolve(module);
+                    if (Files.isRegularFile(file))
+                    {
+                        pending.add(file);
+                        break;
+                    }
+                }
+            }
+        }
+
+        return reader.resolve();
+    }
+}
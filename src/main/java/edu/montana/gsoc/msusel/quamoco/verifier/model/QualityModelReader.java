@@ -0,0 +1,522 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.model.ParsedModule.DeferredLink;
+
+/**
+ * Streaming reader of Quamoco .qm files. Each module is read in a single pass
+ * with a StAX parser, keeping only the ids, names, weights, functions, and
+ * relationships of the factors, measures, and evaluations, so no document
+ * tree is built and descriptions are never retained. References, whether
+ * given as an id attribute or as an href to another module (such as
+ * {@code root.qm#_id}), are recorded in a table of deferred links and resolved
+ * once every module has been read, so modules may be read in any order.
+ * <p>
+ * Modules are parsed independently of each other, and only the final link
+ * phase, {@link #resolve()}, sees every module. A reader accumulates modules
+ * until it is resolved.
+ * <p>
+ * The outline only serves checks of the model itself. It is not an
+ * alternative to {@code ModelVerifier.buildGraph}: the graph the verifier
+ * evaluates is still distilled by msusel-quamoco, which reads the .qm files
+ * through its own parser, so this reader does not lower the heap used while
+ * that graph is built.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class QualityModelReader {
+
+    /**
+     * Logger associated with this class
+     */
+    private static final Logger                       LOG     = LoggerFactory.getLogger(QualityModelReader.class);
+    /**
+     * Namespace of the XMI attributes
+     */
+    private static final String                       XMI_NS  = "http://www.omg.org/XMI";
+    /**
+     * Namespace of the XML schema instance attributes
+     */
+    private static final String                       XSI_NS  = "http://www.w3.org/2001/XMLSchema-instance";
+    /**
+     * Factory of the StAX parsers, one per thread as quality models may be
+     * loaded concurrently
+     */
+    private static final ThreadLocal<XMLInputFactory> FACTORY = ThreadLocal
+            .withInitial(QualityModelReader::createFactory);
+    /**
+     * Modules read, by name, in the order they were read
+     */
+    private final Map<String, ParsedModule>           modules;
+
+    /**
+     * Constructs a new QualityModelReader
+     */
+    public QualityModelReader()
+    {
+        modules = Maps.newLinkedHashMap();
+    }
+
+    /**
+     * Reads the quality models in the given files, along with every module
+     * they reference, directly or indirectly, which is found in the directory
+     * of one of the files, see {@link QualityModelLoader}.
+     *
+     * @param files
+     *            Quality model files
+     * @return Outline of the quality model
+     * @throws IOException
+     *             If any of the files cannot be read or is malformed
+     */
+    public static QualityModel load(Path... files) throws IOException
+    {
+        return new QualityModelLoader().load(files);
+    }
+
+    /**
+     * Reads the module in the given file, naming it by its file name.
+     *
+     * @param file
+     *            Quality model file
+     * @throws IOException
+     *             If the file cannot be read or is malformed
+     */
+    public void read(Path file) throws IOException
+    {
+        add(parse(file));
+    }
+
+    /**
+     * Reads a module from the given stream.
+     *
+     * @param module
+     *            Name of the module, as used by references from other
+     *            modules, such as root.qm
+     * @param in
+     *            Stream providing the module
+     * @throws IOException
+     *             If the stream cannot be read or is malformed
+     */
+    public void read(String module, InputStream in) throws IOException
+    {
+        if (!modules.containsKey(module))
+            add(parse(module, in));
+    }
+
+    /**
+     * @return Names of the modules referenced by the modules read which have
+     *         not been read themselves
+     */
+    public Set<String> missingModules()
+    {
+        Set<String> missing = Sets.newTreeSet();
+        for (ParsedModule module : modules.values())
+        {
+            for (DeferredLink link : module.links())
+            {
+                if (!modules.containsKey(link.targetModule()))
+                    missing.add(link.targetModule());
+            }
+        }
+
+        return missing;
+    }
+
+    /**
+     * Resolves every deferred reference against the elements read so far and
+     * produces the outline of the quality model. References to elements which
+     * were not read are reported by {@link QualityModel#unresolved()}.
+     *
+     * @return Outline of the quality model
+     */
+    public QualityModel resolve()
+    {
+        Map<String, ModelElement> elements = Maps.newLinkedHashMap();
+        for (ParsedModule module : modules.values())
+            elements.putAll(module.elements());
+
+        List<String> unresolved = Lists.newArrayList();
+        for (ParsedModule module : modules.values())
+        {
+            for (DeferredLink link : module.links())
+            {
+                if (!link.bind(elements))
+                    unresolved.add(link.toString());
+            }
+        }
+
+        if (!unresolved.isEmpty())
+            LOG.warn(unresolved.size() + " references of the quality model could not be resolved");
+
+        return new QualityModel(Lists.newArrayList(modules.keySet()), elements, unresolved);
+    }
+
+    /**
+     * Adds a parsed module to the modules read, unless a module with the same
+     * name has already been read.
+     *
+     * @param module
+     *            The parsed module
+     */
+    void add(ParsedModule module)
+    {
+        modules.putIfAbsent(module.name(), module);
+    }
+
+    /**
+     * @param module
+     *            Name of a module
+     * @return true if a module with the name has been read
+     */
+    boolean contains(String module)
+    {
+        return modules.containsKey(module);
+    }
+
+    /**
+     * Parses the module in the given file, naming it by its file name.
+     *
+     * @param file
+     *            Quality model file
+     * @return The parsed module
+     * @throws IOException
+     *             If the file cannot be read or is malformed
+     */
+    static ParsedModule parse(Path file) throws IOException
+    {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file)))
+        {
+            return parse(file.getFileName().toString(), in);
+        }
+    }
+
+    /**
+     * Parses a module from the given stream.
+     *
+     * @param module
+     *            Name of the module
+     * @param in
+     *            Stream providing the module
+     * @return The parsed module
+     * @throws IOException
+     *             If the stream cannot be read or is malformed
+     */
+    static ParsedModule parse(String module, InputStream in) throws IOException
+    {
+        ParsedModule parsed = new ParsedModule(module);
+        XMLStreamReader xml = null;
+        try
+        {
+            xml = FACTORY.get().createXMLStreamReader(in);
+            parse(parsed, xml);
+        }
+        catch (XMLStreamException e)
+        {
+            throw new IOException("Malformed quality model " + module + ": " + e.getMessage(), e);
+        }
+        finally
+        {
+            if (xml != null)
+            {
+                try
+                {
+                    xml.close();
+                }
+                catch (XMLStreamException e)
+                {
+                    LOG.debug("Could not close the parser of " + module + ": " + e.getMessage());
+                }
+            }
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Reads the elements of a module from the parser.
+     *
+     * @param target
+     *            Module receiving the elements
+     * @param xml
+     *            Parser positioned at the start of the module
+     * @throws XMLStreamException
+     *             If the module is malformed
+     * @throws IOException
+     *             If an attribute holds an invalid value
+     */
+    private static void parse(ParsedModule target, XMLStreamReader xml) throws XMLStreamException, IOException
+    {
+        String module = target.name();
+        int depth = 0;
+        ModelElement top = null;
+        String section = null;
+        Influence influence = null;
+        Ranking ranking = null;
+
+        while (xml.hasNext())
+        {
+            int event = xml.next();
+            if (event == XMLStreamConstants.END_ELEMENT)
+            {
+                if (depth == 3)
+                {
+                    section = null;
+                    influence = null;
+                    ranking = null;
+                }
+                depth--;
+                continue;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT)
+                continue;
+
+            depth++;
+            String local = xml.getLocalName();
+            if (depth == 2)
+            {
+                top = null;
+                String id = attribute(xml, XMI_NS, "id");
+                if (id == null)
+                    continue;
+
+                if ("factors".equals(local))
+                {
+                    top = new Factor(module, id, attribute(xml, null, "name"));
+                }
+                else if ("measures".equals(local))
+                {
+                    top = new Measure(module, id, attribute(xml, null, "name"), attribute(xml, null, "type"));
+                }
+                else if ("evaluations".equals(local))
+                {
+                    Evaluation evaluation = new Evaluation(module, id, attribute(xml, null, "name"),
+                            typeOf(xml));
+                    target.defer(attribute(xml, null, "evaluates"), Factor.class, evaluation::setEvaluates);
+                    top = evaluation;
+                }
+
+                if (top != null)
+                    target.add(top);
+            }
+            else if (depth == 3 && top != null)
+            {
+                section = local;
+                if (top instanceof Factor && "influences".equals(local))
+                {
+                    influence = new Influence(effectOf(xml));
+                    ((Factor) top).addInfluence(influence);
+                    target.defer(attribute(xml, null, "target"), Factor.class, influence::setTarget);
+                }
+                else if (top instanceof Factor && "refines".equals(local))
+                {
+                    Factor factor = (Factor) top;
+                    target.defer(attribute(xml, null, "parent"), Factor.class, factor::addParent);
+                }
+                else if (top instanceof Measure && "refines".equals(local))
+                {
+                    Measure measure = (Measure) top;
+                    target.defer(attribute(xml, null, "parent"), Measure.class, measure::addParent);
+                }
+                else if (top instanceof Measure && "measures".equals(local))
+                {
+                    Measure measure = (Measure) top;
+                    target.defer(attribute(xml, null, "parent"), Factor.class, measure::addMeasuredFactor);
+                }
+                else if (top instanceof Evaluation && "evaluates".equals(local))
+                {
+                    Evaluation evaluation = (Evaluation) top;
+                    target.defer(attribute(xml, null, "href"), Factor.class, evaluation::setEvaluates);
+                }
+                else if (top instanceof Evaluation && "rankings".equals(local))
+                {
+                    ranking = new Ranking((int) number(xml, "rank"), number(xml, "weight"));
+                    ((Evaluation) top).addRanking(ranking);
+                    target.defer(attribute(xml, null, "factor"), Factor.class, ranking::setTarget);
+                    target.defer(attribute(xml, null, "measure"), Measure.class, ranking::setTarget);
+                }
+            }
+            else if (depth == 4 && top != null)
+            {
+                String href = attribute(xml, null, "href");
+                if (influence != null && "target".equals(local))
+                {
+                    target.defer(href, Factor.class, influence::setTarget);
+                }
+                else if ("refines".equals(section) && "parent".equals(local) && top instanceof Factor)
+                {
+                    Factor factor = (Factor) top;
+                    target.defer(href, Factor.class, factor::addParent);
+                }
+                else if ("refines".equals(section) && "parent".equals(local) && top instanceof Measure)
+                {
+                    Measure measure = (Measure) top;
+                    target.defer(href, Measure.class, measure::addParent);
+                }
+                else if ("measures".equals(section) && "parent".equals(local) && top instanceof Measure)
+                {
+                    Measure measure = (Measure) top;
+                    target.defer(href, Factor.class, measure::addMeasuredFactor);
+                }
+                else if (ranking != null && "factor".equals(local))
+                {
+                    target.defer(href, Factor.class, ranking::setTarget);
+                }
+                else if (ranking != null && "measure".equals(local))
+                {
+                    target.defer(href, Measure.class, ranking::setTarget);
+                }
+                else if (ranking != null && "function".equals(local))
+                {
+                    ranking.setFunction(
+                            new UtilityFunction(typeOf(xml), number(xml, "lowerBound"), number(xml, "upperBound")));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param xml
+     *            Parser positioned at a start element
+     * @param namespace
+     *            Namespace of the attribute, null for an attribute without a
+     *            namespace
+     * @param local
+     *            Local name of the attribute
+     * @return Value of the attribute, or null if the element does not have it
+     */
+    private static String attribute(XMLStreamReader xml, String namespace, String local)
+    {
+        for (int i = 0; i < xml.getAttributeCount(); i++)
+        {
+            String ns = xml.getAttributeNamespace(i);
+            boolean sameNs = namespace == null ? ns == null || ns.isEmpty() : namespace.equals(ns);
+            if (sameNs && local.equals(xml.getAttributeLocalName(i)))
+                return xml.getAttributeValue(i);
+        }
+
+        return null;
+    }
+
+    /**
+     * @param xml
+     *            Parser positioned at a start element
+     * @return Value of the xsi:type attribute of the element, without its
+     *         namespace prefix, or null if absent
+     */
+    private static String typeOf(XMLStreamReader xml)
+    {
+        String type = attribute(xml, XSI_NS, "type");
+        if (type == null)
+            return null;
+
+        return type.substring(type.indexOf(':') + 1);
+    }
+
+    /**
+     * @param xml
+     *            Parser positioned at an influences element
+     * @return Effect of the influence, positive if not given
+     * @throws IOException
+     *             If the effect is not a known effect
+     */
+    private static Influence.Effect effectOf(XMLStreamReader xml) throws IOException
+    {
+        String effect = attribute(xml, null, "effect");
+        if (effect == null)
+            return Influence.Effect.POSITIVE;
+
+        try
+        {
+            return Influence.Effect.valueOf(effect.trim().toUpperCase(Locale.ROOT));
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IOException("Unknown influence effect " + effect + " at line "
+                    + xml.getLocation().getLineNumber());
+        }
+    }
+
+    /**
+     * @param xml
+     *            Parser positioned at a start element
+     * @param local
+     *            Local name of a numeric attribute
+     * @return Value of the attribute, 0 if absent
+     * @throws IOException
+     *             If the attribute is not a number
+     */
+    private static double number(XMLStreamReader xml, String local) throws IOException
+    {
+        String value = attribute(xml, null, local);
+        if (value == null)
+            return 0;
+
+        try
+        {
+            return Double.parseDouble(value);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IOException("Invalid " + local + " " + value + " at line " + xml.getLocation().getLineNumber());
+        }
+    }
+
+    /**
+     * @return Factory of the StAX parsers, with DTDs and external entities
+     *         disabled
+     */
+    private static XMLInputFactory createFactory()
+    {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+/**
+ * Ranking of a factor or measure within an evaluation, holding its weight and
+ * the utility function applied to its value.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class Ranking {
+
+    /**
+     * Rank of the ranked element, 0 if not given
+     */
+    private final int       rank;
+    /**
+     * Weight of the ranked element, 0 if not given
+     */
+    private final double    weight;
+    /**
+     * Ranked factor or measure, null until the reference to it is resolved
+     */
+    private ModelElement    target;
+    /**
+     * Utility function applied to the value of the ranked element, null if
+     * none is defined
+     */
+    private UtilityFunction function;
+
+    /**
+     * Constructs a new Ranking
+     *
+     * @param rank
+     *            Rank of the ranked element
+     * @param weight
+     *            Weight of the ranked element
+     */
+    Ranking(int rank, double weight)
+    {
+        this.rank = rank;
+        this.weight = weight;
+    }
+
+    /**
+     * @return Rank of the ranked element, 0 if not given
+     */
+    public int rank()
+    {
+        return rank;
+    }
+
+    /**
+     * @return Weight of the ranked element, 0 if not given
+     */
+    public double weight()
+    {
+        return weight;
+    }
+
+    /**
+     * @return Ranked factor or measure, null if the reference to it could not
+     *         be resolved
+     */
+    public ModelElement target()
+    {
+        return target;
+    }
+
+    /**
+     * @return Utility function applied to the value of the ranked element,
+     *         null if none is defined
+     */
+    public UtilityFunction function()
+    {
+        return function;
+    }
+
+    /**
+     * @param target
+     *            Ranked factor or measure
+     */
+    void setTarget(ModelElement target)
+    {
+        this.target = target;
+    }
+
+    /**
+     * @param function
+     *            Utility function applied to the value of the ranked element
+     */
+    void setFunction(UtilityFunction function)
+    {
+        this.function = function;
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+/**
+ * Utility function of a ranking, mapping the normalized value of the ranked
+ * element onto [0, 1] between its lower and upper bounds.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class UtilityFunction {
+
+    /**
+     * Type of the function, such as LinearIncreasingFunction
+     */
+    private final String type;
+    /**
+     * Lower bound of the function, 0 if not given
+     */
+    private final double lowerBound;
+    /**
+     * Upper bound of the function, 0 if not given
+     */
+    private final double upperBound;
+
+    /**
+     * Constructs a new UtilityFunction
+     *
+     * @param type
+     *            Type of the function, without namespace prefix
+     * @param lowerBound
+     *            Lower bound of the function
+     * @param upperBound
+     *            Upper bound of the function
+     */
+    UtilityFunction(String type, double lowerBound, double upperBound)
+    {
+        this.type = type;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+    }
+
+    /**
+     * @return Type of the function, such as LinearIncreasingFunction
+     */
+    public String type()
+    {
+        return type;
+    }
+
+    /**
+     * @return Lower bound of the function, 0 if not given
+     */
+    public double lowerBound()
+    {
+        return lowerBound;
+    }
+
+    /**
+     * @return Upper bound of the function, 0 if not given
+     */
+    public double upperBound()
+    {
+        return upperBound;
+    }
+
+    /**
+     * @return true if the function increases with the value of the ranked
+     *         element
+     */
+    public boolean isIncreasing()
+    {
+        return type != null && type.contains("Increasing");
+    }
+
+    /**
+     * @return true if the function decreases as the value of the ranked
+     *         element increases
+     */
+    public boolean isDecreasing()
+    {
+        return type != null && type.contains("Decreasing");
+    }
+}
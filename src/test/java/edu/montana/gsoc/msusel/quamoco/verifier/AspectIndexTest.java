@@ -0,0 +1,98 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Tests of the {@link AspectIndex}, checking how quality aspect names are
+ * resolved against the factors of a graph.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class AspectIndexTest {
+
+    /**
+     * A name with no factor in the graph is rejected, and the message names
+     * it.
+     */
+    @Test
+    public void unknownAspectIsRejected()
+    {
+        try
+        {
+            new AspectIndex(new DirectedSparseGraph<Node, Edge>(), Lists.newArrayList("No Such Aspect"));
+            fail("Expected an unknown quality aspect to be rejected");
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(e.getMessage().contains("No Such Aspect"));
+        }
+    }
+
+    /**
+     * An empty selection of quality aspects resolves to an empty index.
+     */
+    @Test
+    public void emptySelection()
+    {
+        assertEquals(0, new AspectIndex(new DirectedSparseGraph<Node, Edge>(), Collections.emptyList()).size());
+    }
+
+    /**
+     * Names are resolved ignoring case, in the order of the selection.
+     */
+    @Test
+    public void namesResolveIgnoringCase()
+    {
+        DirectedSparseGraph<Node, Edge> graph = TestModels.helloWorld(TestModels.verifier());
+        List<String> names = TestModels.factorNames(graph, 3);
+        List<String> shouted = Lists.newArrayList();
+        for (String name : Lists.reverse(names))
+            shouted.add(name.toUpperCase(Locale.ROOT));
+
+        AspectIndex index = new AspectIndex(graph, shouted);
+
+        assertEquals(names.size(), index.size());
+        for (int j = 0; j < index.size(); j++)
+            assertTrue(index.get(j).getName().equalsIgnoreCase(shouted.get(j)));
+    }
+}
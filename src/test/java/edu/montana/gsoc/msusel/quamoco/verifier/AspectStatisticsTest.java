@@ -0,0 +1,143 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+import org.apache.commons.math3.stat.inference.TestUtils;
+import org.junit.Test;
+
+/**
+ * Tests of the {@link AspectStatistics}, checking the streaming statistics
+ * against those computed over the stored values.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class AspectStatisticsTest {
+
+    /**
+     * The streaming statistics match those of commons-math over the same
+     * values.
+     */
+    @Test
+    public void matchesStoredStatistics()
+    {
+        SplitMixRandom rand = new SplitMixRandom(1L);
+        AspectStatistics stats = new AspectStatistics();
+        SummaryStatistics expected = new SummaryStatistics();
+        for (int i = 0; i < 10000; i++)
+        {
+            double value = 0.3 + rand.nextGaussian() * 0.05;
+            stats.add(value);
+            expected.addValue(value);
+        }
+
+        assertEquals(expected.getN(), stats.getN());
+        assertEquals(expected.getMean(), stats.getMean(), 1e-12);
+        assertEquals(expected.getVariance(), stats.getVariance(), 1e-12);
+        assertEquals(expected.getStandardDeviation(), stats.getStandardDeviation(), 1e-12);
+        assertEquals(expected.getSum(), stats.getSum(), 1e-9);
+        assertEquals(expected.getMin(), stats.getMin(), 0.0);
+        assertEquals(expected.getMax(), stats.getMax(), 0.0);
+    }
+
+    /**
+     * Merging the statistics of several parts gives the statistics of adding
+     * every value to one.
+     */
+    @Test
+    public void mergeEqualsSequentialAdds()
+    {
+        SplitMixRandom rand = new SplitMixRandom(2L);
+        AspectStatistics all = new AspectStatistics();
+        AspectStatistics merged = new AspectStatistics();
+        for (int part = 0; part < 7; part++)
+        {
+            AspectStatistics stats = new AspectStatistics();
+            for (int i = 0; i < 100 * part; i++)
+            {
+                double value = rand.nextDouble();
+                stats.add(value);
+                all.add(value);
+            }
+            merged.merge(stats);
+        }
+
+        assertEquals(all.getN(), merged.getN());
+        assertEquals(all.getMean(), merged.getMean(), 1e-12);
+        assertEquals(all.getVariance(), merged.getVariance(), 1e-12);
+        assertEquals(all.getSum(), merged.getSum(), 1e-9);
+        assertEquals(all.getMin(), merged.getMin(), 0.0);
+        assertEquals(all.getMax(), merged.getMax(), 0.0);
+    }
+
+    /**
+     * The t-tests of the report give the same results on the streaming
+     * statistics, merged from the accumulators of several workers, as on the
+     * stored values of every execution.
+     */
+    @Test
+    public void tTestMatchesStoredValues()
+    {
+        SplitMixRandom rand = new SplitMixRandom(3L);
+        double[] values = new double[3000];
+        AspectStatistics merged = new AspectStatistics();
+        for (int part = 0; part < 3; part++)
+        {
+            AspectStatistics stats = new AspectStatistics();
+            for (int i = part * 1000; i < (part + 1) * 1000; i++)
+            {
+                values[i] = 0.998 + rand.nextGaussian() * 0.01;
+                stats.add(values[i]);
+            }
+            merged.merge(stats);
+        }
+
+        assertEquals(TestUtils.tTest(1.0d, values), TestUtils.tTest(1.0d, merged), 1e-9);
+        assertEquals(TestUtils.tTest(1.0d, values, 0.025), TestUtils.tTest(1.0d, merged, 0.025));
+    }
+
+    /**
+     * Empty and single value statistics follow the conventions of
+     * commons-math.
+     */
+    @Test
+    public void emptyAndSingleValue()
+    {
+        AspectStatistics stats = new AspectStatistics();
+        assertTrue(Double.isNaN(stats.getMean()));
+        assertTrue(Double.isNaN(stats.getVariance()));
+
+        stats.add(0.5);
+        assertEquals(0.5, stats.getMean(), 0.0);
+        assertEquals(0.0, stats.getVariance(), 0.0);
+        assertEquals(0.5, stats.getMin(), 0.0);
+        assertEquals(0.5, stats.getMax(), 0.0);
+    }
+}
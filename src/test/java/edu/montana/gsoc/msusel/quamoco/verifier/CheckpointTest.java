@@ -0,0 +1,261 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.UnaryOperator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * Tests of saving and resuming experiments from a {@link Checkpoint}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class CheckpointTest {
+
+    /**
+     * Number of quality aspects observed by the test runners
+     */
+    private static final int     ASPECTS = 3;
+    /**
+     * Folder holding the checkpoint files of each test
+     */
+    @Rule
+    public final TemporaryFolder folder  = new TemporaryFolder();
+
+    /**
+     * A saved checkpoint reads back with the same progress and results.
+     */
+    @Test
+    public void roundTrip() throws IOException
+    {
+        RandomStreams streams = new RandomStreams(11L);
+        ExperimentResults results = new SeededRunner(streams, ASPECTS).run(0, 250);
+        Checkpoint checkpoint = new Checkpoint("config", "model", "tree", streams.seed(), new ExperimentResults(ASPECTS));
+        checkpoint.update(250, results);
+
+        Path file = folder.getRoot().toPath().resolve("run.checkpoint");
+        checkpoint.save(file);
+        Checkpoint loaded = Checkpoint.load(file);
+
+        assertEquals(11L, loaded.seed());
+        assertEquals(250, loaded.completed());
+        loaded.verify("config", "model", "tree");
+        ExperimentEngineTest.assertSameResults(results, loaded.results());
+    }
+
+    /**
+     * A checkpoint is not resumed under a different configuration, model or
+     * code tree.
+     */
+    @Test
+    public void rejectsDifferentConditions()
+    {
+        Checkpoint checkpoint = new Checkpoint("config", "model", "tree", 1L, new ExperimentResults(ASPECTS));
+
+        assertRejected(checkpoint, "other", "model", "tree");
+        assertRejected(checkpoint, "config", "other", "tree");
+        assertRejected(checkpoint, "config", "model", "other");
+    }
+
+    /**
+     * A file which does not hold a checkpoint is reported as unreadable.
+     */
+    @Test(expected = IOException.class)
+    public void rejectsOtherFiles() throws IOException
+    {
+        Path file = folder.newFile("other.json").toPath();
+        Files.write(file, "[1, 2, 3]".getBytes("UTF-8"));
+
+        Checkpoint.load(file);
+    }
+
+    /**
+     * An experiment interrupted and resumed from its checkpoint has the same
+     * results as one run without interruption.
+     */
+    @Test
+    public void resumeEqualsUninterruptedRun()
+    {
+        VerifierConfiguration config = new VerifierConfiguration.Builder()
+                .numExecutions(1000)
+                .checkpointInterval(100)
+                .qualityAspect("Maintainability")
+                .qualityAspect("Reliability")
+                .qualityAspect("Security")
+                .create();
+        RandomStreams streams = new RandomStreams(5L);
+        Path file = folder.getRoot().toPath().resolve("run.checkpoint");
+
+        ModelVerifier interrupted = TestModels.verifier();
+        interrupted.enableCheckpoints(file, false);
+        try (ExperimentEngine engine = new ExperimentEngine(config, () -> new FailingRunner(new SeededRunner(streams, ASPECTS), 450)))
+        {
+            interrupted.executeFixed(config, engine, interrupted.openCheckpoint(config, "model", "tree"));
+            fail("The experiment should have been interrupted");
+        }
+        catch (RuntimeException e)
+        {
+            // expected, the checkpoint holds the executions before the failure
+        }
+
+        ModelVerifier resumed = TestModels.verifier();
+        resumed.enableCheckpoints(file, true);
+        Checkpoint checkpoint = resumed.openCheckpoint(config, "model", "tree");
+        assertEquals(400, checkpoint.completed());
+
+        ExperimentResults actual;
+        try (ExperimentEngine engine = new ExperimentEngine(config, () -> new SeededRunner(streams, ASPECTS)))
+        {
+            actual = resumed.executeFixed(config, engine, checkpoint);
+        }
+
+        ExperimentResults expected = new SeededRunner(streams, ASPECTS).run(0, 1000);
+        ExperimentEngineTest.assertSameResults(expected, actual);
+        assertEquals(expected.shortCircuited(), actual.shortCircuited());
+    }
+
+    /**
+     * An experiment on the HelloWorld model interrupted and resumed from its
+     * checkpoint has the same results as one run without interruption.
+     */
+    @Test
+    public void resumedHelloWorldEqualsUninterruptedRun()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        VerifierConfiguration config = TestModels.configure(template.newInstance(), 3)
+                .numExecutions(300)
+                .checkpointInterval(50)
+                .create();
+        Path file = folder.getRoot().toPath().resolve("helloworld.checkpoint");
+
+        ModelVerifier interrupted = TestModels.verifier();
+        interrupted.enableCheckpoints(file, false);
+        try
+        {
+            TestModels.experiment(interrupted, config, template, 71L, worker -> new FailingRunner(worker, 170),
+                    engine -> interrupted.executeFixed(config, engine,
+                            interrupted.openCheckpoint(config, "model", "tree")));
+            fail("The experiment should have been interrupted");
+        }
+        catch (RuntimeException e)
+        {
+            // expected, the checkpoint holds the executions before the failure
+        }
+
+        ModelVerifier resumed = TestModels.verifier();
+        resumed.enableCheckpoints(file, true);
+        ExperimentResults actual = TestModels.experiment(resumed, config, template, 71L, UnaryOperator.identity(),
+                engine -> resumed.executeFixed(config, engine, resumed.openCheckpoint(config, "model", "tree")));
+        ExperimentResults expected = TestModels.experiment(verifier, config, template, 71L, 300);
+
+        ExperimentEngineTest.assertSameResults(expected, actual);
+        assertEquals(expected.shortCircuited(), actual.shortCircuited());
+    }
+
+    /**
+     * Asserts that the checkpoint cannot be resumed under the given
+     * conditions.
+     *
+     * @param checkpoint
+     *            The checkpoint
+     * @param configHash
+     *            Fingerprint of the verifier configuration
+     * @param modelHash
+     *            Fingerprint of the distilled quality model
+     * @param treeHash
+     *            Fingerprint of the generated code tree
+     */
+    private static void assertRejected(Checkpoint checkpoint, String configHash, String modelHash, String treeHash)
+    {
+        try
+        {
+            checkpoint.verify(configHash, modelHash, treeHash);
+            fail("The checkpoint should have been rejected");
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+    }
+
+    /**
+     * Runner failing on a given execution, standing in for an experiment
+     * interrupted part way.
+     *
+     * @author Isaac Griffith
+     * @version 1.1.1
+     */
+    private static class FailingRunner implements ExecutionRunner {
+
+        /**
+         * Runner of the executions before the failure
+         */
+        private final ExecutionRunner runner;
+        /**
+         * Index of the failing execution
+         */
+        private final int             failure;
+
+        /**
+         * Constructs a new FailingRunner
+         *
+         * @param runner
+         *            Runner of the executions before the failure
+         * @param failure
+         *            Index of the failing execution
+         */
+        FailingRunner(ExecutionRunner runner, int failure)
+        {
+            this.runner = runner;
+            this.failure = failure;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public ExperimentResults run(int from, int to)
+        {
+            if (from <= failure && failure < to)
+                throw new IllegalStateException("Interrupted at execution " + failure);
+
+            return runner.run(from, to);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.montana.gsoc.msusel.quamoco.verifier.model.QualityModel;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Tests of the paired comparison of two versions of a quality model, through
+ * {@link ModelVerifier#executeComparison}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ComparisonTest {
+
+    /**
+     * Findings of identical models are matched to themselves.
+     */
+    @Test
+    public void matchesIdenticalFindings()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        DirectedSparseGraph<Node, Edge> graphA = TestModels.helloWorld(verifier);
+        DirectedSparseGraph<Node, Edge> graphB = TestModels.helloWorld(verifier);
+        VerifierConfiguration config = TestModels.configure(graphA, 3).create();
+
+        int[] mapping = verifier.matchFindings(new EvaluationPlan(graphA, config), new EvaluationPlan(graphB, config));
+
+        for (int f = 0; f < mapping.length; f++)
+            assertEquals(f, mapping[f]);
+    }
+
+    /**
+     * Comparing a model with itself under common random numbers gives the
+     * same values for both, and no difference in any execution.
+     */
+    @Test
+    public void selfComparisonHasNoDifference()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> graph = template.newInstance();
+        VerifierConfiguration config = TestModels.configure(graph, 3).numExecutions(100).create();
+        BigDecimal[] baseline = verifier.evaluateModel(config, graph);
+        VerificationContext context = TestModels.context(config, 47L);
+
+        ExperimentResults comparison;
+        try (VerificationContext active = context.enter())
+        {
+            comparison = verifier.executeComparison(active, template, template);
+        }
+
+        int aspects = baseline.length;
+        assertEquals(3 * aspects, comparison.size());
+        for (int j = 0; j < aspects; j++)
+        {
+            AspectStatistics a = comparison.statistics(j);
+            AspectStatistics b = comparison.statistics(aspects + j);
+            AspectStatistics diff = comparison.statistics(2 * aspects + j);
+            assertEquals(100, diff.getN());
+            assertEquals(a.getMean(), b.getMean(), 0.0);
+            assertEquals(a.getVariance(), b.getVariance(), 0.0);
+            assertEquals(0.0, diff.getMin(), 0.0);
+            assertEquals(0.0, diff.getMax(), 0.0);
+        }
+    }
+
+    /**
+     * Comparing a model with a version of it missing one finding gives paired
+     * differences whose mean is the difference of the means of the two
+     * models. The first model sees the same executions as when compared with
+     * itself, and the common random numbers make the variance of the
+     * differences lower than that of independent samples of the two models.
+     */
+    @Test
+    public void pairedDifferencesUseCommonRandomNumbers()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate templateA = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> graph = templateA.newInstance();
+        VerifierConfiguration config = TestModels.configure(graph, 3).numExecutions(200).create();
+        String removed = new EvaluationPlan(graph, config).finding(0).getName();
+        QualityModelTemplate templateB = new QualityModelTemplate(() -> {
+            DirectedSparseGraph<Node, Edge> g = TestModels.helloWorld(verifier);
+            g.removeVertex(TestModels.findingNode(g, removed));
+            return g;
+        });
+        VerificationContext context = TestModels.context(config, 53L);
+
+        ExperimentResults self;
+        ExperimentResults comparison;
+        try (VerificationContext active = context.enter())
+        {
+            self = verifier.executeComparison(active, templateA, templateA);
+            comparison = verifier.executeComparison(active, templateA, templateB);
+        }
+
+        int aspects = comparison.size() / 3;
+        for (int j = 0; j < aspects; j++)
+        {
+            AspectStatistics a = comparison.statistics(j);
+            AspectStatistics b = comparison.statistics(aspects + j);
+            AspectStatistics diff = comparison.statistics(2 * aspects + j);
+            assertEquals(b.getMean() - a.getMean(), diff.getMean(), 1e-9);
+            assertEquals(self.statistics(j).getMean(), a.getMean(), 0.0);
+            assertEquals(self.statistics(j).getVariance(), a.getVariance(), 0.0);
+            assertTrue(diff.getVariance() <= a.getVariance() + b.getVariance());
+        }
+    }
+
+    /**
+     * A quality model given as a list of files has the same outline as when
+     * its modules are found next to its main file.
+     */
+    @Test
+    public void fileListOutlineEqualsSingleFile() throws IOException
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        VerifierConfiguration config = new VerifierConfiguration.Builder().create();
+        String[] files = { TestModels.EXAMPLES.resolve("helloworld.qm").toString(),
+                TestModels.EXAMPLES.resolve("object.qm").toString(), TestModels.EXAMPLES.resolve("root.qm").toString() };
+
+        QualityModel single = verifier.buildOutline(config, files[0]);
+        QualityModel listed = verifier.buildOutline(files);
+
+        assertEquals(single.modules(), listed.modules());
+        assertEquals(single.size(), listed.size());
+        assertEquals(single.unresolved(), listed.unresolved());
+    }
+}
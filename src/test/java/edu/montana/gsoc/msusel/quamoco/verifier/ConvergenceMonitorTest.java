@@ -0,0 +1,252 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.function.UnaryOperator;
+
+import org.apache.commons.math3.distribution.TDistribution;
+import org.junit.Test;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Tests of adaptive stopping, through the {@link ConvergenceMonitor} and
+ * {@link ModelVerifier#executeAdaptive}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ConvergenceMonitorTest {
+
+    /**
+     * Number of quality aspects observed by the test runners
+     */
+    private static final int ASPECTS = 2;
+
+    /**
+     * The half-width is that of the two-sided Student t confidence interval
+     * of the mean, and is unbounded with fewer than two values.
+     */
+    @Test
+    public void halfWidthOfTInterval()
+    {
+        AspectStatistics stats = new AspectStatistics();
+        assertEquals(Double.POSITIVE_INFINITY, ConvergenceMonitor.halfWidth(stats), 0.0);
+        stats.add(1.0);
+        assertEquals(Double.POSITIVE_INFINITY, ConvergenceMonitor.halfWidth(stats), 0.0);
+
+        for (int i = 0; i < 49; i++)
+            stats.add(i % 7);
+        double t = new TDistribution(49).inverseCumulativeProbability(0.9875);
+        assertEquals(t * stats.getStandardDeviation() / Math.sqrt(50), ConvergenceMonitor.halfWidth(stats), 1e-12);
+    }
+
+    /**
+     * The intervals cover the true mean of normal samples at the two-sided
+     * 97.5% confidence level.
+     */
+    @Test
+    public void intervalsCoverAtConfidenceLevel()
+    {
+        SplitMixRandom rand = new SplitMixRandom(79L);
+        int intervals = 4000;
+        int covered = 0;
+        for (int k = 0; k < intervals; k++)
+        {
+            AspectStatistics stats = new AspectStatistics();
+            for (int i = 0; i < 20; i++)
+                stats.add(rand.nextGaussian());
+            if (Math.abs(stats.getMean()) <= ConvergenceMonitor.halfWidth(stats))
+                covered++;
+        }
+
+        // the standard error of the coverage is about 0.0025
+        assertEquals(0.975, (double) covered / intervals, 0.01);
+    }
+
+    /**
+     * When the results track blocks the intervals are computed from the block
+     * means, so antithetic pairs with a constant mean converge at once while
+     * the spread of their executions would not.
+     */
+    @Test
+    public void blocksUseBlockMeans()
+    {
+        VerifierConfiguration config = new VerifierConfiguration.Builder().targetHalfWidth(0.01).create();
+        ConvergenceMonitor monitor = new ConvergenceMonitor(config);
+        ExperimentResults plain = new ExperimentResults(1);
+        ExperimentResults paired = new ExperimentResults(1);
+        paired.trackBlocks(2, 100);
+
+        SplitMixRandom rand = new SplitMixRandom(83L);
+        for (int i = 0; i < 100; i += 2)
+        {
+            double u = rand.nextDouble();
+            for (ExperimentResults results : new ExperimentResults[] { plain, paired })
+            {
+                results.record(i, new double[] { u });
+                results.record(i + 1, new double[] { 1 - u });
+            }
+        }
+
+        assertFalse(monitor.update(plain));
+        assertTrue(monitor.update(paired));
+        assertEquals(100, paired.executionsNeeded(0));
+        assertEquals(0.0, ConvergenceMonitor.halfWidth(ConvergenceMonitor.sampled(paired, 0)), 1e-12);
+    }
+
+    /**
+     * The number of executions needed is recorded when an aspect first
+     * converges, and cleared if it stops being converged.
+     */
+    @Test
+    public void recordsExecutionsNeeded()
+    {
+        VerifierConfiguration config = new VerifierConfiguration.Builder().targetHalfWidth(0.05).create();
+        ConvergenceMonitor monitor = new ConvergenceMonitor(config);
+        ExperimentResults results = new ExperimentResults(1);
+
+        for (int i = 0; i < 10; i++)
+            results.record(i, new double[] { 0.5 });
+        assertTrue(monitor.update(results));
+        assertEquals(10, results.executionsNeeded(0));
+
+        for (int i = 10; i < 20; i++)
+            results.record(i, new double[] { 0.5 });
+        assertTrue(monitor.update(results));
+        assertEquals(10, results.executionsNeeded(0));
+
+        results.record(20, new double[] { 100.0 });
+        assertFalse(monitor.update(results));
+        assertEquals(0, results.executionsNeeded(0));
+    }
+
+    /**
+     * Adaptive stopping ends at the first round at which every aspect has
+     * converged.
+     */
+    @Test
+    public void stopsAtFirstConvergedRound()
+    {
+        VerifierConfiguration config = new VerifierConfiguration.Builder()
+                .targetHalfWidth(0.03)
+                .minExecutions(30)
+                .maxExecutions(100000)
+                .convergenceInterval(50)
+                .create();
+        ConvergenceMonitor monitor = new ConvergenceMonitor(config);
+
+        ExperimentResults results = runAdaptive(config);
+        long n = results.statistics(0).getN();
+
+        assertTrue(n > config.minExecutions() && n < config.maxExecutions());
+        assertEquals(0, (n - config.minExecutions()) % config.convergenceInterval());
+        for (int j = 0; j < ASPECTS; j++)
+            assertTrue(monitor.isConverged(results.statistics(j)));
+
+        ExperimentResults previous = new SeededRunner(new RandomStreams(3L), ASPECTS).run(0,
+                (int) n - config.convergenceInterval());
+        assertFalse(monitor.update(previous));
+    }
+
+    /**
+     * An experiment on the HelloWorld model stops once every quality aspect
+     * has converged, and each records the executions it needed.
+     */
+    @Test
+    public void helloWorldStopsWhenConverged()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> graph = template.newInstance();
+        VerifierConfiguration config = TestModels.configure(graph, 3)
+                .targetHalfWidth(0.01)
+                .minExecutions(30)
+                .maxExecutions(20000)
+                .convergenceInterval(50)
+                .create();
+        Checkpoint checkpoint = new Checkpoint("config", "model", "tree", 67L,
+                new ExperimentResults(config.qualityAspects().size()));
+
+        ExperimentResults results = TestModels.experiment(verifier, config, template, 67L, UnaryOperator.identity(),
+                engine -> verifier.executeAdaptive(config, engine, checkpoint));
+
+        ConvergenceMonitor monitor = new ConvergenceMonitor(config);
+        long n = results.statistics(0).getN();
+        assertTrue(n < config.maxExecutions());
+        for (int j = 0; j < results.size(); j++)
+        {
+            assertTrue(monitor.isConverged(results.statistics(j)));
+            assertTrue(results.executionsNeeded(j) > 0 && results.executionsNeeded(j) <= n);
+        }
+    }
+
+    /**
+     * Adaptive stopping ends at the maximum number of executions when the
+     * target cannot be met.
+     */
+    @Test
+    public void stopsAtMaximum()
+    {
+        VerifierConfiguration config = new VerifierConfiguration.Builder()
+                .targetHalfWidth(1e-9)
+                .minExecutions(30)
+                .maxExecutions(420)
+                .convergenceInterval(50)
+                .create();
+
+        ExperimentResults results = runAdaptive(config);
+
+        assertEquals(420, results.statistics(0).getN());
+        assertEquals(0, results.executionsNeeded(0));
+    }
+
+    /**
+     * Runs an adaptive experiment on seeded runners.
+     *
+     * @param config
+     *            The verifier configuration
+     * @return Results of the experiment
+     */
+    private static ExperimentResults runAdaptive(VerifierConfiguration config)
+    {
+        RandomStreams streams = new RandomStreams(3L);
+        Checkpoint checkpoint = new Checkpoint("config", "model", "tree", streams.seed(),
+                new ExperimentResults(ASPECTS));
+
+        try (ExperimentEngine engine = new ExperimentEngine(config, () -> new SeededRunner(streams, ASPECTS)))
+        {
+            return TestModels.verifier().executeAdaptive(config, engine, checkpoint);
+        }
+    }
+}
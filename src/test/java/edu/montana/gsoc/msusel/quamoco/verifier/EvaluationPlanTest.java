@@ -0,0 +1,167 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.FindingNode;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Tests of the index of a distilled graph compiled by an
+ * {@link EvaluationPlan}, checked against the graph it was compiled from.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class EvaluationPlanTest {
+
+    /**
+     * The findings of the plan are every FindingNode of the graph, ordered by
+     * name, with their rule names.
+     */
+    @Test
+    public void findingsOrderedByName()
+    {
+        DirectedSparseGraph<Node, Edge> graph = TestModels.helloWorld(TestModels.verifier());
+        EvaluationPlan plan = new EvaluationPlan(graph, TestModels.configure(graph, 3).create());
+
+        int count = 0;
+        for (Node n : graph.getVertices())
+        {
+            if (n instanceof FindingNode)
+                count++;
+        }
+        assertEquals(count, plan.findingCount());
+        assertNull(plan.configured());
+
+        for (int f = 0; f < plan.findingCount(); f++)
+        {
+            assertEquals(plan.finding(f).getRuleName(), plan.ruleName(f));
+            if (f > 0)
+                assertTrue(plan.finding(f - 1).getName().compareTo(plan.finding(f).getName()) < 0);
+        }
+    }
+
+    /**
+     * Configuring every finding selects each of them, in plan order.
+     */
+    @Test
+    public void allSelectsEveryFinding()
+    {
+        DirectedSparseGraph<Node, Edge> graph = TestModels.helloWorld(TestModels.verifier());
+        VerifierConfiguration config = new VerifierConfiguration.Builder()
+                .findingToVerify(VerifierConfiguration.ALL)
+                .create();
+        EvaluationPlan plan = new EvaluationPlan(graph, config);
+
+        int[] configured = plan.configured();
+        assertEquals(plan.findingCount(), configured.length);
+        for (int i = 0; i < configured.length; i++)
+            assertEquals(i, configured[i]);
+    }
+
+    /**
+     * Linking a finding marks as dirty exactly the quality aspects reachable
+     * from its FindingNode in the graph.
+     */
+    @Test
+    public void dirtyAspectsAreDownstream()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        DirectedSparseGraph<Node, Edge> graph = TestModels.helloWorld(verifier);
+        VerifierConfiguration config = TestModels.configure(graph, 8).create();
+        BigDecimal[] baseline = verifier.evaluateModel(config, graph);
+        EvaluationPlan plan = new EvaluationPlan(graph, config, baseline);
+        ExecutionState state = new ExecutionState(plan);
+
+        for (int f = 0; f < plan.findingCount(); f++)
+        {
+            state.clear();
+            assertTrue(state.isUnchanged());
+            state.markLinked(f, 0);
+            assertFalse(state.isUnchanged());
+
+            Set<Node> downstream = downstream(graph, plan.finding(f));
+            for (int a = 0; a < plan.aspects().size(); a++)
+                assertEquals(downstream.contains(plan.aspects().get(a)), state.isDirty(a));
+        }
+    }
+
+    /**
+     * Without baseline values every quality aspect is recomputed.
+     */
+    @Test
+    public void everyAspectDirtyWithoutBaseline()
+    {
+        DirectedSparseGraph<Node, Edge> graph = TestModels.helloWorld(TestModels.verifier());
+        EvaluationPlan plan = new EvaluationPlan(graph, TestModels.configure(graph, 8).create());
+        ExecutionState state = new ExecutionState(plan);
+
+        assertFalse(plan.hasBaseline());
+        assertFalse(state.isUnchanged());
+        for (int a = 0; a < plan.aspects().size(); a++)
+            assertTrue(state.isDirty(a));
+    }
+
+    /**
+     * @param graph
+     *            Distilled graph of the quality model
+     * @param start
+     *            Node to start from
+     * @return The nodes reachable from the start node, including itself
+     */
+    private static Set<Node> downstream(DirectedSparseGraph<Node, Edge> graph, Node start)
+    {
+        Set<Node> reached = Sets.newHashSet(start);
+        Deque<Node> pending = new ArrayDeque<>(reached);
+        while (!pending.isEmpty())
+        {
+            for (Node succ : graph.getSuccessors(pending.poll()))
+            {
+                if (reached.add(succ))
+                    pending.add(succ);
+            }
+        }
+
+        return reached;
+    }
+}
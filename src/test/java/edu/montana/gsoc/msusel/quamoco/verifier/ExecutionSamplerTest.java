@@ -0,0 +1,291 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.config.SamplingScheme;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * Tests of the draws of an {@link ExecutionSampler}, checking that every
+ * scheme keeps the uniform marginals of plain sampling while balancing the
+ * draws within each block.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ExecutionSamplerTest {
+
+    /**
+     * Number of sampler dimensions drawn by the tests
+     */
+    private static final int DIMENSIONS = 8;
+    /**
+     * Number of equal width bins used to check the marginals
+     */
+    private static final int BINS       = 10;
+
+    /**
+     * Permuting the indices of a block reaches each index exactly once.
+     */
+    @Test
+    public void permuteIsBijection()
+    {
+        for (int length = 1; length <= 130; length++)
+        {
+            for (int key : new int[] { 0, 1, 0x5bd1e995, -7 })
+            {
+                boolean[] seen = new boolean[length];
+                for (int i = 0; i < length; i++)
+                {
+                    int p = ExecutionSampler.permute(i, length, key);
+                    assertTrue(p >= 0 && p < length && !seen[p]);
+                    seen[p] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Every scheme draws values in [0, 1) whose marginal distribution is
+     * uniform.
+     */
+    @Test
+    public void marginalsAreUniform()
+    {
+        int executions = 5000;
+        for (SamplingScheme scheme : SamplingScheme.values())
+        {
+            ExecutionSampler sampler = sampler(scheme, executions, 10);
+            int[][] bins = new int[DIMENSIONS][BINS];
+            for (int i = 0; i < executions; i++)
+            {
+                sampler.begin(i);
+                for (int d = 0; d < DIMENSIONS; d++)
+                {
+                    double u = sampler.uniform(d);
+                    assertTrue(scheme + " " + u, u >= 0 && u < 1);
+                    bins[d][(int) (u * BINS)]++;
+                }
+            }
+
+            // each bin holds 500 draws in expectation, with a standard
+            // deviation of about 21 for independent draws
+            for (int d = 0; d < DIMENSIONS; d++)
+            {
+                for (int b = 0; b < BINS; b++)
+                    assertEquals(scheme + " dimension " + d, executions / BINS, bins[d][b], 110);
+            }
+        }
+    }
+
+    /**
+     * Latin hypercube sampling draws exactly one value per stratum of each
+     * dimension within a block.
+     */
+    @Test
+    public void latinHypercubeStratifiesBlocks()
+    {
+        int executions = 300;
+        int replicates = 3;
+        ExecutionSampler sampler = sampler(SamplingScheme.LATIN_HYPERCUBE, executions, replicates);
+        int size = sampler.blockSize();
+        assertEquals(100, size);
+
+        for (int block = 0; block < replicates; block++)
+        {
+            boolean[][] strata = new boolean[DIMENSIONS][size];
+            for (int i = block * size; i < (block + 1) * size; i++)
+            {
+                sampler.begin(i);
+                for (int d = 0; d < DIMENSIONS; d++)
+                {
+                    int stratum = (int) (sampler.uniform(d) * size);
+                    assertTrue(!strata[d][stratum]);
+                    strata[d][stratum] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Antithetic sampling pairs each draw with its mirror image.
+     */
+    @Test
+    public void antitheticPairsMirror()
+    {
+        ExecutionSampler sampler = sampler(SamplingScheme.ANTITHETIC, 200, 10);
+        assertEquals(2, sampler.blockSize());
+
+        double[] first = new double[DIMENSIONS];
+        for (int i = 0; i < 200; i += 2)
+        {
+            sampler.begin(i);
+            for (int d = 0; d < DIMENSIONS; d++)
+                first[d] = sampler.uniform(d);
+            sampler.begin(i + 1);
+            for (int d = 0; d < DIMENSIONS; d++)
+                assertEquals(1.0, first[d] + sampler.uniform(d), 1e-15);
+        }
+    }
+
+    /**
+     * Stratified sampling spreads the number of findings generated evenly
+     * over the possible counts within a block.
+     */
+    @Test
+    public void stratifiedCountsAreBalanced()
+    {
+        int counts = 4;
+        VerifierConfiguration config = new VerifierConfiguration.Builder()
+                .samplingScheme(SamplingScheme.STRATIFIED)
+                .numExecutions(200)
+                .samplingReplicates(2)
+                .maxFindingsPerItem(counts)
+                .create();
+        ExecutionSampler sampler = new ExecutionSampler(config, new RandomStreams(43L), DIMENSIONS);
+        int size = sampler.blockSize();
+
+        for (int block = 0; block < 2; block++)
+        {
+            int[][] drawn = new int[DIMENSIONS][counts];
+            for (int i = block * size; i < (block + 1) * size; i++)
+            {
+                sampler.begin(i);
+                for (int d = 0; d < DIMENSIONS; d++)
+                    drawn[d][(int) (sampler.count(d) * counts)]++;
+            }
+
+            for (int d = 0; d < DIMENSIONS; d++)
+            {
+                for (int c = 0; c < counts; c++)
+                    assertEquals(size / counts, drawn[d][c]);
+            }
+        }
+    }
+
+    /**
+     * The draws of an execution depend only on its index, not on the order in
+     * which executions are drawn.
+     */
+    @Test
+    public void drawsIndependentOfOrder()
+    {
+        for (SamplingScheme scheme : SamplingScheme.values())
+        {
+            ExecutionSampler forward = sampler(scheme, 100, 4);
+            ExecutionSampler backward = sampler(scheme, 100, 4);
+            double[][] values = new double[100][DIMENSIONS];
+            for (int i = 0; i < 100; i++)
+            {
+                forward.begin(i);
+                for (int d = 0; d < DIMENSIONS; d++)
+                    values[i][d] = forward.uniform(d);
+            }
+
+            for (int i = 99; i >= 0; i--)
+            {
+                backward.begin(i);
+                for (int d = 0; d < DIMENSIONS; d++)
+                    assertEquals(scheme.toString(), values[i][d], backward.uniform(d), 0.0);
+            }
+        }
+    }
+
+    /**
+     * Every scheme other than plain sampling estimates the mean of a
+     * monotone function of the draws with less than half the variance of
+     * plain sampling, the variance of the estimate being taken from the
+     * spread of the block means as the verifier reports it.
+     */
+    @Test
+    public void schemesReduceVariance()
+    {
+        double plain = estimateVariance(SamplingScheme.PLAIN);
+        for (SamplingScheme scheme : SamplingScheme.values())
+        {
+            if (scheme != SamplingScheme.PLAIN)
+                assertTrue(scheme.toString(), estimateVariance(scheme) < plain / 2);
+        }
+    }
+
+    /**
+     * Estimates the variance of the mean of a monotone function of the draws
+     * of an experiment under the given scheme.
+     *
+     * @param scheme
+     *            Sampling scheme
+     * @return Variance of the block means divided by the number of blocks
+     */
+    private static double estimateVariance(SamplingScheme scheme)
+    {
+        int executions = 4000;
+        VerifierConfiguration config = new VerifierConfiguration.Builder()
+                .samplingScheme(scheme)
+                .numExecutions(executions)
+                .samplingReplicates(20)
+                .maxFindingsPerItem(4)
+                .create();
+        ExecutionSampler sampler = new ExecutionSampler(config, new RandomStreams(47L), DIMENSIONS);
+        BlockStatistics blocks = new BlockStatistics(1, sampler.blockSize(), executions);
+
+        for (int i = 0; i < executions; i++)
+        {
+            sampler.begin(i);
+            double value = 0;
+            for (int d = 0; d < DIMENSIONS; d++)
+                value += Math.exp(d % 2 == 0 ? sampler.uniform(d) : sampler.count(d));
+            blocks.add(i, new double[] { value });
+        }
+
+        assertEquals(executions / sampler.blockSize(), blocks.completed());
+        return blocks.statistics(0).getVariance() / blocks.completed();
+    }
+
+    /**
+     * @param scheme
+     *            Sampling scheme
+     * @param executions
+     *            Number of executions of the experiment
+     * @param replicates
+     *            Number of independent replicates
+     * @return A new sampler
+     */
+    private static ExecutionSampler sampler(SamplingScheme scheme, int executions, int replicates)
+    {
+        VerifierConfiguration config = new VerifierConfiguration.Builder()
+                .samplingScheme(scheme)
+                .numExecutions(executions)
+                .samplingReplicates(replicates)
+                .create();
+
+        return new ExecutionSampler(config, new RandomStreams(43L), DIMENSIONS);
+    }
+}
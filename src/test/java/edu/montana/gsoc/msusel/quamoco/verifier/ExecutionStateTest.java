@@ -0,0 +1,118 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Tests of the {@link ExecutionState} held apart from the plans of the
+ * graphs it is applied to.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ExecutionStateTest {
+
+    /**
+     * The findings recorded in a state give the same quality aspect values
+     * whichever copy of the graph they are attached to.
+     */
+    @Test
+    public void stateAppliesToAnyCopy()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> graphA = template.newInstance();
+        DirectedSparseGraph<Node, Edge> graphB = template.newInstance();
+        VerifierConfiguration config = TestModels.configure(graphA, 3).create();
+        VerificationContext context = TestModels.context(config, 31L);
+
+        try (VerificationContext active = context.enter())
+        {
+            BigDecimal[] baseline = verifier.evaluateModel(config, graphA);
+            EvaluationPlan planA = new EvaluationPlan(graphA, config, baseline);
+            EvaluationPlan planB = new EvaluationPlan(graphB, config, baseline);
+            ExecutionState state = new ExecutionState(planA);
+            double[] valuesA = new double[planA.aspects().size()];
+            double[] valuesB = new double[planB.aspects().size()];
+
+            for (long seed = 1; seed <= 10; seed++)
+            {
+                state.clear();
+                verifier.linkIssues(config, state, active.locations(), new SplitMixRandom(seed));
+                verifier.applyFindings(planA, state, active.locations());
+                verifier.applyFindings(planB, state, active.locations());
+                verifier.evaluateModel(planA, state, valuesA, false);
+                verifier.evaluateModel(planB, state, valuesB, false);
+                verifier.resetGraph(planA);
+                verifier.resetGraph(planB);
+
+                for (int j = 0; j < valuesA.length; j++)
+                    assertEquals(valuesA[j], valuesB[j], 0.0);
+            }
+        }
+    }
+
+    /**
+     * Clearing a state forgets the findings linked and the quality aspects
+     * they dirtied.
+     */
+    @Test
+    public void clearForgetsLinks()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        DirectedSparseGraph<Node, Edge> graph = TestModels.helloWorld(verifier);
+        VerifierConfiguration config = TestModels.configure(graph, 3).create();
+        EvaluationPlan plan = new EvaluationPlan(graph, config, verifier.evaluateModel(config, graph));
+        ExecutionState state = new ExecutionState(plan);
+
+        for (int f = 0; f < plan.findingCount(); f++)
+            state.markLinked(f, f);
+        assertEquals(plan.findingCount(), state.linkCount());
+        for (int f = 0; f < plan.findingCount(); f++)
+        {
+            assertEquals(f, state.linkedFinding(f));
+            assertEquals(f, state.linkedLocation(f));
+        }
+
+        state.clear();
+        assertEquals(0, state.linkCount());
+        assertTrue(state.isUnchanged());
+        for (int a = 0; a < plan.aspects().size(); a++)
+            assertFalse(state.isDirty(a));
+    }
+}
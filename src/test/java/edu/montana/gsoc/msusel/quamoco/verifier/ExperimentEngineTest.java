@@ -0,0 +1,150 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Tests of the {@link ExperimentEngine}, checking that splitting the
+ * executions across workers gives the results of running them on one.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ExperimentEngineTest {
+
+    /**
+     * Running with a fixed seed on several workers gives the statistics of
+     * running sequentially on one.
+     */
+    @Test
+    public void parallelResultsEqualSequentialResults()
+    {
+        ExperimentResults sequential = run(1, 0, 1000);
+        ExperimentResults parallel = run(4, 0, 1000);
+
+        assertSameResults(sequential, parallel);
+        assertEquals(sequential.shortCircuited(), parallel.shortCircuited());
+    }
+
+    /**
+     * Running the executions of the HelloWorld model on several workers, each
+     * with its own graph, gives the statistics of running them on one.
+     */
+    @Test
+    public void parallelWorkersEqualSingleWorker()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> graph = template.newInstance();
+        VerifierConfiguration single = TestModels.configure(graph, 3).numWorkers(1).create();
+        VerifierConfiguration parallel = TestModels.configure(graph, 3).numWorkers(4).create();
+
+        ExperimentResults expected = TestModels.experiment(verifier, single, template, 37L, 200);
+        ExperimentResults actual = TestModels.experiment(verifier, parallel, template, 37L, 200);
+
+        assertSameResults(expected, actual);
+        assertEquals(expected.shortCircuited(), actual.shortCircuited());
+    }
+
+    /**
+     * Every execution of a range is run exactly once, whatever the number of
+     * workers and however unevenly the range divides between them.
+     */
+    @Test
+    public void everyExecutionRunsOnce()
+    {
+        for (int workers = 1; workers <= 8; workers++)
+        {
+            ExperimentResults results = run(workers, 17, 120);
+            assertEquals(103, results.statistics(0).getN());
+            assertSameResults(run(1, 17, 120), results);
+        }
+    }
+
+    /**
+     * A range shorter than the number of workers is still run completely.
+     */
+    @Test
+    public void shortRangeRunsOnFewerWorkers()
+    {
+        assertSameResults(run(1, 5, 8), run(6, 5, 8));
+    }
+
+    /**
+     * Runs a range of executions on an engine with the given number of
+     * workers.
+     *
+     * @param workers
+     *            Number of workers
+     * @param from
+     *            First execution (inclusive)
+     * @param to
+     *            Last execution (exclusive)
+     * @return Results of the executions
+     */
+    private static ExperimentResults run(int workers, int from, int to)
+    {
+        VerifierConfiguration config = new VerifierConfiguration.Builder().numWorkers(workers).create();
+        RandomStreams streams = new RandomStreams(42L);
+
+        try (ExperimentEngine engine = new ExperimentEngine(config, () -> new SeededRunner(streams, 3)))
+        {
+            return engine.run(from, to);
+        }
+    }
+
+    /**
+     * Asserts that two results hold the same statistics for every quality
+     * aspect.
+     *
+     * @param expected
+     *            Expected results
+     * @param actual
+     *            Actual results
+     */
+    static void assertSameResults(ExperimentResults expected, ExperimentResults actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        for (int j = 0; j < expected.size(); j++)
+        {
+            AspectStatistics e = expected.statistics(j);
+            AspectStatistics a = actual.statistics(j);
+            assertEquals(e.getN(), a.getN());
+            assertEquals(e.getMean(), a.getMean(), 1e-12);
+            assertEquals(e.getVariance(), a.getVariance(), 1e-12);
+            assertEquals(e.getMin(), a.getMin(), 0.0);
+            assertEquals(e.getMax(), a.getMax(), 0.0);
+        }
+    }
+}
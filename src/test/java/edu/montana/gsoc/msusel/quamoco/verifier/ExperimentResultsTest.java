@@ -0,0 +1,149 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Tests of recording and merging {@link ExperimentResults} and their
+ * {@link BlockStatistics}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ExperimentResultsTest {
+
+    /**
+     * Number of quality aspects observed
+     */
+    private static final int ASPECTS    = 2;
+    /**
+     * Number of executions per block
+     */
+    private static final int BLOCK_SIZE = 10;
+    /**
+     * Number of executions of the experiment, the last block being cut short
+     */
+    private static final int TOTAL      = 95;
+
+    /**
+     * Each recorded execution adds one value to the statistics of every
+     * quality aspect.
+     */
+    @Test
+    public void recordsEachExecution()
+    {
+        ExperimentResults results = new ExperimentResults(ASPECTS);
+        results.record(0, new double[] { 1.0, 4.0 });
+        results.record(1, new double[] { 3.0, 8.0 });
+
+        assertEquals(2, results.statistics(0).getN());
+        assertEquals(2.0, results.statistics(0).getMean(), 0.0);
+        assertEquals(6.0, results.statistics(1).getMean(), 0.0);
+        assertNull(results.blocks());
+    }
+
+    /**
+     * Results recorded in disjoint ranges and merged, in any order, equal
+     * those recorded in a single pass, block means included.
+     */
+    @Test
+    public void mergedRangesEqualSinglePass()
+    {
+        ExperimentResults expected = record(0, TOTAL);
+
+        ExperimentResults merged = new ExperimentResults(ASPECTS);
+        int[] bounds = { 0, 7, 23, 24, 61, 80, TOTAL };
+        for (int i = bounds.length - 1; i > 0; i--)
+            merged.merge(record(bounds[i - 1], bounds[i]));
+
+        ExperimentEngineTest.assertSameResults(expected, merged);
+        assertEquals(expected.shortCircuited(), merged.shortCircuited());
+        assertEquals(expected.cacheHits(), merged.cacheHits());
+
+        BlockStatistics e = expected.blocks();
+        BlockStatistics a = merged.blocks();
+        assertEquals(e.completed(), a.completed());
+        for (int j = 0; j < ASPECTS; j++)
+        {
+            assertEquals(e.statistics(j).getMean(), a.statistics(j).getMean(), 1e-12);
+            assertEquals(e.statistics(j).getVariance(), a.statistics(j).getVariance(), 1e-12);
+        }
+    }
+
+    /**
+     * A block is complete only once all of its executions are recorded, the
+     * last block being cut short at the number of executions planned.
+     */
+    @Test
+    public void blocksCompleteWhenFull()
+    {
+        BlockStatistics blocks = new BlockStatistics(1, BLOCK_SIZE, TOTAL);
+        for (int i = 0; i < 9; i++)
+            blocks.add(i, new double[] { i });
+        assertEquals(0, blocks.completed());
+
+        blocks.add(9, new double[] { 9 });
+        assertEquals(1, blocks.completed());
+        assertEquals(4.5, blocks.statistics(0).getMean(), 0.0);
+
+        for (int i = 90; i < TOTAL; i++)
+            blocks.add(i, new double[] { 1.0 });
+        assertEquals(2, blocks.completed());
+        assertEquals(2.75, blocks.statistics(0).getMean(), 0.0);
+    }
+
+    /**
+     * @param from
+     *            Index of the first execution
+     * @param to
+     *            Index after the last execution
+     * @return Results of the executions in the range, with block statistics
+     */
+    private static ExperimentResults record(int from, int to)
+    {
+        ExperimentResults results = new ExperimentResults(ASPECTS);
+        results.trackBlocks(BLOCK_SIZE, TOTAL);
+        SplitMixRandom rand = new SplitMixRandom(17L);
+        RandomStreams streams = new RandomStreams(17L);
+        double[] values = new double[ASPECTS];
+        for (int i = from; i < to; i++)
+        {
+            rand.setSeed(streams.seedOf(i));
+            for (int j = 0; j < ASPECTS; j++)
+                values[j] = rand.nextDouble();
+            if (values[0] < 0.1)
+                results.recordShortCircuit();
+            results.record(i, values);
+        }
+        results.recordCache(to - from, 0, 0);
+
+        return results;
+    }
+}
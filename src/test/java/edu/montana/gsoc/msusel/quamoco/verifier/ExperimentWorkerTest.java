@@ -0,0 +1,156 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Tests of the executions run by an {@link ExperimentWorker} on the example
+ * quality model.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ExperimentWorkerTest {
+
+    /**
+     * Number of executions run by each test
+     */
+    private static final int EXECUTIONS = 200;
+
+    /**
+     * Executions linking no findings are short-circuited to the baseline
+     * values of the quality aspects.
+     */
+    @Test
+    public void noFindingsShortCircuit()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> graph = template.newInstance();
+        VerifierConfiguration config = TestModels.configure(graph, 3).findingProbability(0.0).create();
+        BigDecimal[] baseline;
+        try (VerificationContext active = TestModels.context(config, 19L).enter())
+        {
+            baseline = verifier.evaluateModel(config, graph);
+        }
+
+        ExperimentResults results = run(verifier, config, template, 19L);
+
+        assertEquals(EXECUTIONS, results.shortCircuited());
+        for (int j = 0; j < results.size(); j++)
+        {
+            assertEquals(baseline[j].doubleValue(), results.statistics(j).getMin(), 0.0);
+            assertEquals(baseline[j].doubleValue(), results.statistics(j).getMax(), 0.0);
+        }
+    }
+
+    /**
+     * Exactly the executions which link no findings are short-circuited.
+     */
+    @Test
+    public void shortCircuitsCountEmptyExecutions()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> graph = template.newInstance();
+        VerifierConfiguration config = TestModels.configure(graph, 3).findingProbability(0.1).create();
+
+        ExperimentResults results = run(verifier, config, template, 23L);
+
+        VerificationContext context = TestModels.context(config, 23L);
+        RandomStreams streams = new RandomStreams(23L).child("executions");
+        SplitMixRandom rand = new SplitMixRandom(0L);
+        long empty = 0;
+        try (VerificationContext active = context.enter())
+        {
+            EvaluationPlan plan = new EvaluationPlan(graph, config, verifier.evaluateModel(config, graph));
+            ExecutionState state = new ExecutionState(plan);
+            for (int i = 0; i < EXECUTIONS; i++)
+            {
+                state.clear();
+                rand.setSeed(streams.seedOf(i));
+                verifier.linkIssues(config, state, active.locations(), rand);
+                if (state.linkCount() == 0)
+                    empty++;
+            }
+        }
+
+        assertEquals(empty, results.shortCircuited());
+    }
+
+    /**
+     * Executions whose results are taken from the result cache have the same
+     * values as when every execution is evaluated.
+     */
+    @Test
+    public void cachedResultsEqualEvaluated()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> graph = template.newInstance();
+        VerifierConfiguration plain = TestModels.configure(graph, 3).findingProbability(0.2).resultCacheSize(0)
+                .create();
+        VerifierConfiguration memoized = TestModels.configure(graph, 3).findingProbability(0.2).resultCacheSize(64)
+                .create();
+
+        ExperimentResults evaluated = run(verifier, plain, template, 29L);
+        ExperimentResults cached = run(verifier, memoized, template, 29L);
+
+        ExperimentEngineTest.assertSameResults(evaluated, cached);
+        assertEquals(0, evaluated.cacheHits() + evaluated.cacheMisses());
+        assertEquals(EXECUTIONS, cached.cacheHits() + cached.cacheMisses() + cached.shortCircuited());
+    }
+
+    /**
+     * Runs the executions of an experiment, evaluating its baseline within
+     * the context of the code tree.
+     *
+     * @param verifier
+     *            Verifier evaluating the model
+     * @param config
+     *            The verifier configuration
+     * @param template
+     *            Template of the distilled quality model
+     * @param seed
+     *            Seed of the code tree and of the executions
+     * @return Results of the executions
+     */
+    static ExperimentResults run(ModelVerifier verifier, VerifierConfiguration config, QualityModelTemplate template,
+            long seed)
+    {
+        return TestModels.experiment(verifier, config, template, seed, EXECUTIONS);
+    }
+}
@@ -0,0 +1,161 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests of capturing and restoring the mutable scalar fields of objects
+ * through {@link GraphValues}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class GraphValuesTest {
+
+    /**
+     * Restoring gives back the captured value of every mutable scalar field,
+     * including inherited ones, of every captured object.
+     */
+    @Test
+    public void restoresScalarFields()
+    {
+        Probe first = new Probe();
+        Probe second = new Probe();
+        second.count = 2;
+        GraphValues clean = GraphValues.capture(Lists.newArrayList(first, second));
+
+        for (Probe probe : new Probe[] { first, second })
+        {
+            probe.count = 7;
+            probe.value = BigDecimal.TEN;
+            probe.cached = BigDecimal.ONE;
+            probe.computed = true;
+            probe.name = "changed";
+            probe.state = State.DIRTY;
+        }
+        clean.restore();
+
+        assertEquals(0, first.count);
+        assertEquals(2, second.count);
+        for (Probe probe : new Probe[] { first, second })
+        {
+            assertEquals(BigDecimal.ZERO, probe.value);
+            assertNull(probe.cached);
+            assertEquals(false, probe.computed);
+            assertEquals("probe", probe.name);
+            assertEquals(State.CLEAN, probe.state);
+        }
+    }
+
+    /**
+     * Static fields, final fields, and fields holding other objects are not
+     * touched by a restore.
+     */
+    @Test
+    public void leavesOtherFields()
+    {
+        Probe probe = new Probe();
+        GraphValues clean = GraphValues.capture(Lists.newArrayList(probe));
+
+        Probe.shared = 5;
+        probe.items.add("item");
+        List<String> replaced = Lists.newArrayList("replaced");
+        probe.others = replaced;
+        clean.restore();
+
+        assertEquals(5, Probe.shared);
+        assertEquals(Lists.newArrayList("item"), probe.items);
+        assertTrue(probe.others == replaced);
+        Probe.shared = 0;
+    }
+
+    /**
+     * States of a probe
+     */
+    private enum State {
+        CLEAN, DIRTY
+    }
+
+    /**
+     * Object holding a value computed from others, standing in for a node
+     */
+    private static class Base {
+
+        /**
+         * Value cached by the object, null until computed
+         */
+        BigDecimal cached;
+        /**
+         * Boolean flag indicating whether the value has been computed
+         */
+        boolean    computed;
+    }
+
+    /**
+     * Object with fields of every kind
+     */
+    private static class Probe extends Base {
+
+        /**
+         * Field shared by every probe
+         */
+        static int         shared = 0;
+        /**
+         * Counter
+         */
+        int                count  = 0;
+        /**
+         * Value
+         */
+        BigDecimal         value  = BigDecimal.ZERO;
+        /**
+         * Name
+         */
+        String             name   = "probe";
+        /**
+         * State
+         */
+        State              state  = State.CLEAN;
+        /**
+         * Items, mutated in place
+         */
+        final List<String> items  = Lists.newArrayList();
+        /**
+         * Other items, replaced
+         */
+        List<String>       others = Lists.newArrayList();
+    }
+}
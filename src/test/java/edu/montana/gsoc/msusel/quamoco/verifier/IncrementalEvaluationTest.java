@@ -0,0 +1,137 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Tests of incremental evaluation, which takes the quality aspects not
+ * downstream of any linked finding from the baseline.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class IncrementalEvaluationTest {
+
+    /**
+     * Folder holding the configuration files of each test
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Incremental evaluation gives the same values as recomputing every
+     * quality aspect.
+     */
+    @Test
+    public void incrementalEqualsFull()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        DirectedSparseGraph<Node, Edge> graph = TestModels.helloWorld(verifier);
+        VerifierConfiguration config = TestModels.configure(graph, 8).create();
+        VerificationContext context = TestModels.context(config, 13L);
+
+        try (VerificationContext active = context.enter())
+        {
+            BigDecimal[] baseline = verifier.evaluateModel(config, graph);
+            EvaluationPlan plan = new EvaluationPlan(graph, config, baseline);
+            ExecutionState state = new ExecutionState(plan);
+            double[] incremental = new double[plan.aspects().size()];
+            double[] full = new double[plan.aspects().size()];
+
+            for (long seed = 1; seed <= 20; seed++)
+            {
+                state.clear();
+                verifier.linkIssues(config, state, active.locations(), new SplitMixRandom(seed));
+                verifier.applyFindings(plan, state, active.locations());
+                verifier.evaluateModel(plan, state, incremental, true);
+                verifier.evaluateModel(plan, state, full, false);
+                verifier.resetGraph(plan);
+
+                assertArrayEquals(full, incremental, 0.0);
+            }
+        }
+    }
+
+    /**
+     * Experiments with and without incremental evaluation give the same
+     * results from the same seed.
+     */
+    @Test
+    public void incrementalExperimentEqualsFull()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> graph = template.newInstance();
+        VerifierConfiguration full = TestModels.configure(graph, 8).incrementalEvaluation(false).create();
+        VerifierConfiguration incremental = TestModels.configure(graph, 8).incrementalEvaluation(true).create();
+
+        ExperimentResults expected = TestModels.experiment(verifier, full, template, 43L, 200);
+        ExperimentResults actual = TestModels.experiment(verifier, incremental, template, 43L, 200);
+
+        ExperimentEngineTest.assertSameResults(expected, actual);
+    }
+
+    /**
+     * The interval between checks of the skipped quality aspects defaults to
+     * 100 executions, and ignores values which are not positive.
+     */
+    @Test
+    public void checkIntervalDefaults()
+    {
+        assertEquals(100, new VerifierConfiguration.Builder().create().incrementalCheckInterval());
+        assertEquals(25, new VerifierConfiguration.Builder().incrementalCheckInterval(25).create()
+                .incrementalCheckInterval());
+        assertEquals(100, new VerifierConfiguration.Builder().incrementalCheckInterval(0).create()
+                .incrementalCheckInterval());
+    }
+
+    /**
+     * The interval between checks is written to and read from configuration
+     * files.
+     */
+    @Test
+    public void checkIntervalLoaded() throws IOException
+    {
+        String file = folder.getRoot().toPath().resolve("config.json").toString();
+        new VerifierConfiguration.Builder().incrementalCheckInterval(7).create().write(file);
+
+        assertEquals(7, VerifierConfiguration.load(file).incrementalCheckInterval());
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+
+import edu.montana.gsoc.msusel.CodeTree;
+import edu.montana.gsoc.msusel.node.FileNode;
+import edu.montana.gsoc.msusel.node.MethodNode;
+import edu.montana.gsoc.msusel.node.TypeNode;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * Tests of the {@link LocationIndex}, checking the distribution of the
+ * sampled locations.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class LocationIndexTest {
+
+    /**
+     * Index under test
+     */
+    private LocationIndex index;
+    /**
+     * Number of methods of the tree
+     */
+    private int           methods;
+    /**
+     * Number of types of the tree
+     */
+    private int           types;
+    /**
+     * Number of files of the tree
+     */
+    private int           files;
+
+    /**
+     * Generates a code tree and indexes its locations.
+     */
+    @Before
+    public void setUp()
+    {
+        VerifierConfiguration config = new VerifierConfiguration.Builder().create();
+        CodeTree tree = new SimpleProjectGenerator(config, new SplitMixRandom(17L)).generateCodeTree();
+        index = new LocationIndex(tree);
+        methods = Iterables.size(tree.getUtils().getMethods());
+        types = Iterables.size(tree.getUtils().getTypes());
+        files = Iterables.size(tree.getUtils().getFiles());
+    }
+
+    /**
+     * Each kind of location is sampled a third of the time, and every sampled
+     * index is a location of the tree of that kind.
+     */
+    @Test
+    public void kindsAreSampledUniformly()
+    {
+        int samples = 30000;
+        int[] kinds = new int[3];
+        SplitMixRandom rand = new SplitMixRandom(5L);
+        for (int i = 0; i < samples; i++)
+        {
+            int location = index.sampleIndex(rand);
+            kinds[kind(location)]++;
+        }
+
+        for (int k = 0; k < kinds.length; k++)
+            assertEquals(1.0 / 3, kinds[k] / (double) samples, 0.02);
+    }
+
+    /**
+     * The sampled index refers to a location of the kind it was sampled as.
+     */
+    @Test
+    public void indicesResolveToLocationsOfTheirKind()
+    {
+        for (int i = 0; i < methods + types + files; i++)
+        {
+            switch (kind(i))
+            {
+            case 0:
+                assertTrue(index.location(i) instanceof MethodNode);
+                break;
+            case 1:
+                assertTrue(index.location(i) instanceof TypeNode);
+                break;
+            default:
+                assertTrue(index.location(i) instanceof FileNode);
+            }
+        }
+    }
+
+    /**
+     * Sampling from two uniform draws covers the first and last location of
+     * each kind.
+     */
+    @Test
+    public void drawsCoverEveryKind()
+    {
+        double last = Math.nextDown(1.0);
+
+        assertEquals(0, index.sampleIndex(0.0, 0.0));
+        assertEquals(methods - 1, index.sampleIndex(0.0, last));
+        assertEquals(methods, index.sampleIndex(0.5, 0.0));
+        assertEquals(methods + types - 1, index.sampleIndex(0.5, last));
+        assertEquals(methods + types, index.sampleIndex(last, 0.0));
+        assertEquals(methods + types + files - 1, index.sampleIndex(last, last));
+    }
+
+    /**
+     * Sampling a location and resolving it allocates nothing, however large
+     * the tree.
+     */
+    @Test
+    public void samplingDoesNotAllocate()
+    {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+
+        SplitMixRandom rand = new SplitMixRandom(3L);
+        int checksum = sample(rand, 20000);
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        checksum += sample(rand, 200000);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertTrue(checksum > 0);
+        assertTrue(allocated + " bytes allocated", allocated < 16 * 1024);
+    }
+
+    /**
+     * The same seed samples the same locations.
+     */
+    @Test
+    public void samplingIsReproducible()
+    {
+        SplitMixRandom first = new SplitMixRandom(9L);
+        SplitMixRandom second = new SplitMixRandom(9L);
+        for (int i = 0; i < 1000; i++)
+            assertEquals(index.sampleIndex(first), index.sampleIndex(second));
+    }
+
+    /**
+     * Samples locations and resolves them.
+     * 
+     * @param rand
+     *            Random number generator used to sample the locations
+     * @param samples
+     *            Number of locations to sample
+     * @return Sum of the indices of the sampled locations which resolved
+     */
+    private int sample(SplitMixRandom rand, int samples)
+    {
+        int checksum = 0;
+        for (int i = 0; i < samples; i++)
+        {
+            int location = index.sampleIndex(rand);
+            if (index.location(location) != null)
+                checksum += location;
+        }
+
+        return checksum;
+    }
+
+    /**
+     * @param location
+     *            Index of a location
+     * @return 0 for a method, 1 for a type, 2 for a file
+     */
+    private int kind(int location)
+    {
+        assertTrue(location >= 0 && location < methods + types + files);
+        if (location < methods)
+            return 0;
+
+        return location < methods + types ? 1 : 2;
+    }
+}
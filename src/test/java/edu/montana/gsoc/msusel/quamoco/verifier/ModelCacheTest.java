@@ -0,0 +1,293 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.collections15.Transformer;
+import org.apache.commons.collections15.functors.ChainedTransformer;
+import org.apache.commons.collections15.functors.ConstantTransformer;
+import org.apache.commons.collections15.functors.InvokerTransformer;
+import org.apache.commons.collections15.keyvalue.TiedMapEntry;
+import org.apache.commons.collections15.map.LazyMap;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Tests of storing and reading distilled graphs with a {@link ModelCache}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ModelCacheTest {
+
+    /**
+     * Label of the graphs stored by the tests
+     */
+    private static final String                       LABEL  = "test";
+    /**
+     * Folder holding the models and cache of each test
+     */
+    @Rule
+    public final TemporaryFolder                      folder = new TemporaryFolder();
+    /**
+     * Quality model file the graphs are distilled from
+     */
+    private Path                                      model;
+    /**
+     * Number of graphs distilled by the source
+     */
+    private AtomicInteger                             distilled;
+    /**
+     * Source distilling an empty graph and counting each distillation
+     */
+    private Supplier<DirectedSparseGraph<Node, Edge>> source;
+
+    /**
+     * Creates the quality model file and the counting source.
+     */
+    @Before
+    public void setUp() throws IOException
+    {
+        model = folder.newFile("model.qm").toPath();
+        Files.write(model, "<qm:QualityModel name=\"test\"/>".getBytes(StandardCharsets.UTF_8));
+        distilled = new AtomicInteger();
+        source = () -> {
+            distilled.incrementAndGet();
+            return new DirectedSparseGraph<>();
+        };
+    }
+
+    /**
+     * Only the classes making up a distilled graph may be read from a cache
+     * file.
+     */
+    @Test
+    public void allowsGraphClassesOnly()
+    {
+        assertTrue(ModelCache.isAllowed("java.util.HashMap"));
+        assertTrue(ModelCache.isAllowed("edu.uci.ics.jung.graph.DirectedSparseGraph"));
+        assertTrue(ModelCache.isAllowed("edu.montana.gsoc.msusel.quamoco.graph.node.FactorNode"));
+        assertTrue(ModelCache.isAllowed("[Ljava.lang.Object;"));
+        assertTrue(ModelCache.isAllowed("[[D"));
+
+        assertFalse(ModelCache.isAllowed("java.net.URL"));
+        assertFalse(ModelCache.isAllowed("java.util.PriorityQueue"));
+        assertFalse(ModelCache.isAllowed("edu.montana.gsoc.msusel.quamoco.verifier.ModelCache"));
+        assertFalse(ModelCache.isAllowed("edu.montana.gsoc.msusel.quamoco.graph.node.Missing"));
+        assertFalse(ModelCache.isAllowed("org.apache.commons.collections15.map.LazyMap"));
+        assertFalse(ModelCache.isAllowed("org.apache.commons.collections15.keyvalue.TiedMapEntry"));
+        assertFalse(ModelCache.isAllowed("org.apache.commons.collections15.functors.ChainedTransformer"));
+        assertFalse(ModelCache.isAllowed("org.apache.commons.collections15.functors.ConstantTransformer"));
+        assertFalse(ModelCache.isAllowed("org.apache.commons.collections15.functors.InvokerTransformer"));
+        assertFalse(ModelCache.isAllowed("[Ljava.rmi.server.UnicastRef;"));
+        assertFalse(ModelCache.isAllowed("org.apache.commons.collections.functors.InvokerTransformer"));
+        assertFalse(ModelCache.isAllowed("javax.management.BadAttributeValueExpException"));
+    }
+
+    /**
+     * The key of a graph changes with the contents of its inputs and with how
+     * they are distilled.
+     */
+    @Test
+    public void keyFollowsInputs() throws IOException
+    {
+        List<Path> inputs = Collections.singletonList(model);
+        String key = ModelCache.key(LABEL, ModelCache.fileParts(inputs));
+
+        assertEquals(key, ModelCache.key(LABEL, ModelCache.fileParts(inputs)));
+        assertNotEquals(key, ModelCache.key("other", ModelCache.fileParts(inputs)));
+
+        Files.write(model, "<qm:QualityModel name=\"changed\"/>".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(key, ModelCache.key(LABEL, ModelCache.fileParts(inputs)));
+    }
+
+    /**
+     * A graph is distilled once, then read from the cache until its inputs
+     * change.
+     */
+    @Test
+    public void readsStoredGraph() throws IOException
+    {
+        ModelCache cache = new ModelCache(folder.getRoot().toPath().resolve("cache"));
+        List<Path> inputs = Collections.singletonList(model);
+
+        cache.load(LABEL, inputs, source);
+        cache.load(LABEL, inputs, source);
+        assertEquals(1, distilled.get());
+
+        Files.write(model, "<qm:QualityModel name=\"changed\"/>".getBytes(StandardCharsets.UTF_8));
+        cache.load(LABEL, inputs, source);
+        assertEquals(2, distilled.get());
+    }
+
+    /**
+     * The cache directory is created readable and writable by its owner only.
+     */
+    @Test
+    public void createsPrivateDirectory() throws IOException
+    {
+        Path directory = folder.getRoot().toPath().resolve("cache");
+        new ModelCache(directory).load(LABEL, Collections.singletonList(model), source);
+
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(directory)));
+    }
+
+    /**
+     * A cache directory writable by others is not used.
+     */
+    @Test
+    public void bypassesSharedDirectory() throws IOException
+    {
+        Path directory = folder.newFolder("shared").toPath();
+        Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwxrwxrwx"));
+        ModelCache cache = new ModelCache(directory);
+        List<Path> inputs = Collections.singletonList(model);
+
+        cache.load(LABEL, inputs, source);
+        cache.load(LABEL, inputs, source);
+
+        assertEquals(2, distilled.get());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory))
+        {
+            assertFalse(files.iterator().hasNext());
+        }
+    }
+
+    /**
+     * A cache file holding classes other than those of a graph is discarded
+     * and the graph distilled again.
+     */
+    @Test
+    public void discardsTamperedFile() throws IOException
+    {
+        assertTampered(new URL("http://example.com/"));
+    }
+
+    /**
+     * A cache file holding a lazy map tied to a chain of transformers, as
+     * deserialization gadgets are built, is discarded and the graph distilled
+     * again.
+     */
+    @Test
+    public void rejectsTransformerChain() throws IOException
+    {
+        Transformer<Object, Object> chain = new ChainedTransformer<>(new Transformer[] {
+                new ConstantTransformer<>("model"), new InvokerTransformer("toString", new Class[0], new Object[0]) });
+        Map<Object, Object> lazy = LazyMap.decorate(Maps.newHashMap(), chain);
+        Map<Object, Object> gadget = Maps.newHashMap();
+        gadget.put(new TiedMapEntry<>(lazy, "key"), "value");
+
+        assertTampered(gadget);
+    }
+
+    /**
+     * The key of a graph distilled from a quality model file follows the
+     * files it references, directly or through other files, and no other
+     * file of its directory.
+     */
+    @Test
+    public void keyFollowsReferencedFiles() throws IOException
+    {
+        Path base = folder.newFile("base.qm").toPath();
+        Path root = folder.newFile("root.qm").toPath();
+        Path other = folder.newFile("other.qm").toPath();
+        Files.write(model, "<qm:QualityModel><parent href=\"base.qm#f1\"/></qm:QualityModel>"
+                .getBytes(StandardCharsets.UTF_8));
+        Files.write(base, "<qm:QualityModel><parent href=\"root.qm#f2\"/></qm:QualityModel>"
+                .getBytes(StandardCharsets.UTF_8));
+        Files.write(root, "<qm:QualityModel name=\"root\"/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(other, "<qm:QualityModel name=\"other\"/>".getBytes(StandardCharsets.UTF_8));
+
+        List<Path> inputs = ModelCache.includes(model);
+        assertEquals(Lists.newArrayList(model, base.toAbsolutePath(), root.toAbsolutePath()), inputs);
+
+        String key = ModelCache.key(LABEL, ModelCache.fileParts(inputs));
+        Files.write(other, "<qm:QualityModel name=\"changed\"/>".getBytes(StandardCharsets.UTF_8));
+        assertEquals(key, ModelCache.key(LABEL, ModelCache.fileParts(ModelCache.includes(model))));
+        Files.write(root, "<qm:QualityModel name=\"changed\"/>".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(key, ModelCache.key(LABEL, ModelCache.fileParts(ModelCache.includes(model))));
+    }
+
+    /**
+     * Asserts that a cache file holding the given object in place of the
+     * graph is discarded, the graph being distilled again and stored in its
+     * place.
+     *
+     * @param content
+     *            Object written in place of the graph
+     * @throws IOException
+     *             If the cache file cannot be written
+     */
+    private void assertTampered(Object content) throws IOException
+    {
+        Path directory = folder.getRoot().toPath().resolve("cache");
+        ModelCache cache = new ModelCache(directory);
+        List<Path> inputs = Collections.singletonList(model);
+        cache.load(LABEL, inputs, source);
+
+        String key = ModelCache.key(LABEL, ModelCache.fileParts(inputs));
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(directory.resolve(key + ".qmg")))))
+        {
+            oos.writeInt(1);
+            oos.writeUTF(key);
+            oos.writeObject(content);
+        }
+
+        cache.load(LABEL, inputs, source);
+        assertEquals(2, distilled.get());
+        cache.load(LABEL, inputs, source);
+        assertEquals(2, distilled.get());
+    }
+}
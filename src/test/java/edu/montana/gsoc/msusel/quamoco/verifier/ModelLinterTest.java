@@ -0,0 +1,231 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.model.QualityModel;
+import edu.montana.gsoc.msusel.quamoco.verifier.model.QualityModelReader;
+
+/**
+ * Tests of the defects reported by the {@link ModelLinter} on small crafted
+ * quality models.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ModelLinterTest {
+
+    /**
+     * Start of every crafted quality model, defining a quality aspect with a
+     * positively and a negatively impacting factor, and a measure of each
+     */
+    private static final String HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<qm:QualityModel xmi:version=\"2.0\" xmlns:xmi=\"http://www.omg.org/XMI\""
+            + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""
+            + " xmlns:qm=\"http://www.quamoco.de/qm/v17\" xmi:id=\"_lint\" name=\"Lint\">\n"
+            + "  <factors xmi:id=\"_q\" name=\"Quality\"/>\n"
+            + "  <factors xmi:id=\"_pos\" name=\"Positive\">\n"
+            + "    <influences xmi:id=\"_i1\" effect=\"POSITIVE\" target=\"_q\"/>\n"
+            + "  </factors>\n"
+            + "  <factors xmi:id=\"_neg\" name=\"Negative\">\n"
+            + "    <influences xmi:id=\"_i2\" effect=\"NEGATIVE\" target=\"_q\"/>\n"
+            + "  </factors>\n"
+            + "  <measures xmi:id=\"_mpos\" name=\"PositiveFindings\" type=\"FINDINGS\"/>\n"
+            + "  <measures xmi:id=\"_mneg\" name=\"NegativeFindings\" type=\"FINDINGS\"/>\n";
+    /**
+     * End of every crafted quality model
+     */
+    private static final String FOOTER = "</qm:QualityModel>\n";
+
+    /**
+     * A sound model has no defects.
+     */
+    @Test
+    public void soundModelIsClean() throws IOException
+    {
+        List<LintIssue> issues = lint(evaluation("_e1", "WeightedSumFactorAggregation", "_q",
+                factorRanking("_neg", 1.0))
+                + evaluation("_e2", "WeightedSumMultiMeasureEvaluation", "_neg",
+                        measureRanking("_mneg", 1.0, "LinearIncreasingFunction"))
+                + evaluation("_e3", "WeightedSumMultiMeasureEvaluation", "_pos",
+                        measureRanking("_mpos", 1.0, "LinearDecreasingFunction")));
+
+        assertTrue(issues.toString(), issues.isEmpty());
+    }
+
+    /**
+     * Weighted sums whose weights add up to less than 1.0 are reported.
+     */
+    @Test
+    public void reportsLowWeightSum() throws IOException
+    {
+        List<LintIssue> issues = lint(evaluation("_e1", "WeightedSumFactorAggregation", "_q",
+                factorRanking("_neg", 0.4) + factorRanking("_neg", 0.35)));
+
+        assertKinds(issues, LintIssue.Kind.WEIGHT_SUM);
+        assertEquals("_e1", issues.get(0).element().id().substring("lint.qm#".length()));
+    }
+
+    /**
+     * Measures whose utility function does not match the impact of the
+     * evaluated factor are reported, the impact of a factor without
+     * influences being that of the factors it refines.
+     */
+    @Test
+    public void reportsFunctionMismatch() throws IOException
+    {
+        String refining = "  <factors xmi:id=\"_sub\" name=\"Refining\">\n"
+                + "    <refines xmi:id=\"_r1\" parent=\"_neg\"/>\n"
+                + "  </factors>\n";
+        List<LintIssue> issues = lint(refining
+                + evaluation("_e1", "WeightedSumMultiMeasureEvaluation", "_neg",
+                        measureRanking("_mneg", 1.0, "LinearDecreasingFunction"))
+                + evaluation("_e2", "WeightedSumMultiMeasureEvaluation", "_pos",
+                        measureRanking("_mpos", 1.0, "LinearIncreasingFunction"))
+                + evaluation("_e3", "WeightedSumMultiMeasureEvaluation", "_sub",
+                        measureRanking("_mneg", 1.0, "LinearDecreasingFunction")));
+
+        assertKinds(issues, LintIssue.Kind.FUNCTION_MISMATCH, LintIssue.Kind.FUNCTION_MISMATCH,
+                LintIssue.Kind.FUNCTION_MISMATCH);
+    }
+
+    /**
+     * Evaluations ranking factors which impact the evaluated factor in both
+     * directions are reported.
+     */
+    @Test
+    public void reportsMixedImpacts() throws IOException
+    {
+        List<LintIssue> issues = lint(evaluation("_e1", "WeightedSumFactorAggregation", "_q",
+                factorRanking("_pos", 0.5) + factorRanking("_neg", 0.5)));
+
+        assertKinds(issues, LintIssue.Kind.MIXED_IMPACT);
+    }
+
+    /**
+     * Cyclic refinements do not prevent the impacts from being derived.
+     */
+    @Test
+    public void toleratesCyclicRefinement() throws IOException
+    {
+        String cycle = "  <factors xmi:id=\"_a\" name=\"A\">\n"
+                + "    <refines xmi:id=\"_r1\" parent=\"_b\"/>\n"
+                + "  </factors>\n"
+                + "  <factors xmi:id=\"_b\" name=\"B\">\n"
+                + "    <refines xmi:id=\"_r2\" parent=\"_a\"/>\n"
+                + "  </factors>\n";
+        List<LintIssue> issues = lint(cycle + evaluation("_e1", "WeightedSumMultiMeasureEvaluation", "_a",
+                measureRanking("_mneg", 1.0, "LinearDecreasingFunction")));
+
+        assertTrue(issues.toString(), issues.isEmpty());
+    }
+
+    /**
+     * @param body
+     *            Elements added to the crafted quality model
+     * @return Defects found in the crafted quality model
+     * @throws IOException
+     *             If the crafted quality model is malformed
+     */
+    private static List<LintIssue> lint(String body) throws IOException
+    {
+        QualityModelReader reader = new QualityModelReader();
+        reader.read("lint.qm", new ByteArrayInputStream((HEADER + body + FOOTER).getBytes(StandardCharsets.UTF_8)));
+        QualityModel model = reader.resolve();
+        assertTrue(model.unresolved().toString(), model.unresolved().isEmpty());
+
+        return new ModelLinter().lint(model);
+    }
+
+    /**
+     * Asserts that the defects found are of the given kinds, in order.
+     *
+     * @param issues
+     *            Defects found
+     * @param kinds
+     *            Expected kinds of the defects
+     */
+    private static void assertKinds(List<LintIssue> issues, LintIssue.Kind... kinds)
+    {
+        assertEquals(issues.toString(), kinds.length, issues.size());
+        for (int i = 0; i < kinds.length; i++)
+            assertEquals(kinds[i], issues.get(i).kind());
+    }
+
+    /**
+     * @param id
+     *            XMI id of the evaluation
+     * @param type
+     *            Type of the evaluation
+     * @param factor
+     *            XMI id of the evaluated factor
+     * @param rankings
+     *            Rankings of the evaluation
+     * @return The evaluation element
+     */
+    private static String evaluation(String id, String type, String factor, String rankings)
+    {
+        return "  <evaluations xsi:type=\"qm:" + type + "\" xmi:id=\"" + id + "\" name=\"" + type + "\" evaluates=\""
+                + factor + "\">\n" + rankings + "  </evaluations>\n";
+    }
+
+    /**
+     * @param factor
+     *            XMI id of the ranked factor
+     * @param weight
+     *            Weight of the ranking
+     * @return The ranking element
+     */
+    private static String factorRanking(String factor, double weight)
+    {
+        return "    <rankings rank=\"1\" weight=\"" + weight + "\" factor=\"" + factor + "\"/>\n";
+    }
+
+    /**
+     * @param measure
+     *            XMI id of the ranked measure
+     * @param weight
+     *            Weight of the ranking
+     * @param function
+     *            Type of the utility function
+     * @return The ranking element
+     */
+    private static String measureRanking(String measure, double weight, String function)
+    {
+        return "    <rankings rank=\"1\" weight=\"" + weight + "\" measure=\"" + measure + "\">\n"
+                + "      <function xsi:type=\"qm:" + function + "\" lowerBound=\"0.0\" upperBound=\"1.0\"/>\n"
+                + "    </rankings>\n";
+    }
+}
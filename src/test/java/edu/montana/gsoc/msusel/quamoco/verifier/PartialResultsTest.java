@@ -0,0 +1,236 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * Tests of splitting an experiment into shards and merging their
+ * {@link PartialResults}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class PartialResultsTest {
+
+    /**
+     * Number of quality aspects observed by the test runners
+     */
+    private static final int     ASPECTS = 3;
+    /**
+     * Number of executions of the experiment
+     */
+    private static final int     TOTAL   = 1003;
+    /**
+     * Master seed of the experiment
+     */
+    private static final long    SEED    = 41L;
+    /**
+     * Folder holding the partial results files of each test
+     */
+    @Rule
+    public final TemporaryFolder folder  = new TemporaryFolder();
+
+    /**
+     * The ranges of the shards cover every execution exactly once, and differ
+     * in size by at most one execution.
+     */
+    @Test
+    public void rangesCoverEveryExecution()
+    {
+        for (int shards = 1; shards <= 16; shards++)
+        {
+            int next = 0;
+            for (int shard = 0; shard < shards; shard++)
+            {
+                int[] range = PartialResults.range(shard, shards, TOTAL);
+                assertEquals(next, range[0]);
+                int size = range[1] - range[0];
+                assertTrue(size == TOTAL / shards || size == TOTAL / shards + 1);
+                next = range[1];
+            }
+            assertEquals(TOTAL, next);
+        }
+    }
+
+    /**
+     * Shards run separately, saved, and merged in any order give the same
+     * results as a single run of the experiment.
+     */
+    @Test
+    public void mergedShardsEqualSingleRun() throws IOException
+    {
+        int shards = 5;
+        List<PartialResults> loaded = Lists.newArrayList();
+        for (int shard = 0; shard < shards; shard++)
+        {
+            int[] range = PartialResults.range(shard, shards, TOTAL);
+            Path file = folder.getRoot().toPath().resolve("shard-" + shard + ".json");
+            shard(range[0], range[1]).save(file);
+            loaded.add(PartialResults.load(file));
+        }
+        Collections.reverse(loaded);
+
+        ExperimentResults merged = PartialResults.merge(loaded, "config", TOTAL);
+        ExperimentResults single = new SeededRunner(new RandomStreams(SEED), ASPECTS).run(0, TOTAL);
+
+        ExperimentEngineTest.assertSameResults(single, merged);
+        assertEquals(single.shortCircuited(), merged.shortCircuited());
+    }
+
+    /**
+     * Shards of the HelloWorld experiment run by separate verifiers, as
+     * separate JVMs would, merge into the results of the same experiment run
+     * by a single verifier with the same seed.
+     */
+    @Test
+    public void mergedHelloWorldShardsEqualSingleRun() throws IOException
+    {
+        String model = TestModels.EXAMPLES.resolve("helloworld.qm").toString();
+        VerifierConfiguration config = TestModels.configure(TestModels.helloWorld(TestModels.verifier()), ASPECTS)
+                .numExecutions(300)
+                .create();
+
+        int shards = 3;
+        List<PartialResults> loaded = Lists.newArrayList();
+        for (int shard = 0; shard < shards; shard++)
+            loaded.add(runShard(config, model, shard, shards));
+        PartialResults single = runShard(config, model, 0, 1);
+
+        ExperimentResults merged = PartialResults.merge(loaded, TestModels.verifier().configFingerprint(config), 300);
+
+        ExperimentEngineTest.assertSameResults(single.results(), merged);
+        assertEquals(single.results().shortCircuited(), merged.shortCircuited());
+    }
+
+    /**
+     * Shards leaving executions out are not merged.
+     */
+    @Test
+    public void rejectsMissingExecutions()
+    {
+        assertRejected(Lists.newArrayList(shard(0, 400), shard(500, TOTAL)), "config");
+        assertRejected(Lists.newArrayList(shard(0, 400), shard(400, 1000)), "config");
+    }
+
+    /**
+     * Shards running the same executions are not merged.
+     */
+    @Test
+    public void rejectsOverlappingShards()
+    {
+        assertRejected(Lists.newArrayList(shard(0, 600), shard(500, TOTAL)), "config");
+    }
+
+    /**
+     * Shards of different experiments are not merged.
+     */
+    @Test
+    public void rejectsDifferentExperiments()
+    {
+        PartialResults other = new PartialResults("config", "model", "tree", SEED + 1, 500, TOTAL,
+                new ExperimentResults(ASPECTS));
+
+        assertRejected(Lists.newArrayList(shard(0, 500), shard(500, TOTAL)), "other");
+        assertRejected(Lists.newArrayList(shard(0, 500), other), "config");
+    }
+
+    /**
+     * @param from
+     *            First execution of the shard
+     * @param to
+     *            Execution after the last of the shard
+     * @return Partial results of the shard
+     */
+    private static PartialResults shard(int from, int to)
+    {
+        ExperimentResults results = new SeededRunner(new RandomStreams(SEED), ASPECTS).run(from, to);
+        return new PartialResults("config", "model", "tree", SEED, from, to, results);
+    }
+
+    /**
+     * Runs a shard of the experiment on the given quality model with a new
+     * verifier.
+     *
+     * @param config
+     *            The verifier configuration
+     * @param model
+     *            File name of the quality model
+     * @param shard
+     *            Index of the shard, from 0
+     * @param shards
+     *            Number of shards the experiment is split into
+     * @return Partial results written by the shard
+     * @throws IOException
+     *             If the partial results cannot be read
+     */
+    private PartialResults runShard(VerifierConfiguration config, String model, int shard, int shards)
+            throws IOException
+    {
+        Path file = folder.getRoot().toPath().resolve("helloworld-" + shard + "-of-" + shards + ".json");
+        ModelVerifier verifier = TestModels.verifier();
+        verifier.enableShard(shard, shards, SEED, file);
+        verifier.process(config, model, null);
+
+        return PartialResults.load(file);
+    }
+
+    /**
+     * Asserts that the given partial results cannot be merged.
+     *
+     * @param partials
+     *            Partial results of the shards
+     * @param configHash
+     *            Fingerprint of the verifier configuration of the experiment
+     */
+    private static void assertRejected(List<PartialResults> partials, String configHash)
+    {
+        try
+        {
+            PartialResults.merge(partials, configHash, TOTAL);
+            fail("The partial results should not have been merged");
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+    }
+}
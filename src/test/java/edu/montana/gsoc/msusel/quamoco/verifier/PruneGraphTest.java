@@ -0,0 +1,171 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.FindingNode;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Tests of pruning a distilled graph to the cone of influence of the selected
+ * quality aspects, through {@link ModelVerifier#pruneGraph}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class PruneGraphTest {
+
+    /**
+     * Pruning keeps exactly the nodes on a path to a selected quality aspect,
+     * and every FindingNode, those outside the cone without their edges, and
+     * the values of the quality aspects are unchanged.
+     */
+    @Test
+    public void keepsConeOfInfluence()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        DirectedSparseGraph<Node, Edge> graph = TestModels.helloWorld(verifier);
+        VerifierConfiguration config = TestModels.configure(graph, 1).pruneToAspects(true).create();
+        BigDecimal[] before = verifier.evaluateModel(config, graph);
+        Set<Node> cone = upstream(graph, new AspectIndex(graph, config.qualityAspects()));
+        Set<Node> findings = findingNodes(graph);
+
+        assertTrue(verifier.pruneGraph(config, graph));
+
+        assertEquals(Sets.union(cone, findings), Sets.newHashSet(graph.getVertices()));
+        for (Node finding : Sets.difference(findings, cone))
+            assertEquals(0, graph.degree(finding));
+        BigDecimal[] after = verifier.evaluateModel(config, graph);
+        for (int j = 0; j < before.length; j++)
+            assertEquals(0, before[j].compareTo(after[j]));
+    }
+
+    /**
+     * Pruning a graph to every one of its factors removes no node reaching
+     * any of them.
+     */
+    @Test
+    public void keepsEveryFactorWhenAllSelected()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        DirectedSparseGraph<Node, Edge> graph = TestModels.helloWorld(verifier);
+        VerifierConfiguration config = TestModels.configure(graph, Integer.MAX_VALUE).pruneToAspects(true).create();
+        AspectIndex aspects = new AspectIndex(graph, config.qualityAspects());
+        Set<Node> cone = upstream(graph, aspects);
+
+        assertTrue(verifier.pruneGraph(config, graph));
+
+        assertEquals(Sets.union(cone, findingNodes(graph)), Sets.newHashSet(graph.getVertices()));
+        for (int i = 0; i < aspects.size(); i++)
+            assertTrue(graph.containsVertex(aspects.get(i)));
+    }
+
+    /**
+     * Experiments on the pruned graph give the same results as on the full
+     * graph from the same seed, findings outside the cone being selected as
+     * in the full graph and having no effect.
+     */
+    @Test
+    public void prunedExperimentEqualsFull()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        VerifierConfiguration config = TestModels.configure(TestModels.helloWorld(verifier), 1)
+                .pruneToAspects(true)
+                .resultCacheSize(16)
+                .create();
+        QualityModelTemplate full = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        QualityModelTemplate pruned = new QualityModelTemplate(() -> {
+            DirectedSparseGraph<Node, Edge> graph = TestModels.helloWorld(verifier);
+            assertTrue(verifier.pruneGraph(config, graph));
+            return graph;
+        });
+
+        ExperimentResults expected = TestModels.experiment(verifier, config, full, 73L, 200);
+        ExperimentResults actual = TestModels.experiment(verifier, config, pruned, 73L, 200);
+
+        ExperimentEngineTest.assertSameResults(expected, actual);
+        assertEquals(expected.shortCircuited(), actual.shortCircuited());
+        assertEquals(expected.cacheHits(), actual.cacheHits());
+    }
+
+    /**
+     * @param graph
+     *            Distilled graph of the quality model
+     * @return The FindingNodes of the graph
+     */
+    private static Set<Node> findingNodes(DirectedSparseGraph<Node, Edge> graph)
+    {
+        Set<Node> findings = Sets.newHashSet();
+        for (Node n : graph.getVertices())
+        {
+            if (n instanceof FindingNode)
+                findings.add(n);
+        }
+
+        return findings;
+    }
+
+    /**
+     * @param graph
+     *            Distilled graph of the quality model
+     * @param aspects
+     *            Quality aspects resolved against the graph
+     * @return The nodes of the graph on a path to one of the quality aspects,
+     *         including the quality aspects
+     */
+    private static Set<Node> upstream(DirectedSparseGraph<Node, Edge> graph, AspectIndex aspects)
+    {
+        Set<Node> reached = Sets.newHashSet();
+        for (int i = 0; i < aspects.size(); i++)
+            reached.add(aspects.get(i));
+
+        Deque<Node> pending = new ArrayDeque<>(reached);
+        while (!pending.isEmpty())
+        {
+            for (Node pred : graph.getPredecessors(pending.poll()))
+            {
+                if (reached.add(pred))
+                    pending.add(pred);
+            }
+        }
+
+        return reached;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+
+import org.apache.commons.cli.ParseException;
+import org.junit.Test;
+
+/**
+ * Tests of the combinations of options accepted by the {@link QMVerifyCLI}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class QMVerifyCLITest {
+
+    /**
+     * A seed or partial results file is only accepted for a shard worker.
+     */
+    @Test
+    public void seedRequiresShard() throws IOException, ParseException
+    {
+        assertRejected("--seed", "5");
+        assertRejected("--partial", "shard.json");
+        assertRejected("-q", "model.qm", "--seed", "5", "--partial", "shard.json");
+
+        QMVerifyCLI.checkOptions(QMVerifyCLI.parse("--shard", "0/2", "--seed", "5", "--partial", "shard.json"));
+    }
+
+    /**
+     * Checkpoints are only accepted for an experiment run in a single
+     * process.
+     */
+    @Test
+    public void checkpointsRequireSingleProcess() throws IOException, ParseException
+    {
+        assertRejected("-k", "run.checkpoint", "-s", "4");
+        assertRejected("-r", "-m", "a.json", "b.json");
+        assertRejected("-k", "run.checkpoint", "-b", "other.qm");
+        assertRejected("-k", "run.checkpoint", "--shard", "0/2", "--seed", "5", "--partial", "shard.json");
+        assertRejected("-r", "--shard", "0/2", "--seed", "5", "--partial", "shard.json");
+
+        QMVerifyCLI.checkOptions(QMVerifyCLI.parse("-k", "run.checkpoint", "-r"));
+    }
+
+    /**
+     * Merging, comparing, coordinating shards, and running a shard are
+     * exclusive.
+     */
+    @Test
+    public void modesAreExclusive() throws IOException, ParseException
+    {
+        assertRejected("-s", "4", "-m", "a.json");
+        assertRejected("-b", "other.qm", "-s", "4");
+        assertRejected("-s", "4", "--shard", "0/2", "--seed", "5", "--partial", "shard.json");
+
+        QMVerifyCLI.checkOptions(QMVerifyCLI.parse("-s", "4", "--shard-dir", "shards"));
+    }
+
+    /**
+     * Asserts that the given arguments are rejected.
+     *
+     * @param args
+     *            Raw command line arguments
+     * @throws IOException
+     *             If the arguments are accepted and the verifier fails
+     */
+    private static void assertRejected(String... args) throws IOException
+    {
+        try
+        {
+            QMVerifyCLI.execute(QMVerifyCLI.parse(args));
+            fail("The options should have been rejected: " + String.join(" ", args));
+        }
+        catch (ParseException e)
+        {
+            // expected
+        }
+    }
+}
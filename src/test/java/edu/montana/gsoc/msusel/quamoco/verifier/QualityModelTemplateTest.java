@@ -0,0 +1,164 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Finding;
+import edu.montana.gsoc.msusel.quamoco.graph.node.FindingNode;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Tests of the {@link QualityModelTemplate}, checking that the quality model
+ * is distilled once and that each copy is independent of the others.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class QualityModelTemplateTest {
+
+    /**
+     * The source of the graph is used once, however many copies are taken.
+     */
+    @Test
+    public void distillsSourceOnce()
+    {
+        AtomicInteger distilled = new AtomicInteger();
+        QualityModelTemplate template = new QualityModelTemplate(() -> {
+            distilled.incrementAndGet();
+            return new DirectedSparseGraph<Node, Edge>();
+        });
+
+        DirectedSparseGraph<Node, Edge> first = template.newInstance();
+        DirectedSparseGraph<Node, Edge> second = template.newInstance();
+        template.newInstance();
+
+        assertTrue(template.isSnapshot());
+        assertEquals(1, distilled.get());
+        assertNotSame(first, second);
+    }
+
+    /**
+     * An experiment distills the quality model once, however many executions
+     * it runs, even when no graph is reused between executions.
+     */
+    @Test
+    public void experimentDistillsOnce()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        AtomicInteger distilled = new AtomicInteger();
+        QualityModelTemplate template = new QualityModelTemplate(() -> {
+            distilled.incrementAndGet();
+            return TestModels.helloWorld(verifier);
+        });
+        VerifierConfiguration config = TestModels.configure(template.newInstance(), 3).reuseGraph(false).create();
+
+        ExperimentResults results = TestModels.experiment(verifier, config, template, 53L, 100);
+
+        assertEquals(100, results.statistics(0).getN());
+        assertEquals(1, distilled.get());
+    }
+
+    /**
+     * A copy taken from the template evaluates to the values of a graph
+     * distilled from the quality model files.
+     */
+    @Test
+    public void copiesEvaluateAsDistilled()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> distilled = TestModels.helloWorld(verifier);
+        VerifierConfiguration config = TestModels.configure(distilled, 8).create();
+
+        try (VerificationContext active = TestModels.context(config, 59L).enter())
+        {
+            BigDecimal[] expected = verifier.evaluateModel(config, distilled);
+            BigDecimal[] actual = verifier.evaluateModel(config, template.newInstance());
+            for (int j = 0; j < expected.length; j++)
+                assertEquals(0, expected[j].compareTo(actual[j]));
+        }
+    }
+
+    /**
+     * Copies of a distilled model hold the same nodes and edges, and findings
+     * attached to one copy are not seen by another.
+     */
+    @Test
+    public void copiesAreIndependent()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> first = template.newInstance();
+        DirectedSparseGraph<Node, Edge> second = template.newInstance();
+
+        assertEquals(first.getVertexCount(), second.getVertexCount());
+        assertEquals(first.getEdgeCount(), second.getEdgeCount());
+        assertEquals(names(first), names(second));
+
+        VerifierConfiguration config = TestModels.configure(first, 1).create();
+        VerificationContext context = TestModels.context(config, 7L);
+        EvaluationPlan plan = new EvaluationPlan(first, config);
+        assertTrue(plan.findingCount() > 0);
+
+        FindingNode attached = plan.finding(0);
+        attached.addFinding(new Finding(context.locations().location(0), plan.ruleName(0), plan.ruleName(0)));
+
+        FindingNode other = TestModels.findingNode(second, attached.getName());
+        assertNotNull(other);
+        assertEquals(1, attached.getFindings().size());
+        assertTrue(other.getFindings().isEmpty());
+    }
+
+    /**
+     * @param graph
+     *            Distilled graph
+     * @return Names of the nodes of the graph, in name order
+     */
+    private static List<String> names(DirectedSparseGraph<Node, Edge> graph)
+    {
+        List<String> names = Lists.newArrayList();
+        for (Node n : graph.getVertices())
+            names.add(n.getClass().getSimpleName() + ":" + n.getName());
+        names.sort(null);
+
+        return names;
+    }
+}
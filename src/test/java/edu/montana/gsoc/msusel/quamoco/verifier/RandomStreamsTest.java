@@ -0,0 +1,183 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * Tests of the reproducibility of the {@link RandomStreams} and
+ * {@link SplitMixRandom} generators.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class RandomStreamsTest {
+
+    /**
+     * Generators with the same seed produce the same sequence, and reseeding
+     * restarts it.
+     */
+    @Test
+    public void sameSeedSameSequence()
+    {
+        SplitMixRandom a = new SplitMixRandom(42L);
+        SplitMixRandom b = new SplitMixRandom(42L);
+        long[] first = new long[100];
+        for (int i = 0; i < first.length; i++)
+        {
+            first[i] = a.nextLong();
+            assertEquals(first[i], b.nextLong());
+        }
+
+        a.setSeed(42L);
+        for (int i = 0; i < first.length; i++)
+            assertEquals(first[i], a.nextLong());
+    }
+
+    /**
+     * Doubles are drawn from [0, 1).
+     */
+    @Test
+    public void doublesInUnitInterval()
+    {
+        SplitMixRandom rand = new SplitMixRandom(7L);
+        for (int i = 0; i < 10000; i++)
+        {
+            double d = rand.nextDouble();
+            assertTrue(d >= 0.0 && d < 1.0);
+        }
+    }
+
+    /**
+     * Named streams depend only on the master seed and their name, not on the
+     * order in which they are requested.
+     */
+    @Test
+    public void namedStreamsIndependentOfOrder()
+    {
+        RandomStreams a = new RandomStreams(3L);
+        RandomStreams b = new RandomStreams(3L);
+
+        long locations = a.stream("locations").nextLong();
+        long findings = a.stream("findings").nextLong();
+
+        assertEquals(findings, b.stream("findings").nextLong());
+        assertEquals(locations, b.stream("locations").nextLong());
+        assertNotEquals(locations, findings);
+        assertNotEquals(locations, new RandomStreams(4L).stream("locations").nextLong());
+    }
+
+    /**
+     * The seed of an execution depends only on its index, so executions
+     * produce the same values whatever worker runs them and in whatever order.
+     */
+    @Test
+    public void executionSeedsIndependentOfOrder()
+    {
+        RandomStreams streams = new RandomStreams(9L).child("executions");
+        RandomStreams same = new RandomStreams(9L).child("executions");
+        Set<Long> seeds = Sets.newHashSet();
+
+        for (long i = 999; i >= 0; i--)
+            seeds.add(streams.seedOf(i));
+        for (long i = 0; i < 1000; i++)
+            assertTrue(seeds.contains(same.seedOf(i)));
+
+        assertEquals(1000, seeds.size());
+        assertNotEquals(streams.seedOf(0), new RandomStreams(9L).child("comparison").seedOf(0));
+    }
+
+    /**
+     * Split generators produce sequences distinct from their parent.
+     */
+    @Test
+    public void splitIsDistinct()
+    {
+        SplitMixRandom parent = new SplitMixRandom(5L);
+        SplitMixRandom child = parent.split();
+        SplitMixRandom again = new SplitMixRandom(5L).split();
+
+        for (int i = 0; i < 100; i++)
+        {
+            long value = child.nextLong();
+            assertEquals(value, again.nextLong());
+            assertNotEquals(value, parent.nextLong());
+        }
+    }
+
+    /**
+     * The configured seed is the master seed of the experiment.
+     */
+    @Test
+    public void configuredSeedIsMasterSeed()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        VerifierConfiguration config = new VerifierConfiguration.Builder().seed(99L).create();
+
+        assertEquals(99L, verifier.selectSeed(config));
+    }
+
+    /**
+     * Contexts generated from the same seed hold the same code tree.
+     */
+    @Test
+    public void sameSeedSameTree()
+    {
+        VerifierConfiguration config = new VerifierConfiguration.Builder().seed(13L).create();
+
+        assertEquals(tree(config, 13L).locations().fingerprint(), tree(config, 13L).locations().fingerprint());
+        assertNotEquals(tree(config, 13L).locations().fingerprint(), tree(config, 14L).locations().fingerprint());
+    }
+
+    /**
+     * Generates a context the way the verifier does.
+     *
+     * @param config
+     *            The verifier configuration
+     * @param seed
+     *            Master seed of the context
+     * @return Context holding the code tree and metrics generated from the
+     *         seed
+     */
+    private static VerificationContext tree(VerifierConfiguration config, long seed)
+    {
+        VerificationContext context = new VerificationContext(config, new RandomStreams(seed));
+        context.setTree(new SimpleProjectGenerator(context).generateCodeTree());
+        new MetricsGenerator(context).addMetricsToCodeTree(context.tree().getProject());
+
+        return context;
+    }
+}
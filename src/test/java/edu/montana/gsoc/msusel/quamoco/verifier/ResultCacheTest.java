@@ -0,0 +1,121 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Tests of the memoization of execution results by a {@link ResultCache}
+ * keyed by {@link ScenarioKey}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ResultCacheTest {
+
+    /**
+     * Scenarios linking the same findings to the same locations have the same
+     * key whatever the order the findings were linked in.
+     */
+    @Test
+    public void keysIgnoreLinkOrder()
+    {
+        ScenarioKey a = key(1, 5, 2, 7, 1, 3);
+        ScenarioKey b = key(2, 7, 1, 3, 1, 5);
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+    /**
+     * Scenarios differing in any link, or in how often a finding is linked to
+     * a location, have different keys.
+     */
+    @Test
+    public void keysDistinguishScenarios()
+    {
+        ScenarioKey key = key(1, 5, 2, 7);
+
+        assertNotEquals(key, key(1, 5, 2, 8));
+        assertNotEquals(key, key(1, 5, 3, 7));
+        assertNotEquals(key, key(1, 5, 2, 7, 2, 7));
+        assertNotEquals(key, key(1, 5));
+        assertNotEquals(key(5, 1), key(1, 5));
+    }
+
+    /**
+     * Only the given number of links form the key.
+     */
+    @Test
+    public void keysUseCountedLinks()
+    {
+        long[] links = { ScenarioKey.encode(1, 5), ScenarioKey.encode(2, 7), ScenarioKey.encode(9, 9) };
+
+        assertEquals(key(1, 5, 2, 7), new ScenarioKey(links, 2));
+    }
+
+    /**
+     * The least recently used entry is evicted once the cache is full, and the
+     * hits, misses and evictions are counted.
+     */
+    @Test
+    public void evictsLeastRecentlyUsed()
+    {
+        ResultCache cache = new ResultCache(2);
+        cache.put(key(1, 1), new double[] { 1.0 });
+        cache.put(key(2, 2), new double[] { 2.0 });
+        assertArrayEquals(new double[] { 1.0 }, cache.get(key(1, 1)), 0.0);
+
+        cache.put(key(3, 3), new double[] { 3.0 });
+
+        assertNull(cache.get(key(2, 2)));
+        assertArrayEquals(new double[] { 1.0 }, cache.get(key(1, 1)), 0.0);
+        assertArrayEquals(new double[] { 3.0 }, cache.get(key(3, 3)), 0.0);
+        assertEquals(3, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.evictions());
+    }
+
+    /**
+     * @param pairs
+     *            Indices of each linked finding followed by that of its
+     *            location
+     * @return Key of the scenario
+     */
+    private static ScenarioKey key(int... pairs)
+    {
+        long[] links = new long[pairs.length / 2];
+        for (int i = 0; i < links.length; i++)
+            links[i] = ScenarioKey.encode(pairs[2 * i], pairs[2 * i + 1]);
+
+        return new ScenarioKey(links, links.length);
+    }
+}
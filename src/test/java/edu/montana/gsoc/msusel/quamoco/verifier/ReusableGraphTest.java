@@ -0,0 +1,184 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Tests of resetting a distilled graph in place, through
+ * {@link ModelVerifier#resetGraph(EvaluationPlan)} and
+ * {@link ReusableGraph}, checking that a reset graph is indistinguishable from
+ * a clean copy.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class ReusableGraphTest {
+
+    /**
+     * Resetting a graph after attaching the findings of an execution clears
+     * every finding and restores the baseline quality aspect values.
+     */
+    @Test
+    public void resetRestoresBaseline()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        DirectedSparseGraph<Node, Edge> graph = TestModels.helloWorld(verifier);
+        VerifierConfiguration config = TestModels.configure(graph, 3).create();
+        VerificationContext context = TestModels.context(config, 3L);
+
+        try (VerificationContext active = context.enter())
+        {
+            BigDecimal[] baseline = verifier.evaluateModel(config, graph);
+            EvaluationPlan plan = new EvaluationPlan(graph, config, baseline);
+            ExecutionState state = new ExecutionState(plan);
+
+            for (long seed = 1; seed <= 20; seed++)
+            {
+                state.clear();
+                verifier.linkIssues(config, state, active.locations(), new SplitMixRandom(seed));
+                verifier.applyFindings(plan, state, active.locations());
+                verifier.resetGraph(plan);
+
+                assertNoFindings(plan);
+                assertValues(baseline, verifier.evaluateModel(config, graph));
+            }
+        }
+    }
+
+    /**
+     * A reused graph is handed out again after being reset, with no findings
+     * attached.
+     */
+    @Test
+    public void reusedGraphIsClean()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> graph = template.newInstance();
+        VerifierConfiguration config = TestModels.configure(graph, 3).reuseGraph(true).create();
+        VerificationContext context = TestModels.context(config, 5L);
+
+        try (VerificationContext active = context.enter())
+        {
+            BigDecimal[] baseline = verifier.evaluateModel(config, graph);
+            ReusableGraph reusable = new ReusableGraph(verifier, config, template, baseline);
+            EvaluationPlan first = reusable.acquire();
+            ExecutionState state = new ExecutionState(first);
+
+            for (long seed = 1; seed <= 5; seed++)
+            {
+                EvaluationPlan plan = reusable.acquire();
+                assertSame(first, plan);
+                assertNoFindings(plan);
+
+                state.clear();
+                verifier.linkIssues(config, state, active.locations(), new SplitMixRandom(seed));
+                verifier.applyFindings(plan, state, active.locations());
+            }
+
+            assertNoFindings(reusable.acquire());
+            assertValues(baseline, verifier.evaluateModel(first.aspects()));
+        }
+    }
+
+    /**
+     * An experiment resetting one graph per worker gives the results of one
+     * taking a clean copy of the graph for every execution.
+     */
+    @Test
+    public void reuseGivesResultsOfCleanCopies()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> graph = template.newInstance();
+        VerifierConfiguration copied = TestModels.configure(graph, 8).reuseGraph(false).incrementalEvaluation(false)
+                .create();
+        VerifierConfiguration reused = TestModels.configure(graph, 8).reuseGraph(true).incrementalEvaluation(false)
+                .create();
+
+        ExperimentResults expected = TestModels.experiment(verifier, copied, template, 61L, 200);
+        ExperimentResults actual = TestModels.experiment(verifier, reused, template, 61L, 200);
+
+        ExperimentEngineTest.assertSameResults(expected, actual);
+    }
+
+    /**
+     * Without reuse, every execution receives a new copy of the graph.
+     */
+    @Test
+    public void graphIsReplacedWithoutReuse()
+    {
+        ModelVerifier verifier = TestModels.verifier();
+        QualityModelTemplate template = new QualityModelTemplate(() -> TestModels.helloWorld(verifier));
+        DirectedSparseGraph<Node, Edge> graph = template.newInstance();
+        VerifierConfiguration config = TestModels.configure(graph, 3).reuseGraph(false).create();
+
+        ReusableGraph reusable = new ReusableGraph(verifier, config, template, null);
+        EvaluationPlan first = reusable.acquire();
+
+        assertNotSame(first, reusable.acquire());
+    }
+
+    /**
+     * Asserts that no findings are attached to the graph of the given plan.
+     *
+     * @param plan
+     *            Plan of the graph
+     */
+    private static void assertNoFindings(EvaluationPlan plan)
+    {
+        for (int f = 0; f < plan.findingCount(); f++)
+            assertTrue(plan.finding(f).getFindings().isEmpty());
+    }
+
+    /**
+     * Asserts that the quality aspect values are numerically equal.
+     *
+     * @param expected
+     *            Expected values
+     * @param actual
+     *            Actual values
+     */
+    static void assertValues(BigDecimal[] expected, BigDecimal[] actual)
+    {
+        assertEquals(expected.length, actual.length);
+        for (int j = 0; j < expected.length; j++)
+            assertEquals(expected[j] + " != " + actual[j], 0, expected[j].compareTo(actual[j]));
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+/**
+ * Runner whose values for each execution depend only on the stream of that
+ * execution, as the values of the experiment workers do, standing in for the
+ * workers in tests of the experiment loop. The values of each quality aspect
+ * are uniform in [0, 1), and an execution whose first value is below 0.1 is
+ * counted as short-circuited.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+class SeededRunner implements ExecutionRunner {
+
+    /**
+     * Streams from which each execution is seeded
+     */
+    private final RandomStreams  streams;
+    /**
+     * Random number generator reseeded for each execution
+     */
+    private final SplitMixRandom rand;
+    /**
+     * Number of quality aspects observed
+     */
+    private final int            aspects;
+
+    /**
+     * Constructs a new SeededRunner
+     *
+     * @param streams
+     *            Streams from which each execution is seeded
+     * @param aspects
+     *            Number of quality aspects observed
+     */
+    SeededRunner(RandomStreams streams, int aspects)
+    {
+        this.streams = streams;
+        this.rand = new SplitMixRandom(streams.seed());
+        this.aspects = aspects;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ExperimentResults run(int from, int to)
+    {
+        ExperimentResults results = new ExperimentResults(aspects);
+        double[] values = new double[aspects];
+        for (int i = from; i < to; i++)
+        {
+            rand.setSeed(streams.seedOf(i));
+            for (int j = 0; j < aspects; j++)
+                values[j] = rand.nextDouble();
+            if (values[0] < 0.1)
+                results.recordShortCircuit();
+            results.record(i, values);
+        }
+
+        return results;
+    }
+}
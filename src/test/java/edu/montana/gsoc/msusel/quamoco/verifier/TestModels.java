@@ -0,0 +1,245 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import edu.montana.gsoc.msusel.CodeTree;
+import edu.montana.gsoc.msusel.quamoco.graph.edge.Edge;
+import edu.montana.gsoc.msusel.quamoco.graph.node.FactorNode;
+import edu.montana.gsoc.msusel.quamoco.graph.node.FindingNode;
+import edu.montana.gsoc.msusel.quamoco.graph.node.Node;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+import edu.uci.ics.jung.graph.DirectedSparseGraph;
+
+/**
+ * Fixtures shared by the tests which distill and evaluate the example quality
+ * models.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+final class TestModels {
+
+    /**
+     * Directory holding the example quality models
+     */
+    static final Path EXAMPLES = Paths.get("examples");
+
+    /**
+     * Hidden constructor
+     */
+    private TestModels()
+    {
+    }
+
+    /**
+     * @return A new verifier discarding its output
+     */
+    static ModelVerifier verifier()
+    {
+        return new ModelVerifier(new PrintWriter(new StringWriter()));
+    }
+
+    /**
+     * @param verifier
+     *            Verifier distilling the model
+     * @return Graph distilled from the HelloWorld example quality model
+     */
+    static DirectedSparseGraph<Node, Edge> helloWorld(ModelVerifier verifier)
+    {
+        return verifier.buildGraph(EXAMPLES.resolve("helloworld.qm"));
+    }
+
+    /**
+     * Creates a configuration selecting factors of the given graph as its
+     * quality aspects, with findings linked to most locations.
+     *
+     * @param graph
+     *            Distilled graph of the quality model
+     * @param aspects
+     *            Maximum number of quality aspects to select
+     * @return Builder of the configuration, to be adjusted by the test
+     */
+    static VerifierConfiguration.Builder configure(DirectedSparseGraph<Node, Edge> graph, int aspects)
+    {
+        VerifierConfiguration.Builder builder = new VerifierConfiguration.Builder()
+                .findingToVerify(VerifierConfiguration.ANY)
+                .findingProbability(0.5)
+                .modelCache(false)
+                .lint(false);
+
+        for (String name : factorNames(graph, aspects))
+            builder.qualityAspect(name);
+
+        return builder;
+    }
+
+    /**
+     * @param graph
+     *            Distilled graph of the quality model
+     * @param count
+     *            Maximum number of names
+     * @return Names of the factors of the graph, in name order, without
+     *         names differing only by case
+     */
+    static List<String> factorNames(DirectedSparseGraph<Node, Edge> graph, int count)
+    {
+        List<String> names = Lists.newArrayList();
+        for (Node n : graph.getVertices())
+        {
+            if (n instanceof FactorNode && n.getName() != null)
+                names.add(n.getName());
+        }
+        names.sort(String.CASE_INSENSITIVE_ORDER);
+
+        List<String> selected = Lists.newArrayList();
+        Set<String> seen = Sets.newHashSet();
+        for (String name : names)
+        {
+            if (selected.size() < count && seen.add(name.toLowerCase()))
+                selected.add(name);
+        }
+
+        return selected;
+    }
+
+    /**
+     * @param graph
+     *            Distilled graph of the quality model
+     * @param name
+     *            Name of a FindingNode
+     * @return The FindingNode of the graph with the name, null if none
+     */
+    static FindingNode findingNode(DirectedSparseGraph<Node, Edge> graph, String name)
+    {
+        for (Node n : graph.getVertices())
+        {
+            if (n instanceof FindingNode && name.equals(n.getName()))
+                return (FindingNode) n;
+        }
+
+        return null;
+    }
+
+    /**
+     * Creates the context of a verification, generating its code tree and
+     * metrics from the given seed.
+     *
+     * @param config
+     *            The verifier configuration
+     * @param seed
+     *            Seed of the code tree and of the random number streams
+     * @return The context, not entered
+     */
+    static VerificationContext context(VerifierConfiguration config, long seed)
+    {
+        VerificationContext context = new VerificationContext(config, new RandomStreams(seed));
+        CodeTree tree = new SimpleProjectGenerator(config, new SplitMixRandom(seed)).generateCodeTree();
+        new MetricsGenerator(new SplitMixRandom(seed + 1)).addMetricsToCodeTree(tree.getProject());
+        context.setTree(tree);
+
+        return context;
+    }
+
+    /**
+     * Runs the executions of an experiment on the given template as
+     * {@link ModelVerifier#executeExperiment(VerificationContext, QualityModelTemplate)}
+     * does, on the configured number of workers, with the code tree and
+     * random number streams derived from the given seed.
+     *
+     * @param verifier
+     *            Verifier providing the simulation steps
+     * @param config
+     *            The verifier configuration
+     * @param template
+     *            Template of the distilled quality model
+     * @param seed
+     *            Seed of the code tree and of the random number streams
+     * @param executions
+     *            Number of executions to run
+     * @return Results of the executions
+     */
+    static ExperimentResults experiment(ModelVerifier verifier, VerifierConfiguration config,
+            QualityModelTemplate template, long seed, int executions)
+    {
+        return experiment(verifier, config, template, seed, UnaryOperator.identity(),
+                engine -> engine.run(0, executions));
+    }
+
+    /**
+     * Runs an experiment on the given template, on an engine whose workers
+     * evaluate the template as those of
+     * {@link ModelVerifier#executeExperiment(VerificationContext, QualityModelTemplate)}
+     * do, with the code tree and random number streams derived from the given
+     * seed.
+     *
+     * @param verifier
+     *            Verifier providing the simulation steps
+     * @param config
+     *            The verifier configuration
+     * @param template
+     *            Template of the distilled quality model
+     * @param seed
+     *            Seed of the code tree and of the random number streams
+     * @param runner
+     *            Wraps each worker into the runner used by the engine
+     * @param experiment
+     *            Runs the experiment on the engine
+     * @return Results of the experiment
+     */
+    static ExperimentResults experiment(ModelVerifier verifier, VerifierConfiguration config,
+            QualityModelTemplate template, long seed, UnaryOperator<ExecutionRunner> runner,
+            Function<ExperimentEngine, ExperimentResults> experiment)
+    {
+        VerificationContext context = context(config, seed);
+
+        try (VerificationContext active = context.enter())
+        {
+            DirectedSparseGraph<Node, Edge> graph = template.newInstance();
+            BigDecimal[] baseline = verifier.evaluateModel(config, graph);
+            EvaluationPlan layout = new EvaluationPlan(graph, config, baseline);
+            RandomStreams streams = new RandomStreams(seed).child("executions");
+
+            try (ExperimentEngine engine = new ExperimentEngine(config, () -> runner.apply(new ExperimentWorker(
+                    verifier, config, active.locations(), template, baseline, layout, streams))))
+            {
+                return experiment.apply(engine);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.montana.gsoc.msusel.CodeTree;
+import edu.montana.gsoc.msusel.quamoco.verifier.config.VerifierConfiguration;
+
+/**
+ * Tests of the binding of the library singletons to the tree of a
+ * {@link VerificationContext}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class VerificationContextTest {
+
+    /**
+     * Time given to a context to enter, in milliseconds
+     */
+    private static final long     TIMEOUT = 5000;
+    /**
+     * Time during which a context is expected to remain blocked, in
+     * milliseconds
+     */
+    private static final long     BLOCKED = 200;
+    /**
+     * Executor entering contexts on other threads
+     */
+    private ExecutorService       executor;
+    /**
+     * The verifier configuration
+     */
+    private VerifierConfiguration config;
+
+    /**
+     * Creates the executor and the configuration.
+     */
+    @Before
+    public void setUp()
+    {
+        executor = Executors.newSingleThreadExecutor();
+        config = new VerifierConfiguration.Builder().create();
+    }
+
+    /**
+     * Stops the executor.
+     */
+    @After
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A context cannot be entered before its tree is generated.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void requiresTree()
+    {
+        new VerificationContext(config, new RandomStreams(1L)).enter();
+    }
+
+    /**
+     * Contexts sharing a tree are entered at the same time.
+     */
+    @Test
+    public void sameTreeEntersConcurrently() throws Exception
+    {
+        CodeTree tree = new CodeTree();
+        VerificationContext first = context(tree);
+        VerificationContext second = context(tree);
+
+        try (VerificationContext active = first.enter())
+        {
+            Future<VerificationContext> entering = executor.submit(second::enter);
+            assertSame(second, entering.get(TIMEOUT, TimeUnit.MILLISECONDS));
+        }
+        finally
+        {
+            second.close();
+        }
+    }
+
+    /**
+     * A context with another tree waits until every context bound to the
+     * current tree is closed.
+     */
+    @Test
+    public void otherTreeWaitsForRelease() throws Exception
+    {
+        VerificationContext first = context(new CodeTree());
+        VerificationContext second = context(new CodeTree());
+
+        first.enter();
+        first.enter();
+        Future<VerificationContext> entering = executor.submit(second::enter);
+        try
+        {
+            assertBlocked(entering);
+            first.close();
+            assertSame(second, entering.get(TIMEOUT, TimeUnit.MILLISECONDS));
+        }
+        finally
+        {
+            first.close();
+            entering.get(TIMEOUT, TimeUnit.MILLISECONDS).close();
+        }
+    }
+
+    /**
+     * @param tree
+     *            Code tree of the context
+     * @return A new context of the tree, not entered
+     */
+    private VerificationContext context(CodeTree tree)
+    {
+        VerificationContext context = new VerificationContext(config, new RandomStreams(1L));
+        context.setTree(tree);
+
+        return context;
+    }
+
+    /**
+     * Asserts that a context is still waiting to enter.
+     *
+     * @param entering
+     *            The context being entered
+     */
+    private static void assertBlocked(Future<VerificationContext> entering) throws Exception
+    {
+        try
+        {
+            entering.get(BLOCKED, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e)
+        {
+            // expected
+        }
+        assertFalse(entering.isDone());
+    }
+}
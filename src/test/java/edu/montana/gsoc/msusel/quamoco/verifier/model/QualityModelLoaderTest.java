@@ -0,0 +1,69 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests of loading quality models and the modules they reference through a
+ * {@link QualityModelLoader}.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class QualityModelLoaderTest {
+
+    /**
+     * Folder in which the missing quality model is looked up
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Loading a model and the modules it references gives the same outline
+     * as reading each module in turn.
+     */
+    @Test
+    public void loadEqualsSequentialRead() throws Exception
+    {
+        QualityModel model = new QualityModelLoader().load(QualityModelReaderTest.EXAMPLES.resolve("helloworld.qm"));
+
+        QualityModelReaderTest.assertOutline(model, "helloworld.qm", "object.qm", "root.qm");
+    }
+
+    /**
+     * A missing quality model file is reported.
+     */
+    @Test(expected = IOException.class)
+    public void reportsMissingFile() throws IOException
+    {
+        new QualityModelLoader().load(folder.getRoot().toPath().resolve("missing.qm"));
+    }
+}
@@ -0,0 +1,379 @@
+/**
+ * The MIT License (MIT)
+ *
+ * MSUSEL Quamoco Verifier
+ * Copyright (c) 2015-2017 Montana State University, Gianforte School of Computing,
+ * Software Engineering Laboratory
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package edu.montana.gsoc.msusel.quamoco.verifier.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Tests of the streaming {@link QualityModelReader}, checking the outline it
+ * reads from the example quality models against one built from their
+ * document trees.
+ *
+ * @author Isaac Griffith
+ * @version 1.1.1
+ */
+public class QualityModelReaderTest {
+
+    /**
+     * Directory holding the example quality models
+     */
+    static final Path           EXAMPLES = Paths.get("examples");
+    /**
+     * Namespace of the XMI attributes
+     */
+    private static final String XMI_NS   = "http://www.omg.org/XMI";
+    /**
+     * Namespace of the XML schema instance attributes
+     */
+    private static final String XSI_NS   = "http://www.w3.org/2001/XMLSchema-instance";
+
+    /**
+     * The HelloWorld model and the modules it references are read in full.
+     */
+    @Test
+    public void readsHelloWorld() throws Exception
+    {
+        assertOutline(read("helloworld.qm", "object.qm", "root.qm"), "helloworld.qm", "object.qm", "root.qm");
+    }
+
+    /**
+     * The Java model and the modules it references are read in full.
+     */
+    @Test
+    public void readsJava() throws Exception
+    {
+        assertOutline(read("java.qm", "object.qm", "root.qm"), "java.qm", "object.qm", "root.qm");
+    }
+
+    /**
+     * References to modules which were not read are reported as missing and
+     * left unresolved.
+     */
+    @Test
+    public void reportsMissingModules() throws IOException
+    {
+        QualityModelReader reader = new QualityModelReader();
+        reader.read(EXAMPLES.resolve("helloworld.qm"));
+
+        assertEquals(Lists.newArrayList("object.qm", "root.qm"), Lists.newArrayList(reader.missingModules()));
+        assertTrue(!reader.resolve().unresolved().isEmpty());
+    }
+
+    /**
+     * A target nested in an influences element of a measure is not bound to
+     * the influence of the factor read before it.
+     */
+    @Test
+    public void influenceEndsWithItsElement() throws IOException
+    {
+        String module = "<qm:QualityModel xmlns:xmi=\"" + XMI_NS + "\" xmlns:qm=\"http://www.quamoco.de/qm/v17\">"
+                + "<factors xmi:id=\"a\" name=\"A\"><influences effect=\"POSITIVE\"><target href=\"test.qm#b\"/>"
+                + "</influences></factors>"
+                + "<factors xmi:id=\"b\" name=\"B\"/>"
+                + "<factors xmi:id=\"c\" name=\"C\"/>"
+                + "<measures xmi:id=\"m\" name=\"M\"><influences><target href=\"test.qm#c\"/></influences>"
+                + "</measures></qm:QualityModel>";
+        QualityModelReader reader = new QualityModelReader();
+        reader.read("test.qm", new ByteArrayInputStream(module.getBytes(StandardCharsets.UTF_8)));
+        QualityModel model = reader.resolve();
+
+        Factor a = (Factor) model.element(ModelElement.id("test.qm", "a"));
+        assertEquals(1, a.influences().size());
+        assertEquals(model.element(ModelElement.id("test.qm", "b")), a.influences().get(0).target());
+    }
+
+    /**
+     * @param modules
+     *            Names of the example modules to read, in order
+     * @return Outline of the modules, resolved
+     * @throws IOException
+     *             If any module cannot be read
+     */
+    private static QualityModel read(String... modules) throws IOException
+    {
+        QualityModelReader reader = new QualityModelReader();
+        for (String module : modules)
+            reader.read(EXAMPLES.resolve(module));
+
+        assertTrue(reader.missingModules().isEmpty());
+        return reader.resolve();
+    }
+
+    /**
+     * Asserts that an outline holds exactly the elements of the given example
+     * modules, with their relationships fully resolved.
+     *
+     * @param model
+     *            Outline read by the reader
+     * @param modules
+     *            Names of the example modules
+     * @throws Exception
+     *             If a module cannot be parsed into a document tree
+     */
+    static void assertOutline(QualityModel model, String... modules) throws Exception
+    {
+        Map<String, String> expected = Maps.newTreeMap();
+        for (String module : modules)
+            describe(module, expected);
+
+        Map<String, String> actual = Maps.newTreeMap();
+        for (Factor factor : model.factors())
+            actual.put(factor.id(), describe(factor));
+        for (Measure measure : model.measures())
+            actual.put(measure.id(), describe(measure));
+        for (Evaluation evaluation : model.evaluations())
+            actual.put(evaluation.id(), describe(evaluation));
+
+        assertEquals(Lists.newArrayList(modules), model.modules());
+        assertEquals(expected.size(), model.size());
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, String> entry : expected.entrySet())
+            assertEquals(entry.getKey(), entry.getValue(), actual.get(entry.getKey()));
+        assertTrue(model.unresolved().isEmpty());
+    }
+
+    /**
+     * Describes the top level factors, measures, and evaluations of an
+     * example module from its document tree.
+     *
+     * @param module
+     *            Name of the example module
+     * @param descriptions
+     *            Descriptions of the elements, by qualified id, receiving
+     *            those of the module
+     * @throws Exception
+     *             If the module cannot be parsed
+     */
+    private static void describe(String module, Map<String, String> descriptions) throws Exception
+    {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Document doc = factory.newDocumentBuilder().parse(EXAMPLES.resolve(module).toFile());
+
+        for (Element e : children(doc.getDocumentElement()))
+        {
+            String id = e.getAttributeNS(XMI_NS, "id");
+            if (id.isEmpty())
+                continue;
+
+            StringBuilder sb = new StringBuilder();
+            String name = e.hasAttribute("name") ? e.getAttribute("name") : null;
+            switch (e.getLocalName())
+            {
+            case "factors":
+                sb.append("Factor ").append(name);
+                StringBuilder influences = new StringBuilder();
+                for (Element c : children(e))
+                {
+                    if ("refines".equals(c.getLocalName()))
+                        sb.append(" parent=").append(reference(module, c, "parent"));
+                    else if ("influences".equals(c.getLocalName()))
+                        influences.append(" influence=")
+                                .append(c.hasAttribute("effect") ? c.getAttribute("effect").trim().toUpperCase()
+                                        : "POSITIVE")
+                                .append(':').append(reference(module, c, "target"));
+                }
+                sb.append(influences);
+                break;
+            case "measures":
+                sb.append("Measure ").append(name).append(' ')
+                        .append(e.hasAttribute("type") ? e.getAttribute("type") : null);
+                StringBuilder measures = new StringBuilder();
+                for (Element c : children(e))
+                {
+                    if ("refines".equals(c.getLocalName()))
+                        sb.append(" parent=").append(reference(module, c, "parent"));
+                    else if ("measures".equals(c.getLocalName()))
+                        measures.append(" measures=").append(reference(module, c, "parent"));
+                }
+                sb.append(measures);
+                break;
+            case "evaluations":
+                String type = e.getAttributeNS(XSI_NS, "type");
+                sb.append("Evaluation ").append(name).append(' ').append(type.substring(type.indexOf(':') + 1));
+                sb.append(" evaluates=").append(reference(module, e, "evaluates"));
+                for (Element c : children(e))
+                {
+                    if (!"rankings".equals(c.getLocalName()))
+                        continue;
+
+                    String factor = reference(module, c, "factor");
+                    sb.append(" ranking=").append((int) number(c, "rank")).append(':').append(number(c, "weight"))
+                            .append(':').append(factor != null ? factor : reference(module, c, "measure"));
+                    for (Element f : children(c))
+                    {
+                        if ("function".equals(f.getLocalName()))
+                        {
+                            String ftype = f.getAttributeNS(XSI_NS, "type");
+                            sb.append(":").append(ftype.substring(ftype.indexOf(':') + 1)).append('[')
+                                    .append(number(f, "lowerBound")).append(',').append(number(f, "upperBound"))
+                                    .append(']');
+                        }
+                    }
+                }
+                break;
+            default:
+                continue;
+            }
+
+            descriptions.put(module + "#" + id, sb.toString());
+        }
+    }
+
+    /**
+     * @param factor
+     *            Factor read by the reader
+     * @return Description of the factor
+     */
+    private static String describe(Factor factor)
+    {
+        StringBuilder sb = new StringBuilder("Factor ").append(factor.name());
+        for (Factor parent : factor.parents())
+            sb.append(" parent=").append(parent.id());
+        for (Influence influence : factor.influences())
+            sb.append(" influence=").append(influence.effect()).append(':').append(influence.target().id());
+
+        return sb.toString();
+    }
+
+    /**
+     * @param measure
+     *            Measure read by the reader
+     * @return Description of the measure
+     */
+    private static String describe(Measure measure)
+    {
+        StringBuilder sb = new StringBuilder("Measure ").append(measure.name()).append(' ').append(measure.type());
+        for (Measure parent : measure.parents())
+            sb.append(" parent=").append(parent.id());
+        for (Factor factor : measure.measuredFactors())
+            sb.append(" measures=").append(factor.id());
+
+        return sb.toString();
+    }
+
+    /**
+     * @param evaluation
+     *            Evaluation read by the reader
+     * @return Description of the evaluation
+     */
+    private static String describe(Evaluation evaluation)
+    {
+        StringBuilder sb = new StringBuilder("Evaluation ").append(evaluation.name()).append(' ')
+                .append(evaluation.type());
+        sb.append(" evaluates=").append(evaluation.evaluates() != null ? evaluation.evaluates().id() : null);
+        for (Ranking ranking : evaluation.rankings())
+        {
+            sb.append(" ranking=").append(ranking.rank()).append(':').append(ranking.weight()).append(':')
+                    .append(ranking.target() != null ? ranking.target().id() : null);
+            UtilityFunction function = ranking.function();
+            if (function != null)
+                sb.append(":").append(function.type()).append('[').append(function.lowerBound()).append(',')
+                        .append(function.upperBound()).append(']');
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Resolves a reference given either as an attribute of an element or as
+     * the href of a child element with the same name.
+     *
+     * @param module
+     *            Name of the module holding the element
+     * @param element
+     *            Element holding the reference
+     * @param name
+     *            Name of the attribute or child element
+     * @return Qualified id of the referenced element, null if absent
+     */
+    private static String reference(String module, Element element, String name)
+    {
+        String href = element.hasAttribute(name) ? element.getAttribute(name) : null;
+        for (Element c : children(element))
+        {
+            if (name.equals(c.getLocalName()))
+                href = c.getAttribute("href");
+        }
+        if (href == null || href.isEmpty())
+            return null;
+
+        int hash = href.indexOf('#');
+        if (hash < 0)
+            return module + "#" + href;
+
+        String target = href.substring(0, hash);
+        return target.substring(target.lastIndexOf('/') + 1) + href.substring(hash);
+    }
+
+    /**
+     * @param element
+     *            An element
+     * @param name
+     *            Name of a numeric attribute
+     * @return Value of the attribute, 0 if absent
+     */
+    private static double number(Element element, String name)
+    {
+        return element.hasAttribute(name) ? Double.parseDouble(element.getAttribute(name)) : 0;
+    }
+
+    /**
+     * @param parent
+     *            An element
+     * @return The child elements of the element, in document order
+     */
+    private static List<Element> children(Element parent)
+    {
+        List<Element> children = Lists.newArrayList();
+        for (Node n = parent.getFirstChild(); n != null; n = n.getNextSibling())
+        {
+            if (n instanceof Element)
+                children.add((Element) n);
+        }
+
+        return children;
+    }
+}